@@ -14,6 +14,7 @@ import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.modeller.model.Metadata;
 import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
 import io.cloudslang.lang.entities.CompilationArtifact;
+import io.cloudslang.lang.entities.EventVerbosity;
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.score.events.ScoreEventListener;
@@ -51,6 +52,18 @@ public interface Slang {
             Set<SlangSource> dependencies,
             PrecompileStrategy precompileStrategy);
 
+    /**
+     * Compile each of the given CloudSlang sources, with all of them as its dependencies.
+     * Each source is compiled only once, instead of once for every source that depends on it.
+     *
+     * @param sources the CloudSlang source files
+     * @param precompileStrategy with / without cache
+     * @return the model (may be partially correct) and the accumulated errors of each source
+     */
+    Map<SlangSource, CompilationModellingResult> compileSources(
+            Set<SlangSource> sources,
+            PrecompileStrategy precompileStrategy);
+
     /**
      * Extract the metadata of a flow or operation written in CloudSlang
      *
@@ -98,6 +111,21 @@ public interface Slang {
              Map<String, Value> runInputs,
              Set<SystemProperty> systemProperties);
 
+    /**
+     * Run a flow or operation written in CloudSlang already compiled to a compilationArtifact,
+     * firing only the language events of the given verbosity
+     *
+     * @param compilationArtifact the compiled artifact of the flow or operation
+     * @param runInputs           the inputs for the flow or operation run
+     * @param systemProperties    the system properties for the flow or operation run
+     * @param eventVerbosity      the language events to fire during the run
+     * @return the execution ID in score
+     */
+    Long run(CompilationArtifact compilationArtifact,
+             Map<String, Value> runInputs,
+             Set<SystemProperty> systemProperties,
+             EventVerbosity eventVerbosity);
+
     /**
      * Compile and run a flow or operation written in CloudSlang
      *
@@ -113,7 +141,9 @@ public interface Slang {
                        Set<SystemProperty> systemProperties);
 
     /**
-     * Subscribe to events of score or CloudSlang
+     * Subscribe to events of score or CloudSlang.
+     * When the 'cslang.events.subscribed.only' system property is true, executions fire only the CloudSlang
+     * events that had a listener subscribed through this interface when they were triggered.
      *
      * @param eventListener listener for the events
      * @param eventTypes    set of types of events to subscribe to
@@ -16,7 +16,9 @@ import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.modeller.model.Metadata;
 import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
 import io.cloudslang.lang.entities.CompilationArtifact;
+import io.cloudslang.lang.entities.EventVerbosity;
 import io.cloudslang.lang.entities.ScoreLangConstants;
+import io.cloudslang.lang.entities.SlangSystemPropertyConstant;
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.runtime.env.RunEnvironment;
@@ -30,6 +32,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.lang.Validate;
 import org.apache.log4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -55,6 +58,9 @@ public class SlangImpl implements Slang {
     @Autowired
     private EventBus eventBus;
 
+    // the event types of every listener, so executions can fire only the language events someone listens to
+    private final Map<ScoreEventListener, Set<String>> eventSubscriptions = new ConcurrentHashMap<>();
+
     @Override
     public CompilationArtifact compile(SlangSource source, Set<SlangSource> dependencies) {
         return compile(source, dependencies, PrecompileStrategy.WITHOUT_CACHE);
@@ -105,6 +111,21 @@ public class SlangImpl implements Slang {
         }
     }
 
+    @Override
+    public Map<SlangSource, CompilationModellingResult> compileSources(
+            Set<SlangSource> sources,
+            PrecompileStrategy precompileStrategy) {
+        Validate.notNull(precompileStrategy, "Pre-compile strategy can not be null");
+        Set<SlangSource> slangSources = filterOutNullSources(sources);
+
+        try {
+            return compiler.compileSources(slangSources, precompileStrategy);
+        } catch (Exception e) {
+            logger.error("Failed compilation for sources ,Exception is : " + e.getMessage());
+            throw new RuntimeException("Failed compilation for sources ,Exception is : " + e.getMessage(), e);
+        }
+    }
+
     private Set<SlangSource> filterOutNullSources(Set<SlangSource> dependencies) {
         Set<SlangSource> dependencySources = new HashSet<>();
         if (dependencies != null) {
@@ -132,6 +153,12 @@ public class SlangImpl implements Slang {
     @Override
     public Long run(CompilationArtifact compilationArtifact, Map<String, Value> runInputs,
                     Set<SystemProperty> systemProperties) {
+        return run(compilationArtifact, runInputs, systemProperties, EventVerbosity.FULL);
+    }
+
+    @Override
+    public Long run(CompilationArtifact compilationArtifact, Map<String, Value> runInputs,
+                    Set<SystemProperty> systemProperties, EventVerbosity eventVerbosity) {
         Validate.notNull(compilationArtifact, "Compilation artifact can not be null");
         if (runInputs == null) {
             runInputs = new HashMap<>();
@@ -139,6 +166,10 @@ public class SlangImpl implements Slang {
 
         Map<String, Serializable> executionContext = new HashMap<>();
         RunEnvironment runEnv = new RunEnvironment(systemProperties);
+        if (isSubscribedEventsOnly()) {
+            runEnv.setEnabledEventTypes(getSubscribedEventTypes());
+        }
+        runEnv.setEventVerbosity(eventVerbosity == null ? EventVerbosity.FULL : eventVerbosity);
         executionContext.put(ScoreLangConstants.RUN_ENV, runEnv);
 
         executionContext.put(ScoreLangConstants.USER_INPUTS_KEY, (Serializable) runInputs);
@@ -162,11 +193,13 @@ public class SlangImpl implements Slang {
     @Override
     public void subscribeOnEvents(ScoreEventListener eventListener, Set<String> eventTypes) {
         eventBus.subscribe(eventListener, eventTypes);
+        eventSubscriptions.put(eventListener, new HashSet<>(eventTypes));
     }
 
     @Override
     public void unSubscribeOnEvents(ScoreEventListener eventListener) {
         eventBus.unsubscribe(eventListener);
+        eventSubscriptions.remove(eventListener);
     }
 
     @Override
@@ -180,6 +213,21 @@ public class SlangImpl implements Slang {
         return compiler.loadSystemProperties(source);
     }
 
+    // opt-in, since listeners that subscribe after the run starts, through the event bus or on other nodes
+    // are not known here
+    private boolean isSubscribedEventsOnly() {
+        return Boolean.parseBoolean(
+                System.getProperty(SlangSystemPropertyConstant.CSLANG_EVENTS_SUBSCRIBED_ONLY.getValue()));
+    }
+
+    private Set<String> getSubscribedEventTypes() {
+        Set<String> eventTypes = new HashSet<>();
+        for (Set<String> listenerEventTypes : eventSubscriptions.values()) {
+            eventTypes.addAll(listenerEventTypes);
+        }
+        return eventTypes;
+    }
+
     private Set<String> getAllEventTypes() {
         Set<String> eventTypes = new HashSet<>();
         eventTypes.add(EventConstants.SCORE_FINISHED_EVENT);
@@ -16,7 +16,9 @@ import io.cloudslang.lang.compiler.SlangCompiler;
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.modeller.model.Metadata;
 import io.cloudslang.lang.entities.CompilationArtifact;
+import io.cloudslang.lang.entities.EventVerbosity;
 import io.cloudslang.lang.entities.ScoreLangConstants;
+import io.cloudslang.lang.entities.SlangSystemPropertyConstant;
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Input;
 import io.cloudslang.lang.entities.bindings.values.Value;
@@ -188,6 +190,51 @@ public class SlangImplTest {
         Assert.assertTrue(runEnv.getSystemProperties().contains(expectedSystemProperty));
     }
 
+    @Test
+    public void testRunEnablesAllEventsByDefault() {
+        ScoreEventListener eventListener = new EventListener();
+        slang.subscribeOnEvents(eventListener, Sets.newHashSet(ScoreLangConstants.EVENT_STEP_START));
+        try {
+            slang.run(emptyCompilationArtifact, new HashMap<String, Value>(), new HashSet<SystemProperty>());
+        } finally {
+            slang.unSubscribeOnEvents(eventListener);
+        }
+
+        RunEnvironment runEnv = captureRunEnvironment();
+        Assert.assertTrue(runEnv.isEventEnabled(ScoreLangConstants.EVENT_STEP_START));
+        Assert.assertTrue(runEnv.isEventEnabled(ScoreLangConstants.EVENT_ACTION_START));
+        Assert.assertTrue(runEnv.isEventEnabled(ScoreLangConstants.EVENT_EXECUTION_FINISHED));
+    }
+
+    @Test
+    public void testRunEnablesOnlySubscribedEventsWhenRequested() {
+        ScoreEventListener eventListener = new EventListener();
+        slang.subscribeOnEvents(eventListener, Sets.newHashSet(ScoreLangConstants.EVENT_STEP_START));
+        System.setProperty(SlangSystemPropertyConstant.CSLANG_EVENTS_SUBSCRIBED_ONLY.getValue(), "true");
+        try {
+            slang.run(emptyCompilationArtifact, new HashMap<String, Value>(), new HashSet<SystemProperty>());
+        } finally {
+            System.clearProperty(SlangSystemPropertyConstant.CSLANG_EVENTS_SUBSCRIBED_ONLY.getValue());
+            slang.unSubscribeOnEvents(eventListener);
+        }
+
+        RunEnvironment runEnv = captureRunEnvironment();
+        Assert.assertTrue(runEnv.isEventEnabled(ScoreLangConstants.EVENT_STEP_START));
+        Assert.assertFalse(runEnv.isEventEnabled(ScoreLangConstants.EVENT_ACTION_START));
+    }
+
+    @Test
+    public void testRunWithEventVerbosity() {
+        slang.run(emptyCompilationArtifact, new HashMap<String, Value>(), new HashSet<SystemProperty>(),
+                EventVerbosity.RESULTS_ONLY);
+
+        ArgumentCaptor<TriggeringProperties> argumentCaptor = ArgumentCaptor.forClass(TriggeringProperties.class);
+        Mockito.verify(score).trigger(argumentCaptor.capture());
+        RunEnvironment runEnv =
+                (RunEnvironment) argumentCaptor.getValue().getContext().get(ScoreLangConstants.RUN_ENV);
+        Assert.assertEquals(EventVerbosity.RESULTS_ONLY, runEnv.getEventVerbosity());
+    }
+
     @Test
     public void testRunWithNullInputs() {
         Long executionId = slang.run(emptyCompilationArtifact, null, new HashSet<SystemProperty>());
@@ -282,6 +329,12 @@ public class SlangImplTest {
         return SlangSource.fromFile(tempFile);
     }
 
+    private RunEnvironment captureRunEnvironment() {
+        ArgumentCaptor<TriggeringProperties> argumentCaptor = ArgumentCaptor.forClass(TriggeringProperties.class);
+        Mockito.verify(score).trigger(argumentCaptor.capture());
+        return (RunEnvironment) argumentCaptor.getValue().getContext().get(ScoreLangConstants.RUN_ENV);
+    }
+
     @Configuration
     static class Config {
 
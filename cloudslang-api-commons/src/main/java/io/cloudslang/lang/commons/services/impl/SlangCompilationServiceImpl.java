@@ -19,8 +19,11 @@ import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.filefilter.IOFileFilter;
@@ -44,17 +47,19 @@ public class SlangCompilationServiceImpl implements SlangCompilationService {
         List<CompilationModellingResult> results = new ArrayList<>();
         try {
             Set<SlangSource> dependencySources = getSourcesFromFolders(foldersPaths);
+            Map<SlangSource, File> files = new LinkedHashMap<>();
             for (SlangSource dependencySource : dependencySources) {
                 File file = getFile(dependencySource.getFilePath());
                 compilationHelper.onEveryFile(file);
-                try {
-                    CompilationModellingResult result =
-                            slang.compileSource(dependencySource, dependencySources, PrecompileStrategy.WITH_CACHE);
-                    result.setFile(file);
+                files.put(dependencySource, file);
+            }
+            // all the sources are compiled together, so each of them is compiled only once
+            Map<SlangSource, CompilationModellingResult> compiledSources = compileSources(files);
+            for (Map.Entry<SlangSource, File> entry : files.entrySet()) {
+                CompilationModellingResult result = compiledSources.get(entry.getKey());
+                if (result != null) {
+                    result.setFile(entry.getValue());
                     results.add(result);
-                } catch (Exception e) {
-                    logger.error("Failed compilation for file : " + file.getName() +
-                            " ,Exception is : " + e.getMessage());
                 }
             }
         } finally {
@@ -64,6 +69,18 @@ public class SlangCompilationServiceImpl implements SlangCompilationService {
         return results;
     }
 
+    private Map<SlangSource, CompilationModellingResult> compileSources(Map<SlangSource, File> files) {
+        try {
+            return slang.compileSources(files.keySet(), PrecompileStrategy.WITH_CACHE);
+        } catch (Exception e) {
+            for (File file : files.values()) {
+                logger.error("Failed compilation for file : " + file.getName() +
+                        " ,Exception is : " + e.getMessage());
+            }
+            return Collections.emptyMap();
+        }
+    }
+
     @Override
     public File getFile(final String filePath) {
         Validate.notNull(filePath, "File path can not be null");
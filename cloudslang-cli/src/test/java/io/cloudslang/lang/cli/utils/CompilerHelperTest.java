@@ -58,7 +58,6 @@ import static com.google.common.collect.Sets.newHashSet;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
-import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
@@ -133,21 +132,12 @@ public class CompilerHelperTest {
 
         final URI flowPath = getClass().getResource("/executables/dir3/flow.sl").toURI();
         final URI opPath = getClass().getResource("/executables/dir3/dir3_1/test_op.sl").toURI();
-        verify(slang).compileSource(
-                SlangSource.fromFile(opPath),
-                newHashSet(
-                        SlangSource.fromFile(opPath),
-                        SlangSource.fromFile(flowPath)
-                ),
-                PrecompileStrategy.WITH_CACHE
-        );
         InOrder inOrderConsolePrinter = inOrder(consolePrinter);
         inOrderConsolePrinter.verify(consolePrinter, times(2)).printWithColor(any(Ansi.Color.class), anyString());
         inOrderConsolePrinter.verify(consolePrinter).waitForAllPrintTasksToFinish();
         inOrderConsolePrinter.verifyNoMoreInteractions();
         InOrder inOrder = inOrder(slang);
-        inOrder.verify(slang, atLeastOnce()).compileSource(
-                SlangSource.fromFile(flowPath),
+        inOrder.verify(slang).compileSources(
                 newHashSet(
                         SlangSource.fromFile(opPath),
                         SlangSource.fromFile(flowPath)
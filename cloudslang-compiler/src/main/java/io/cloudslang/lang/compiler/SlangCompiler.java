@@ -16,6 +16,7 @@ import io.cloudslang.lang.compiler.modeller.result.SystemPropertyModellingResult
 import io.cloudslang.lang.entities.CompilationArtifact;
 import io.cloudslang.lang.entities.SystemProperty;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 public interface SlangCompiler {
@@ -66,6 +67,20 @@ public interface SlangCompiler {
             SlangSource source, Set<SlangSource> path,
             PrecompileStrategy precompileStrategy);
 
+    /**
+     * Compile each of the given CloudSlang sources, with all of them as its path, to a
+     *     {@link io.cloudslang.lang.entities.CompilationArtifact} object.
+     * Every source is pre-compiled, validated and compiled to an execution plan only once,
+     *     instead of once for every source that depends on it.
+     *
+     * @param sources            the CloudSlang sources to compile
+     * @param precompileStrategy with / without cache
+     * @return the compiled {@link CompilationModellingResult} object of each source, in the order of the sources
+     */
+    Map<SlangSource, CompilationModellingResult> compileSources(
+            Set<SlangSource> sources,
+            PrecompileStrategy precompileStrategy);
+
     /**
      * Pre-compile a CloudSlang source into an {@link io.cloudslang.lang.compiler.modeller.model.Executable}.
      * If an error is found, an exception is thrown
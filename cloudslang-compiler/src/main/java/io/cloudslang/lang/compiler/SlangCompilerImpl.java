@@ -30,9 +30,14 @@ import io.cloudslang.lang.entities.utils.SetUtils;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import org.apache.commons.collections4.CollectionUtils;
@@ -128,6 +133,63 @@ public class SlangCompilerImpl implements SlangCompiler {
         return new CompilationModellingResult(result.getCompilationArtifact(), errors);
     }
 
+    @Override
+    public Map<SlangSource, CompilationModellingResult> compileSources(
+            Set<SlangSource> sources,
+            PrecompileStrategy precompileStrategy) {
+        Validate.notNull(sources, "You must supply the sources to compile");
+
+        Map<SlangSource, ExecutableModellingResult> preCompiledSources = new LinkedHashMap<>();
+        List<RuntimeException> pathErrors = new ArrayList<>();
+        // a duplicate can only have the same id, so each executable is only checked against those
+        Map<String, Map<Executable, SlangSource>> executablePairsById = new HashMap<>();
+        List<Executable> executables = new ArrayList<>();
+        for (SlangSource source : sources) {
+            ExecutableModellingResult result = preCompileSource(source, precompileStrategy);
+            preCompiledSources.put(source, result);
+            pathErrors.addAll(result.getErrors());
+
+            Executable executable = result.getExecutable();
+            if (executable != null) {
+                String id = executable.getId().toLowerCase(Locale.ENGLISH);
+                Map<Executable, SlangSource> executablePairs = executablePairsById.get(id);
+                if (executablePairs == null) {
+                    executablePairs = new HashMap<>();
+                    executablePairsById.put(id, executablePairs);
+                }
+                pathErrors.addAll(compileValidator.validateNoDuplicateExecutables(executable, source, executablePairs));
+                executablePairs.put(executable, source);
+                executables.add(executable);
+            }
+        }
+
+        Iterator<CompilationModellingResult> compiledExecutables =
+                scoreCompiler.compileSources(executables).iterator();
+        Map<SlangSource, CompilationModellingResult> results = new LinkedHashMap<>();
+        for (Map.Entry<SlangSource, ExecutableModellingResult> entry : preCompiledSources.entrySet()) {
+            ExecutableModellingResult preCompiledSource = entry.getValue();
+            // as in compileSource, the errors of the whole path are reported with every source
+            List<RuntimeException> errors = new ArrayList<>(preCompiledSource.getErrors());
+            Set<RuntimeException> sourceErrors = Collections.newSetFromMap(
+                    new IdentityHashMap<RuntimeException, Boolean>());
+            sourceErrors.addAll(preCompiledSource.getErrors());
+            for (RuntimeException pathError : pathErrors) {
+                if (!sourceErrors.contains(pathError)) {
+                    errors.add(pathError);
+                }
+            }
+
+            CompilationArtifact compilationArtifact = null;
+            if (preCompiledSource.getExecutable() != null) {
+                CompilationModellingResult compiledExecutable = compiledExecutables.next();
+                errors.addAll(compiledExecutable.getErrors());
+                compilationArtifact = compiledExecutable.getCompilationArtifact();
+            }
+            results.put(entry.getKey(), new CompilationModellingResult(compilationArtifact, errors));
+        }
+        return results;
+    }
+
     @Override
     public Executable preCompile(SlangSource source) {
         return preCompile(source, PrecompileStrategy.WITHOUT_CACHE);
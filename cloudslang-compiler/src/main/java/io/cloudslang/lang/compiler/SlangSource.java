@@ -15,6 +15,8 @@ import java.io.IOException;
 import java.net.URI;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.apache.commons.codec.digest.DigestUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.Validate;
@@ -27,6 +29,8 @@ public class SlangSource {
     private final String name;
     private final String filePath;
     private final Extension fileExtension;
+    // computed on first use, the content does not change
+    private volatile byte[] contentDigest;
 
     public SlangSource(String content, String name) {
         Validate.notNull(content, "Source cannot be null");
@@ -99,6 +103,30 @@ public class SlangSource {
         return filePath;
     }
 
+    /**
+     * @return true if both sources have the same name, path, extension and content,
+     *     comparing the content by its digest, which each source computes only once
+     */
+    public boolean hasSameContent(SlangSource other) {
+        return content.length() == other.content.length() &&
+                StringUtils.equals(name, other.name) &&
+                StringUtils.equals(filePath, other.filePath) &&
+                fileExtension == other.fileExtension &&
+                MessageDigest.isEqual(getContentDigest(), other.getContentDigest());
+    }
+
+    /**
+     * @return the SHA-256 digest of the content, the caller must not modify it
+     */
+    public byte[] getContentDigest() {
+        byte[] digest = contentDigest;
+        if (digest == null) {
+            digest = DigestUtils.sha256(content);
+            contentDigest = digest;
+        }
+        return digest;
+    }
+
     @Override
     public String toString() {
         return "SlangSource{" +
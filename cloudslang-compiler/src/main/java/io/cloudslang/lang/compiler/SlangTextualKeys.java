@@ -55,6 +55,8 @@ public interface SlangTextualKeys {
     String PUBLISH_KEY = "publish";
     String NAVIGATION_KEY = "navigate";
     String PARALLEL_LOOP_KEY = "parallel_loop";
+    String MAX_PARALLELISM_KEY = "max_parallelism";
+    String FAIL_FAST_KEY = "fail_fast";
 
     //inputs
     String VALUE_KEY = "value";
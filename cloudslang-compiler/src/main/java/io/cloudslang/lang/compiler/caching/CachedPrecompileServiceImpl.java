@@ -13,14 +13,20 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
+import io.cloudslang.lang.entities.SlangSystemPropertyConstant;
+import java.io.File;
 import java.util.concurrent.TimeUnit;
-import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.lang3.StringUtils;
 
 import javax.annotation.PostConstruct;
 
 public class CachedPrecompileServiceImpl implements CachedPrecompileService {
 
+    private static final long DEFAULT_PERSISTENT_CACHE_MAX_SIZE = 256L * 1024 * 1024;
+
     private Cache<String, CacheValue> cache;
+    // optional, keeps the results between runs
+    private PersistentPrecompileCache persistentCache;
 
     @PostConstruct
     public void init() {
@@ -29,13 +35,24 @@ public class CachedPrecompileServiceImpl implements CachedPrecompileService {
                 .concurrencyLevel(2 * Runtime.getRuntime().availableProcessors())
                 .expireAfterWrite(60, TimeUnit.MINUTES)
                 .build();
+        String persistentCacheDirectory =
+                System.getProperty(SlangSystemPropertyConstant.CSLANG_PRECOMPILE_CACHE_DIR.getValue());
+        if (StringUtils.isNotEmpty(persistentCacheDirectory)) {
+            persistentCache = new PersistentPrecompileCache(new File(persistentCacheDirectory),
+                    getPersistentCacheMaxSize());
+        }
     }
 
     @Override
     public void cacheValue(String path, ExecutableModellingResult modellingResult, SlangSource source) {
         if (path != null) {
+            // computed before the value is shared, so lookups only compute the digest of the current source
+            source.getContentDigest();
             CacheValue cacheValue = new CacheValue(source, modellingResult);
             cache.put(path, cacheValue);
+            if (persistentCache != null) {
+                persistentCache.put(source, modellingResult);
+            }
         }
     }
 
@@ -58,6 +75,13 @@ public class CachedPrecompileServiceImpl implements CachedPrecompileService {
                 executableModellingResult = cachedValue.getExecutableModellingResult();
             }
         }
+        if (state != CacheValueState.VALID && persistentCache != null) {
+            executableModellingResult = persistentCache.get(currentSource);
+            if (executableModellingResult != null) {
+                state = CacheValueState.VALID;
+                cache.put(path, new CacheValue(currentSource, executableModellingResult));
+            }
+        }
         return new CacheResult(state, executableModellingResult);
     }
 
@@ -68,17 +92,21 @@ public class CachedPrecompileServiceImpl implements CachedPrecompileService {
         }
     }
 
+    /**
+     * Only clears the results kept in memory, the persistent ones are looked up by content and stay valid.
+     */
     @Override
     public void invalidateAll() {
         cache.invalidateAll();
     }
 
+    private long getPersistentCacheMaxSize() {
+        String maxSize = System.getProperty(SlangSystemPropertyConstant.CSLANG_PRECOMPILE_CACHE_MAX_SIZE.getValue());
+        return maxSize == null ? DEFAULT_PERSISTENT_CACHE_MAX_SIZE : Long.parseLong(maxSize);
+    }
+
     boolean hasChangedSinceCached(SlangSource source1, SlangSource source2) {
-        String source1AsStr = source1.toString();
-        String source2AsStr = source2.toString();
-        return (source1AsStr.length() != source2AsStr.length()) ||
-                (!DigestUtils.md5Hex(source1AsStr).equals(DigestUtils.md5Hex(source2AsStr))) ||
-                (!DigestUtils.sha256Hex(source1AsStr).equals(DigestUtils.sha256Hex(source2AsStr)));
+        return !source1.hasSameContent(source2);
     }
 
 }
@@ -0,0 +1,257 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import io.cloudslang.lang.compiler.SlangCompilerImpl;
+import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileFilter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.log4j.Logger;
+
+/**
+ * Pre-compile results stored on disk, so they outlive the process: one file per result, named by the hash of
+ * the source and the compiler version. A result is only ever looked up by the source it was modelled from,
+ * so it never becomes outdated. Once the files take more than the maximum size, the least recently used ones
+ * are deleted.
+ */
+public class PersistentPrecompileCache {
+
+    private static final Logger logger = Logger.getLogger(PersistentPrecompileCache.class);
+
+    // part of the key, change it when the format of the files changes
+    private static final int FORMAT_VERSION = 2;
+    private static final String FILE_EXTENSION = ".ser";
+    private static final String TEMP_FILE_EXTENSION = ".tmp";
+    // eviction deletes below the maximum size, so it does not run on every write
+    private static final double EVICTION_TARGET_RATIO = 0.9;
+
+    private final File directory;
+    private final long maxSize;
+    private final String compilerVersion;
+    private final AtomicLong size = new AtomicLong();
+
+    public PersistentPrecompileCache(File directory, long maxSize) {
+        this(directory, maxSize, getCompilerVersion());
+    }
+
+    PersistentPrecompileCache(File directory, long maxSize, String compilerVersion) {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IllegalArgumentException("Could not create pre-compile cache directory: " + directory);
+        }
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.compilerVersion = compilerVersion;
+        for (File file : listCacheFiles()) {
+            size.addAndGet(file.length());
+        }
+    }
+
+    /**
+     * @return the result modelled from the same source by the same compiler version, or null if there is none
+     */
+    public ExecutableModellingResult get(SlangSource source) {
+        File file = getFile(source);
+        if (!file.isFile()) {
+            return null;
+        }
+        ObjectInputStream in = null;
+        try {
+            in = new CompilerObjectInputStream(new BufferedInputStream(new FileInputStream(file)));
+            Executable executable = (Executable) in.readObject();
+            @SuppressWarnings("unchecked")
+            List<RuntimeException> errors = (List<RuntimeException>) in.readObject();
+            if (!file.setLastModified(System.currentTimeMillis())) {
+                logger.debug("Could not update the last use of pre-compile cache file: " + file);
+            }
+            return new ExecutableModellingResult(executable, errors);
+        } catch (IOException | ClassNotFoundException | ClassCastException e) {
+            // e.g. written by another process at the same moment, or by a version with the same key
+            logger.debug("Could not read pre-compile cache file: " + file, e);
+            return null;
+        } finally {
+            IOUtils.closeQuietly(in);
+        }
+    }
+
+    /**
+     * Stores the result, unless it is already stored or cannot be serialized.
+     */
+    public void put(SlangSource source, ExecutableModellingResult result) {
+        File file = getFile(source);
+        if (file.isFile()) {
+            return;
+        }
+        File tempFile = null;
+        ObjectOutputStream out = null;
+        try {
+            // written aside and moved in place, so a reader never sees a partial file
+            tempFile = File.createTempFile(file.getName(), TEMP_FILE_EXTENSION, directory);
+            out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+            out.writeObject(result.getExecutable());
+            out.writeObject(result.getErrors());
+            out.close();
+            out = null;
+            move(tempFile, file);
+        } catch (IOException e) {
+            // e.g. an error that is not serializable, the result is modelled again next time
+            logger.debug("Could not write pre-compile cache file: " + file, e);
+            return;
+        } finally {
+            IOUtils.closeQuietly(out);
+            if (tempFile != null && tempFile.exists() && !tempFile.delete()) {
+                logger.debug("Could not delete temporary pre-compile cache file: " + tempFile);
+            }
+        }
+        if (size.addAndGet(file.length()) > maxSize) {
+            evict();
+        }
+    }
+
+    File getFile(SlangSource source) {
+        MessageDigest digest = DigestUtils.getSha256Digest();
+        update(digest, compilerVersion);
+        update(digest, String.valueOf(FORMAT_VERSION));
+        update(digest, source.getName());
+        update(digest, source.getFileExtension() == null ? null : source.getFileExtension().name());
+        // the digest of the content is kept by the source, so the content is not hashed again
+        digest.update(source.getContentDigest());
+        return new File(directory, Hex.encodeHexString(digest.digest()) + FILE_EXTENSION);
+    }
+
+    private void update(MessageDigest digest, String value) {
+        if (value == null) {
+            digest.update((byte) 0);
+        } else {
+            // the length keeps the parts apart
+            digest.update((byte) 1);
+            digest.update(String.valueOf(value.length()).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ':');
+            digest.update(value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void move(File source, File target) throws IOException {
+        try {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private synchronized void evict() {
+        if (size.get() <= maxSize) {
+            return;
+        }
+        File[] files = listCacheFiles();
+        // read once, the files may be used by other processes while sorting
+        CacheFile[] cacheFiles = new CacheFile[files.length];
+        long totalSize = 0;
+        for (int i = 0; i < files.length; i++) {
+            cacheFiles[i] = new CacheFile(files[i]);
+            totalSize += cacheFiles[i].length;
+        }
+        Arrays.sort(cacheFiles);
+        long targetSize = (long) (maxSize * EVICTION_TARGET_RATIO);
+        for (int i = 0; i < cacheFiles.length && totalSize > targetSize; i++) {
+            if (cacheFiles[i].file.delete()) {
+                totalSize -= cacheFiles[i].length;
+            }
+        }
+        size.set(totalSize);
+    }
+
+    private File[] listCacheFiles() {
+        File[] files = directory.listFiles(new FileFilter() {
+            @Override
+            public boolean accept(File file) {
+                return file.isFile() && file.getName().endsWith(FILE_EXTENSION);
+            }
+        });
+        return files == null ? new File[0] : files;
+    }
+
+    /**
+     * @return the implementation version of the compiler, and the jar or folder it was loaded from,
+     *     so a result written by another build of the compiler is never read
+     */
+    static String getCompilerVersion() {
+        Package compilerPackage = SlangCompilerImpl.class.getPackage();
+        StringBuilder version = new StringBuilder(String.valueOf(
+                compilerPackage == null ? null : compilerPackage.getImplementationVersion()));
+        CodeSource codeSource = SlangCompilerImpl.class.getProtectionDomain().getCodeSource();
+        if (codeSource != null && codeSource.getLocation() != null) {
+            String location = codeSource.getLocation().getPath();
+            File file = new File(location);
+            version.append(':').append(location).append(':').append(file.length())
+                    .append(':').append(file.lastModified());
+        }
+        return version.toString();
+    }
+
+    /**
+     * Resolves the model classes with the class loader of the compiler, e.g. when it runs in a build plugin.
+     */
+    private static class CompilerObjectInputStream extends ObjectInputStream {
+
+        CompilerObjectInputStream(InputStream in) throws IOException {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            try {
+                return Class.forName(desc.getName(), false, PersistentPrecompileCache.class.getClassLoader());
+            } catch (ClassNotFoundException e) {
+                return super.resolveClass(desc);
+            }
+        }
+    }
+
+    private static class CacheFile implements Comparable<CacheFile> {
+
+        private final File file;
+        private final long length;
+        private final long lastModified;
+
+        CacheFile(File file) {
+            this.file = file;
+            this.length = file.length();
+            this.lastModified = file.lastModified();
+        }
+
+        @Override
+        public int compareTo(CacheFile other) {
+            return Long.compare(lastModified, other.lastModified);
+        }
+    }
+}
@@ -30,9 +30,11 @@ import io.cloudslang.lang.compiler.modeller.transformers.AbstractOutputsTransfor
 import io.cloudslang.lang.compiler.modeller.transformers.BreakTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.DependencyFormatValidator;
 import io.cloudslang.lang.compiler.modeller.transformers.DoTransformer;
+import io.cloudslang.lang.compiler.modeller.transformers.FailFastTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.ForTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.InputsTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.JavaActionTransformer;
+import io.cloudslang.lang.compiler.modeller.transformers.MaxParallelismTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.NavigateTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.OutputsTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.ParallelLoopForTransformer;
@@ -293,6 +295,16 @@ public class SlangCompilerSpringConfig {
         return parallelLoopForTransformer;
     }
 
+    @Bean
+    public MaxParallelismTransformer maxParallelismTransformer() {
+        return new MaxParallelismTransformer();
+    }
+
+    @Bean
+    public FailFastTransformer failFastTransformer() {
+        return new FailFastTransformer();
+    }
+
     @Bean
     public ForTransformer forTransformer() {
         ForTransformer forTransformer = new ForTransformer();
@@ -331,6 +343,8 @@ public class SlangCompilerSpringConfig {
 
         transformers.add(pythonActionTransformer());
         transformers.add(parallelLoopForTransformer());
+        transformers.add(maxParallelismTransformer());
+        transformers.add(failFastTransformer());
         transformers.add(publishTransformer());
         transformers.add(navigateTransformer());
         transformers.add(inputsTransformer());
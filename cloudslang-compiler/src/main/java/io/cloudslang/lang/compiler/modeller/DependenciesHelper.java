@@ -13,7 +13,6 @@ package io.cloudslang.lang.compiler.modeller;
  * Created by orius123 on 05/11/14.
  */
 
-import ch.lambdaj.Lambda;
 import io.cloudslang.lang.compiler.SlangTextualKeys;
 import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.compiler.modeller.model.Flow;
@@ -39,11 +38,6 @@ import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang3.NotImplementedException;
 import org.apache.commons.lang3.Validate;
 
-import static ch.lambdaj.Lambda.having;
-import static ch.lambdaj.Lambda.on;
-import static ch.lambdaj.Lambda.selectFirst;
-import static org.hamcrest.Matchers.equalTo;
-
 public class DependenciesHelper {
 
     private PublishTransformer publishTransformer;
@@ -84,6 +78,24 @@ public class DependenciesHelper {
      */
     public Map<String, Executable> matchReferences(Executable executable,
                                                    Collection<Executable> availableDependencies) {
+        Map<String, Executable> dependenciesById = new HashMap<>();
+        for (Executable availableDependency : availableDependencies) {
+            // the first executable with an id is the one that is matched
+            if (!dependenciesById.containsKey(availableDependency.getId())) {
+                dependenciesById.put(availableDependency.getId(), availableDependency);
+            }
+        }
+        return matchReferences(executable, dependenciesById);
+    }
+
+    /**
+     * recursive matches executables with their references
+     *
+     * @param availableDependencies the executables to match from, by their ids
+     * @return a map of a the executables that were successfully matched
+     */
+    public Map<String, Executable> matchReferences(Executable executable,
+                                                   Map<String, Executable> availableDependencies) {
         Validate.isTrue(executable.getType().equals(SlangTextualKeys.FLOW_TYPE),
                 "Executable: \'" + executable.getId() + "\' is not a flow, therefore it has no references");
         Map<String, Executable> resolvedDependencies = new HashMap<>();
@@ -91,13 +103,12 @@ public class DependenciesHelper {
     }
 
     private Map<String, Executable> fetchFlowReferences(Executable executable,
-                                                        Collection<Executable> availableDependencies,
+                                                        Map<String, Executable> availableDependencies,
                                                         Map<String, Executable> resolvedDependencies) {
         for (String refId : executable.getExecutableDependencies()) {
             //if it is already in the references we do nothing
             if (resolvedDependencies.get(refId) == null) {
-                Executable matchingRef = selectFirst(availableDependencies,
-                        having(on(Executable.class).getId(), equalTo(refId)));
+                Executable matchingRef = availableDependencies.get(refId);
                 if (matchingRef == null) {
                     throw new RuntimeException("Reference: \'" + refId + "\' in executable: \'" +
                             executable.getName() + "\', wasn't found in path");
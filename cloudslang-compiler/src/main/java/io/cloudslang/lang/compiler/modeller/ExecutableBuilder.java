@@ -50,7 +50,9 @@ import org.apache.commons.lang3.StringUtils;
 import static ch.lambdaj.Lambda.filter;
 import static ch.lambdaj.Lambda.having;
 import static ch.lambdaj.Lambda.on;
+import static io.cloudslang.lang.compiler.SlangTextualKeys.FAIL_FAST_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.FOR_KEY;
+import static io.cloudslang.lang.compiler.SlangTextualKeys.MAX_PARALLELISM_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.NAVIGATION_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.ON_FAILURE_KEY;
 import static io.cloudslang.lang.compiler.SlangTextualKeys.PARALLEL_LOOP_KEY;
@@ -93,7 +95,9 @@ public class ExecutableBuilder {
     private List<Transformer> postStepTransformers;
     private List<String> stepAdditionalKeyWords =
             asList(ScoreLangConstants.LOOP_KEY, SlangTextualKeys.DO_KEY, SlangTextualKeys.NAVIGATION_KEY);
-    private List<String> parallelLoopValidKeywords = asList(SlangTextualKeys.DO_KEY, SlangTextualKeys.FOR_KEY);
+    private List<String> parallelLoopValidKeywords =
+            asList(SlangTextualKeys.DO_KEY, SlangTextualKeys.FOR_KEY, SlangTextualKeys.MAX_PARALLELISM_KEY,
+                    SlangTextualKeys.FAIL_FAST_KEY);
 
     // @PostConstruct
     public void initScopedTransformersAndKeys() {
@@ -418,6 +422,15 @@ public class ExecutableBuilder {
                         Map<String, Object> loopRawData = (Map<String, Object>) stepRawDataValue.remove(LOOP_KEY);
                         stepRawDataValue.putAll(loopRawData);
                     }
+                    if (!parallelLoopKeyFound) {
+                        for (String parallelLoopOnlyKey : asList(MAX_PARALLELISM_KEY, FAIL_FAST_KEY)) {
+                            if (stepRawDataValue.containsKey(parallelLoopOnlyKey)) {
+                                errors.add(new RuntimeException("Step: " + stepName +
+                                        " syntax is illegal.\nThe '" + parallelLoopOnlyKey +
+                                        "' key can only be used below the 'parallel_loop' keyword."));
+                            }
+                        }
+                    }
                     if (parallelLoopKeyFound) {
                         message = "Step: " + stepName +
                                 " syntax is illegal.\nBelow the 'parallel_loop' keyword, there " +
@@ -436,6 +449,13 @@ public class ExecutableBuilder {
                                         null
                                 )
                         );
+                        if (Boolean.TRUE.equals(parallelLoopRawData.get(FAIL_FAST_KEY)) &&
+                                !parallelLoopRawData.containsKey(MAX_PARALLELISM_KEY)) {
+                            errors.add(new RuntimeException("Step: " + stepName +
+                                    " syntax is illegal.\nThe '" + FAIL_FAST_KEY + "' key requires the '" +
+                                    MAX_PARALLELISM_KEY + "' key, since without it all the branches are " +
+                                    "started before any of them fails."));
+                        }
 
                         parallelLoopRawData.put(PARALLEL_LOOP_KEY, parallelLoopRawData.remove(FOR_KEY));
                         stepRawDataValue.putAll(parallelLoopRawData);
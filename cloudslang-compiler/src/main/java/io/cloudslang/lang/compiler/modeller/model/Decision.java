@@ -24,6 +24,8 @@ import java.util.Set;
  */
 public class Decision extends Executable {
 
+    private static final long serialVersionUID = -1873069935232617435L;
+
     public Decision(
             Map<String, Serializable> preExecActionData,
             Map<String, Serializable> postExecActionData,
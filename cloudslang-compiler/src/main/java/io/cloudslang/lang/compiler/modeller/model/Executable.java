@@ -13,6 +13,8 @@ import io.cloudslang.lang.entities.bindings.Input;
 import io.cloudslang.lang.entities.bindings.Output;
 import io.cloudslang.lang.entities.bindings.Result;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
@@ -25,7 +27,9 @@ import org.apache.commons.lang3.builder.HashCodeBuilder;
 /*
  * Created by orius123 on 05/11/14.
  */
-public abstract class Executable {
+public abstract class Executable implements Serializable {
+
+    private static final long serialVersionUID = 4826590155542137311L;
 
     protected final Map<String, Serializable> preExecActionData;
     protected final Map<String, Serializable> postExecActionData;
@@ -59,6 +63,11 @@ public abstract class Executable {
         this.id = namespace + Regex.NAMESPACE_PROPERTY_DELIMITER + name;
     }
 
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        id = namespace + Regex.NAMESPACE_PROPERTY_DELIMITER + name;
+    }
+
     public Map<String, Serializable> getPreExecActionData() {
         return preExecActionData;
     }
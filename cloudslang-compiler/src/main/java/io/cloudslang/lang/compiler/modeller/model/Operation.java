@@ -23,6 +23,8 @@ import java.util.Set;
  */
 public class Operation extends Executable {
 
+    private static final long serialVersionUID = 6107543290744371960L;
+
     private final Action action;
 
     public Operation(Map<String, Serializable> preOpActionData,
@@ -99,7 +99,8 @@ public abstract class AbstractOutputsTransformer extends InOutTransformer {
                 outputName,
                 ValueFactory.create(outputExpression, sensitive),
                 accumulator.getFunctionDependencies(),
-                accumulator.getSystemPropertyDependencies()
+                accumulator.getSystemPropertyDependencies(),
+                accumulator.getVariableDependencies()
         );
     }
 
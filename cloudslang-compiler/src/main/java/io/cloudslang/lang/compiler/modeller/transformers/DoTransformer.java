@@ -113,7 +113,8 @@ public class DoTransformer extends InOutTransformer implements Transformer<Map<S
                 entry.getKey(),
                 ValueFactory.create(entryValue),
                 accumulator.getFunctionDependencies(),
-                accumulator.getSystemPropertyDependencies()
+                accumulator.getSystemPropertyDependencies(),
+                accumulator.getVariableDependencies()
         );
     }
 
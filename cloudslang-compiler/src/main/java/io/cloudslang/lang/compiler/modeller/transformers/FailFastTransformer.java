@@ -0,0 +1,51 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.modeller.transformers;
+
+import io.cloudslang.lang.compiler.SlangTextualKeys;
+import io.cloudslang.lang.compiler.modeller.result.BasicTransformModellingResult;
+import io.cloudslang.lang.compiler.modeller.result.TransformModellingResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Transforms the 'fail_fast' key of a parallel loop. When true, the branches not started yet are skipped
+ * once a branch fails. The key requires 'max_parallelism', which is checked when the step is built.
+ */
+public class FailFastTransformer implements Transformer<Object, Boolean> {
+
+    @Override
+    public TransformModellingResult<Boolean> transform(Object rawData) {
+        List<RuntimeException> errors = new ArrayList<>();
+        Boolean transformedData = null;
+
+        if (rawData != null) {
+            if (rawData instanceof Boolean) {
+                transformedData = (Boolean) rawData;
+            } else {
+                errors.add(new RuntimeException("'" + SlangTextualKeys.FAIL_FAST_KEY +
+                        "' should be a boolean, but was: " + rawData));
+            }
+        }
+
+        return new BasicTransformModellingResult<>(transformedData, errors);
+    }
+
+    @Override
+    public List<Scope> getScopes() {
+        return Collections.singletonList(Scope.BEFORE_STEP);
+    }
+
+    @Override
+    public String keyToTransform() {
+        return SlangTextualKeys.FAIL_FAST_KEY;
+    }
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.modeller.transformers;
+
+import io.cloudslang.lang.compiler.SlangTextualKeys;
+import io.cloudslang.lang.compiler.modeller.result.BasicTransformModellingResult;
+import io.cloudslang.lang.compiler.modeller.result.TransformModellingResult;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Transforms the 'max_parallelism' key of a parallel loop, the maximum number of branches running at the same time.
+ */
+public class MaxParallelismTransformer implements Transformer<Object, Integer> {
+
+    @Override
+    public TransformModellingResult<Integer> transform(Object rawData) {
+        List<RuntimeException> errors = new ArrayList<>();
+        Integer transformedData = null;
+
+        if (rawData != null) {
+            if (rawData instanceof Integer && (Integer) rawData > 0) {
+                transformedData = (Integer) rawData;
+            } else {
+                errors.add(new RuntimeException("'" + SlangTextualKeys.MAX_PARALLELISM_KEY +
+                        "' should be a positive integer, but was: " + rawData));
+            }
+        }
+
+        return new BasicTransformModellingResult<>(transformedData, errors);
+    }
+
+    @Override
+    public List<Scope> getScopes() {
+        return Collections.singletonList(Scope.BEFORE_STEP);
+    }
+
+    @Override
+    public String keyToTransform() {
+        return SlangTextualKeys.MAX_PARALLELISM_KEY;
+    }
+}
@@ -0,0 +1,50 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.scorecompiler;
+
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.score.api.ExecutionPlan;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The execution plans of the dependencies compiled during a session, e.g. while compiling all the content
+ * of a repository, so the plan of an executable used by many flows is created once.
+ * A plan is kept by the id of its executable, and is only used for the very same model, so a model that
+ * changed is compiled again. The plans are shared by the artifacts and must not be changed.
+ * Not thread safe.
+ */
+public class ExecutionPlanCache {
+
+    private final Map<String, Entry> executionPlans = new HashMap<>();
+
+    /**
+     * @return the execution plan of the executable, or null if it was not compiled yet
+     */
+    public ExecutionPlan get(Executable executable) {
+        Entry entry = executionPlans.get(executable.getId());
+        return entry == null || entry.executable != executable ? null : entry.executionPlan;
+    }
+
+    public void put(Executable executable, ExecutionPlan executionPlan) {
+        executionPlans.put(executable.getId(), new Entry(executable, executionPlan));
+    }
+
+    private static class Entry {
+
+        private final Executable executable;
+        private final ExecutionPlan executionPlan;
+
+        Entry(Executable executable, ExecutionPlan executionPlan) {
+            this.executable = executable;
+            this.executionPlan = executionPlan;
+        }
+    }
+}
@@ -142,6 +142,15 @@ public class ExecutionStepFactory {
         actionData.put(ScoreLangConstants.BRANCH_BEGIN_STEP_ID_KEY, branchBeginStepId);
         actionData.put(ScoreLangConstants.PARALLEL_LOOP_STATEMENT_KEY,
                 preStepData.get(SlangTextualKeys.PARALLEL_LOOP_KEY));
+        Serializable maxParallelism = preStepData.get(SlangTextualKeys.MAX_PARALLELISM_KEY);
+        if (maxParallelism != null) {
+            actionData.put(ScoreLangConstants.MAX_PARALLELISM_KEY, maxParallelism);
+            actionData.put(ScoreLangConstants.ADD_BRANCHES_STEP_ID_KEY, currentStepId);
+        }
+        Serializable failFast = preStepData.get(SlangTextualKeys.FAIL_FAST_KEY);
+        if (failFast != null) {
+            actionData.put(ScoreLangConstants.FAIL_FAST_KEY, failFast);
+        }
         ExecutionStep executionStep =
                 createGeneralStep(currentStepId, PARALLEL_LOOP_STEPS_CLASS, "addBranches", actionData);
         executionStep.setSplitStep(true);
@@ -40,6 +40,19 @@ public interface ScoreCompiler {
      */
     CompilationArtifact compile(Executable source, Set<Executable> path);
 
+    /**
+     * Compile an {@link io.cloudslang.lang.compiler.modeller.model.Executable} and its path
+     * to a {@link io.cloudslang.lang.entities.CompilationArtifact} object,
+     * reusing the execution plans of the dependencies that were already compiled in the session.
+     * Fails by throwing the first exception from the accumulated exceptions.
+     *
+     * @param source             the {@link Executable} source
+     * @param path               a set of {@link Executable}s containing the source dependencies
+     * @param executionPlanCache the execution plans of the dependencies compiled in the session
+     * @return the compiled {@link io.cloudslang.lang.entities.CompilationArtifact}
+     */
+    CompilationArtifact compile(Executable source, Set<Executable> path, ExecutionPlanCache executionPlanCache);
+
     /**
      * Compile an {@link io.cloudslang.lang.compiler.modeller.model.Executable} and its path
      * to a {@link io.cloudslang.lang.entities.CompilationArtifact} object.
@@ -51,6 +64,18 @@ public interface ScoreCompiler {
      */
     CompilationModellingResult compileSource(Executable source, Set<Executable> path);
 
+    /**
+     * Compile each of the given {@link io.cloudslang.lang.compiler.modeller.model.Executable}s
+     * to a {@link io.cloudslang.lang.entities.CompilationArtifact} object, with all the others as its path.
+     * The references of every executable are matched, validated and compiled to an execution plan once,
+     * and shared by the artifacts of all the executables that depend on it.
+     * Does not fail but returns all the accumulated exceptions.
+     *
+     * @param executables the {@link Executable}s to compile
+     * @return the modelling results, in the order of the executables
+     */
+    List<CompilationModellingResult> compileSources(List<Executable> executables);
+
     /**
      * Validate that the given {@Link io.cloudslang.lang.compiler.modeller.model.Executable} is valid regarding
      * its wiring to its dependencies
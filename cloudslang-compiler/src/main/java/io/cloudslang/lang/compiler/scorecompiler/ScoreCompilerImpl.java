@@ -9,7 +9,6 @@
  *******************************************************************************/
 package io.cloudslang.lang.compiler.scorecompiler;
 
-import ch.lambdaj.function.convert.Converter;
 import io.cloudslang.lang.compiler.SlangTextualKeys;
 import io.cloudslang.lang.compiler.modeller.DependenciesHelper;
 import io.cloudslang.lang.compiler.modeller.model.Decision;
@@ -25,17 +24,17 @@ import io.cloudslang.lang.entities.bindings.Result;
 import io.cloudslang.score.api.ExecutionPlan;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.commons.collections4.CollectionUtils;
 import org.apache.commons.lang.Validate;
 
-import static ch.lambdaj.Lambda.convertMap;
-
 
 public class ScoreCompilerImpl implements ScoreCompiler {
 
@@ -47,7 +46,13 @@ public class ScoreCompilerImpl implements ScoreCompiler {
 
     @Override
     public CompilationArtifact compile(Executable source, Set<Executable> path) {
-        CompilationModellingResult compilationModellingResult = compileSource(source, path);
+        return compile(source, path, new ExecutionPlanCache());
+    }
+
+    @Override
+    public CompilationArtifact compile(Executable source, Set<Executable> path,
+                                       ExecutionPlanCache executionPlanCache) {
+        CompilationModellingResult compilationModellingResult = compileSource(source, path, executionPlanCache);
         List<RuntimeException> errors = compilationModellingResult.getErrors();
         if (CollectionUtils.isNotEmpty(errors)) {
             throw errors.get(0);
@@ -57,12 +62,14 @@ public class ScoreCompilerImpl implements ScoreCompiler {
 
     @Override
     public CompilationModellingResult compileSource(Executable executable, Set<Executable> path) {
+        return compileSource(executable, path, new ExecutionPlanCache());
+    }
+
+    private CompilationModellingResult compileSource(Executable executable, Set<Executable> path,
+                                                     ExecutionPlanCache executionPlanCache) {
         List<RuntimeException> exceptions = new ArrayList<>();
         Map<String, Executable> filteredDependencies = new HashMap<>();
-        //we handle dependencies only if the file has imports
-        boolean hasDependencies = CollectionUtils.isNotEmpty(executable.getExecutableDependencies()) &&
-                executable.getType().equals(SlangTextualKeys.FLOW_TYPE);
-        if (hasDependencies) {
+        if (hasDependencies(executable)) {
             try {
                 Validate.notEmpty(path, "Source " + executable.getName() +
                         " has dependencies but no path was given to the compiler");
@@ -90,18 +97,87 @@ public class ScoreCompilerImpl implements ScoreCompiler {
 
         }
 
+        return compileToCompilationArtifact(executable, filteredDependencies, exceptions, executionPlanCache);
+    }
+
+    @Override
+    public List<CompilationModellingResult> compileSources(List<Executable> executables) {
+        Map<String, Executable> executablesById = new HashMap<>();
+        for (Executable executable : executables) {
+            // the first executable with an id is the one that is referenced, as in a path
+            if (!executablesById.containsKey(executable.getId())) {
+                executablesById.put(executable.getId(), executable);
+            }
+        }
+
+        // the references of all the flows are matched first, since matching also completes their on failure steps
+        Map<Executable, Map<String, Executable>> references = new IdentityHashMap<>();
+        Map<Executable, RuntimeException> referenceErrors = new IdentityHashMap<>();
+        for (Executable executable : executables) {
+            if (hasDependencies(executable) && !references.containsKey(executable)) {
+                try {
+                    Map<String, Executable> filteredDependencies =
+                            dependenciesHelper.matchReferences(executable, executablesById);
+                    references.put(executable, filteredDependencies);
+                    handleOnFailureStepCustomResults((Flow) executable, filteredDependencies);
+                } catch (RuntimeException ex) {
+                    referenceErrors.put(executable, ex);
+                }
+            }
+        }
+
+        Map<Executable, List<RuntimeException>> validationErrors = new IdentityHashMap<>();
+        ExecutionPlanCache executionPlanCache = new ExecutionPlanCache();
+        List<CompilationModellingResult> results = new ArrayList<>(executables.size());
+        for (Executable executable : executables) {
+            List<RuntimeException> exceptions = new ArrayList<>();
+            Map<String, Executable> filteredDependencies = references.get(executable);
+            if (filteredDependencies == null) {
+                filteredDependencies = new HashMap<>();
+            }
+            if (hasDependencies(executable)) {
+                if (executables.size() < 2) {
+                    exceptions.add(new IllegalArgumentException("Source " + executable.getName() +
+                            " has dependencies but no path was given to the compiler"));
+                }
+                RuntimeException referenceError = referenceErrors.get(executable);
+                if (referenceError == null) {
+                    exceptions.addAll(getValidationErrors(executable, executablesById, validationErrors));
+                } else {
+                    exceptions.add(referenceError);
+                }
+            }
+            results.add(compileToCompilationArtifact(executable, filteredDependencies, exceptions,
+                    executionPlanCache));
+        }
+        return results;
+    }
+
+    private boolean hasDependencies(Executable executable) {
+        //we handle dependencies only if the file has imports
+        return CollectionUtils.isNotEmpty(executable.getExecutableDependencies()) &&
+                executable.getType().equals(SlangTextualKeys.FLOW_TYPE);
+    }
+
+    private CompilationModellingResult compileToCompilationArtifact(Executable executable,
+                                                                    Map<String, Executable> filteredDependencies,
+                                                                    List<RuntimeException> exceptions,
+                                                                    ExecutionPlanCache executionPlanCache) {
         try {
             //next we create an execution plan for the required executable
             ExecutionPlan executionPlan = compileToExecutionPlan(executable);
 
             //and also create execution plans for all other dependencies
-            Converter<Executable, ExecutionPlan> converter = new Converter<Executable, ExecutionPlan>() {
-                @Override
-                public ExecutionPlan convert(Executable compiledExecutable) {
-                    return compileToExecutionPlan(compiledExecutable);
+            Map<String, ExecutionPlan> dependencies = new HashMap<>();
+            for (Map.Entry<String, Executable> dependency : filteredDependencies.entrySet()) {
+                // the plan of a dependency is never changed, so it can be shared by several artifacts
+                ExecutionPlan dependencyPlan = executionPlanCache.get(dependency.getValue());
+                if (dependencyPlan == null) {
+                    dependencyPlan = compileToExecutionPlan(dependency.getValue());
+                    executionPlanCache.put(dependency.getValue(), dependencyPlan);
                 }
-            };
-            Map<String, ExecutionPlan> dependencies = convertMap(filteredDependencies, converter);
+                dependencies.put(dependency.getKey(), dependencyPlan);
+            }
             Collection<Executable> executables = new ArrayList<>(filteredDependencies.values());
             executables.add(executable);
 
@@ -115,6 +191,47 @@ public class ScoreCompilerImpl implements ScoreCompiler {
         return new CompilationModellingResult(null, exceptions);
     }
 
+    /**
+     * Validates the flow and the flows it references the way
+     * {@link CompileValidator#validateModelWithDependencies} does,
+     * validating each flow against its direct dependencies only once.
+     */
+    private List<RuntimeException> getValidationErrors(Executable executable,
+                                                       Map<String, Executable> dependencies,
+                                                       Map<Executable, List<RuntimeException>> validationErrors) {
+        List<RuntimeException> errors = new ArrayList<>();
+        try {
+            collectValidationErrors(executable, dependencies, new HashSet<Executable>(), validationErrors, errors);
+        } catch (RuntimeException ex) {
+            errors = Collections.singletonList(ex);
+        }
+        return errors;
+    }
+
+    private void collectValidationErrors(Executable executable,
+                                         Map<String, Executable> dependencies,
+                                         Set<Executable> verifiedExecutables,
+                                         Map<Executable, List<RuntimeException>> validationErrors,
+                                         List<RuntimeException> errors) {
+        if (!SlangTextualKeys.FLOW_TYPE.equals(executable.getType()) || !verifiedExecutables.add(executable)) {
+            return;
+        }
+        List<RuntimeException> flowErrors = validationErrors.get(executable);
+        if (flowErrors == null) {
+            flowErrors = compileValidator.validateModelWithDirectDependencies(executable, dependencies);
+            validationErrors.put(executable, flowErrors);
+        }
+        errors.addAll(flowErrors);
+
+        Set<Executable> flowReferences = new HashSet<>();
+        for (Step step : ((Flow) executable).getWorkflow().getSteps()) {
+            flowReferences.add(dependencies.get(step.getRefId()));
+        }
+        for (Executable reference : flowReferences) {
+            collectValidationErrors(reference, dependencies, verifiedExecutables, validationErrors, errors);
+        }
+    }
+
     private void handleOnFailureCustomResults(Executable executable, Map<String, Executable> filteredDependencies) {
         handleOnFailureStepCustomResults((Flow) executable, filteredDependencies);
         for (Executable dependency : filteredDependencies.values()) {
@@ -10,13 +10,22 @@
 package io.cloudslang.lang.compiler;
 
 import io.cloudslang.lang.compiler.configuration.SlangCompilerSpringConfig;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.compiler.modeller.result.CompilationModellingResult;
+import io.cloudslang.lang.compiler.scorecompiler.ExecutionPlanCache;
+import io.cloudslang.lang.compiler.scorecompiler.ScoreCompiler;
 import io.cloudslang.lang.entities.CompilationArtifact;
 import io.cloudslang.lang.entities.ScoreLangConstants;
 import io.cloudslang.score.api.ExecutionPlan;
 import io.cloudslang.score.api.ExecutionStep;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.hamcrest.Matchers;
@@ -49,6 +58,9 @@ public class CompileDependenciesTest {
     @Autowired
     private SlangCompiler compiler;
 
+    @Autowired
+    private ScoreCompiler scoreCompiler;
+
     @Test(expected = RuntimeException.class)
     public void emptyPathButThereAreImports() throws Exception {
         final URI flow = getClass().getResource("/basic_flow.yaml").toURI();
@@ -176,4 +188,85 @@ public class CompileDependenciesTest {
         Assert.assertNotNull(compilationArtifact);
     }
 
-}
\ No newline at end of file
+    @Test
+    public void compileSourcesCompilesEachSourceAsCompileSource() throws Exception {
+        final SlangSource flow =
+                SlangSource.fromFile(getClass().getResource("/circular-dependencies/parent_flow.yaml").toURI());
+        final SlangSource childFlow =
+                SlangSource.fromFile(getClass().getResource("/circular-dependencies/child_flow.yaml").toURI());
+        final SlangSource operation = SlangSource.fromFile(getClass().getResource("/test_op.sl").toURI());
+        Set<SlangSource> sources = new LinkedHashSet<>(Arrays.asList(flow, childFlow, operation));
+
+        Map<SlangSource, CompilationModellingResult> results =
+                compiler.compileSources(sources, PrecompileStrategy.WITHOUT_CACHE);
+
+        assertEquals(Arrays.asList(flow, childFlow, operation), new ArrayList<>(results.keySet()));
+        for (SlangSource source : sources) {
+            CompilationModellingResult result = results.get(source);
+            Assert.assertTrue(result.getErrors().isEmpty());
+            CompilationArtifact expected = compiler.compileSource(source, sources).getCompilationArtifact();
+            CompilationArtifact actual = result.getCompilationArtifact();
+            assertEquals(expected.getExecutionPlan().getName(), actual.getExecutionPlan().getName());
+            assertEquals(expected.getExecutionPlan().getSteps().keySet(),
+                    actual.getExecutionPlan().getSteps().keySet());
+            assertEquals(expected.getExecutionPlan().getSubflowsUUIDs(), actual.getExecutionPlan().getSubflowsUUIDs());
+            assertEquals(expected.getDependencies().keySet(), actual.getDependencies().keySet());
+            assertEquals(expected.getInputs(), actual.getInputs());
+            assertEquals(expected.getSystemProperties(), actual.getSystemProperties());
+        }
+        // the plan of a dependency is built once for all the artifacts
+        String operationId = "user.ops.test_op";
+        Assert.assertSame(results.get(flow).getCompilationArtifact().getDependencies().get(operationId),
+                results.get(childFlow).getCompilationArtifact().getDependencies().get(operationId));
+    }
+
+    @Test
+    public void compileSourcesReportsErrorsOfEachSource() throws Exception {
+        final SlangSource flow = SlangSource.fromFile(getClass().getResource("/basic_flow.yaml").toURI());
+        final SlangSource operation =
+                SlangSource.fromFile(getClass().getResource("/operation_with_data.sl").toURI());
+        Set<SlangSource> sources = new LinkedHashSet<>(Arrays.asList(flow, operation));
+
+        Map<SlangSource, CompilationModellingResult> results =
+                compiler.compileSources(sources, PrecompileStrategy.WITHOUT_CACHE);
+
+        List<RuntimeException> flowErrors = results.get(flow).getErrors();
+        assertEquals(1, flowErrors.size());
+        assertThat(flowErrors.get(0).getMessage(), containsString("ops.test_op"));
+        Assert.assertTrue(results.get(operation).getErrors().isEmpty());
+        Assert.assertNotNull(results.get(operation).getCompilationArtifact());
+    }
+
+    @Test
+    public void executionPlanCacheIsSharedByArtifacts() throws Exception {
+        final Executable flow = compiler.preCompile(
+                SlangSource.fromFile(getClass().getResource("/circular-dependencies/parent_flow.yaml").toURI()));
+        final Executable childFlow = compiler.preCompile(
+                SlangSource.fromFile(getClass().getResource("/circular-dependencies/child_flow.yaml").toURI()));
+        final URI operationUri = getClass().getResource("/test_op.sl").toURI();
+        final Executable operation = compiler.preCompile(SlangSource.fromFile(operationUri));
+        ExecutionPlanCache executionPlanCache = new ExecutionPlanCache();
+
+        CompilationArtifact flowArtifact = scoreCompiler.compile(flow,
+                new HashSet<>(Arrays.asList(childFlow, operation)), executionPlanCache);
+        CompilationArtifact childFlowArtifact = scoreCompiler.compile(childFlow,
+                new HashSet<>(Arrays.asList(operation)), executionPlanCache);
+
+        String operationId = operation.getId();
+        Assert.assertSame(flowArtifact.getDependencies().get(operationId),
+                childFlowArtifact.getDependencies().get(operationId));
+        Assert.assertSame(executionPlanCache.get(childFlow), flowArtifact.getDependencies().get(childFlow.getId()));
+        Assert.assertNotSame(childFlowArtifact.getExecutionPlan(), executionPlanCache.get(childFlow));
+
+        // a model of the same executable compiled again is not matched by the plan of the previous model
+        Executable changedOperation = compiler.preCompile(SlangSource.fromFile(operationUri));
+        Assert.assertNull(executionPlanCache.get(changedOperation));
+        CompilationArtifact changedArtifact = scoreCompiler.compile(childFlow,
+                new HashSet<>(Arrays.asList(changedOperation)), executionPlanCache);
+        Assert.assertNotSame(childFlowArtifact.getDependencies().get(operationId),
+                changedArtifact.getDependencies().get(operationId));
+        Assert.assertSame(executionPlanCache.get(changedOperation),
+                changedArtifact.getDependencies().get(operationId));
+    }
+
+}
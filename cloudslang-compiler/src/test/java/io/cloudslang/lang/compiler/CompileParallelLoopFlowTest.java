@@ -176,6 +176,62 @@ public class CompileParallelLoopFlowTest {
         assertNotNull("join branches method not found", executionPlan.getStep(5L));
     }
 
+    @Test
+    public void testCompileParallelLoopFlowMaxParallelism() throws Exception {
+        final URI flow = getClass().getResource("/loops/parallel_loop/parallel_loop_max_parallelism.sl").toURI();
+        final URI operation = getClass().getResource("/loops/parallel_loop/print_branch.sl").toURI();
+        Set<SlangSource> path = new HashSet<>();
+        path.add(SlangSource.fromFile(operation));
+        CompilationArtifact artifact = compiler.compile(SlangSource.fromFile(flow), path);
+
+        ExecutionStep addBranchesStep = artifact.getExecutionPlan().getStep(2L);
+        Map<String, ?> addBranchesActionData = addBranchesStep.getActionData();
+        verifyParallelLoopStatement(addBranchesActionData);
+        assertEquals(3, addBranchesActionData.get(ScoreLangConstants.MAX_PARALLELISM_KEY));
+        assertEquals(2L, addBranchesActionData.get(ScoreLangConstants.ADD_BRANCHES_STEP_ID_KEY));
+    }
+
+    @Test
+    public void testCompileParallelLoopFlowInvalidMaxParallelism() throws Exception {
+        final URI flow = getClass()
+                .getResource("/loops/parallel_loop/parallel_loop_max_parallelism_invalid.sl").toURI();
+        final URI operation = getClass().getResource("/loops/parallel_loop/print_branch.sl").toURI();
+        Set<SlangSource> path = new HashSet<>();
+        path.add(SlangSource.fromFile(operation));
+
+        expectedException.expect(RuntimeException.class);
+        expectedException.expectMessage("'max_parallelism' should be a positive integer, but was: 0");
+
+        compiler.compile(SlangSource.fromFile(flow), path);
+    }
+
+    @Test
+    public void testCompileParallelLoopFlowFailFast() throws Exception {
+        final URI flow = getClass().getResource("/loops/parallel_loop/parallel_loop_fail_fast.sl").toURI();
+        final URI operation = getClass().getResource("/loops/parallel_loop/print_branch.sl").toURI();
+        Set<SlangSource> path = new HashSet<>();
+        path.add(SlangSource.fromFile(operation));
+        CompilationArtifact artifact = compiler.compile(SlangSource.fromFile(flow), path);
+
+        Map<String, ?> addBranchesActionData = artifact.getExecutionPlan().getStep(2L).getActionData();
+        assertEquals(true, addBranchesActionData.get(ScoreLangConstants.FAIL_FAST_KEY));
+        assertEquals(2, addBranchesActionData.get(ScoreLangConstants.MAX_PARALLELISM_KEY));
+    }
+
+    @Test
+    public void testCompileParallelLoopFlowFailFastWithoutMaxParallelism() throws Exception {
+        final URI flow = getClass()
+                .getResource("/loops/parallel_loop/parallel_loop_fail_fast_without_max_parallelism.sl").toURI();
+        final URI operation = getClass().getResource("/loops/parallel_loop/print_branch.sl").toURI();
+        Set<SlangSource> path = new HashSet<>();
+        path.add(SlangSource.fromFile(operation));
+
+        expectedException.expect(RuntimeException.class);
+        expectedException.expectMessage("The 'fail_fast' key requires the 'max_parallelism' key");
+
+        compiler.compile(SlangSource.fromFile(flow), path);
+    }
+
     @Test
     public void testCompileParallelLoopFlowPublish() throws Exception {
         final URI flow = getClass().getResource("/loops/parallel_loop/parallel_loop_publish.sl").toURI();
@@ -257,6 +257,20 @@ public class SlangSourceTest {
         assertSourceEquals(content.getBytes(getCharset()), name);
     }
 
+    @Test
+    public void testHasSameContent() throws Exception {
+        File file = folder.newFile(name);
+        FileUtils.writeStringToFile(file, content);
+        SlangSource source = SlangSource.fromFile(file);
+
+        Assert.assertTrue(source.hasSameContent(SlangSource.fromFile(file)));
+        Assert.assertSame(source.getContentDigest(), source.getContentDigest());
+
+        FileUtils.writeStringToFile(file, "file_contenT");
+        Assert.assertFalse(source.hasSameContent(SlangSource.fromFile(file)));
+        Assert.assertFalse(source.hasSameContent(new SlangSource(content, name)));
+    }
+
     private Charset getCharset() {
         String cslangEncoding = System.getProperty(SlangSystemPropertyConstant.CSLANG_ENCODING.getValue());
         return StringUtils.isEmpty(cslangEncoding) ?
@@ -0,0 +1,146 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.caching;
+
+import io.cloudslang.lang.compiler.SlangCompiler;
+import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.configuration.SlangCompilerSpringConfig;
+import io.cloudslang.lang.compiler.modeller.result.ExecutableModellingResult;
+import io.cloudslang.lang.entities.SlangSystemPropertyConstant;
+import java.io.File;
+import java.net.URISyntaxException;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(classes = SlangCompilerSpringConfig.class)
+public class PersistentPrecompileCacheTest {
+
+    private static final String VERSION = "1.0";
+    private static final long MAX_SIZE = 1024 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Autowired
+    private SlangCompiler compiler;
+
+    @After
+    public void tearDown() {
+        System.clearProperty(SlangSystemPropertyConstant.CSLANG_PRECOMPILE_CACHE_DIR.getValue());
+    }
+
+    @Test
+    public void testResultIsReadBackByAnotherInstance() throws Exception {
+        final File directory = folder.getRoot();
+        for (String resource : new String[]{"/flow_with_data.yaml", "/check_Weather.sl", "/decision/decision_1.sl"}) {
+            SlangSource source = getSource(resource);
+            ExecutableModellingResult result = compiler.preCompileSource(source);
+            new PersistentPrecompileCache(directory, MAX_SIZE, VERSION).put(source, result);
+
+            ExecutableModellingResult cachedResult = new PersistentPrecompileCache(directory, MAX_SIZE, VERSION)
+                    .get(getSource(resource));
+
+            assertNotNull(cachedResult);
+            assertEquals(result.getExecutable(), cachedResult.getExecutable());
+            assertEquals(result.getExecutable().getId(), cachedResult.getExecutable().getId());
+            assertTrue(cachedResult.getErrors().isEmpty());
+        }
+    }
+
+    @Test
+    public void testErrorsAreKept() throws Exception {
+        SlangSource source = getSource("/corrupted/op_without_namespace.sl");
+        ExecutableModellingResult result = compiler.preCompileSource(source);
+        PersistentPrecompileCache cache = new PersistentPrecompileCache(folder.getRoot(), MAX_SIZE, VERSION);
+        cache.put(source, result);
+
+        ExecutableModellingResult cachedResult = cache.get(source);
+
+        assertFalse(result.getErrors().isEmpty());
+        assertEquals(result.getErrors().size(), cachedResult.getErrors().size());
+        assertEquals(result.getErrors().get(0).getMessage(), cachedResult.getErrors().get(0).getMessage());
+    }
+
+    @Test
+    public void testKeyIncludesContentAndCompilerVersion() throws Exception {
+        SlangSource source = getSource("/check_Weather.sl");
+        new PersistentPrecompileCache(folder.getRoot(), MAX_SIZE, VERSION)
+                .put(source, compiler.preCompileSource(source));
+
+        PersistentPrecompileCache cache = new PersistentPrecompileCache(folder.getRoot(), MAX_SIZE, VERSION);
+        PersistentPrecompileCache otherVersionCache = new PersistentPrecompileCache(folder.getRoot(), MAX_SIZE, "2.0");
+
+        assertNotNull(cache.get(source));
+        assertNull(otherVersionCache.get(source));
+        assertNull(cache.get(new SlangSource(source.getContent() + "\n", source.getName())));
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsed() throws Exception {
+        SlangSource source1 = getSource("/check_Weather.sl");
+        SlangSource source2 = getSource("/decision/decision_1.sl");
+        final SlangSource source3 = getSource("/decision/decision_2.sl");
+        File directory = folder.newFolder();
+        PersistentPrecompileCache cache = new PersistentPrecompileCache(directory, MAX_SIZE, VERSION);
+        cache.put(source1, compiler.preCompileSource(source1));
+        cache.put(source2, compiler.preCompileSource(source2));
+        assertTrue(cache.getFile(source1).setLastModified(System.currentTimeMillis() - 20000));
+        assertTrue(cache.getFile(source2).setLastModified(System.currentTimeMillis() - 10000));
+        // a read makes the first file the most recently used
+        assertNotNull(cache.get(source1));
+        PersistentPrecompileCache sizeCache = new PersistentPrecompileCache(folder.newFolder(), MAX_SIZE, VERSION);
+        sizeCache.put(source3, compiler.preCompileSource(source3));
+        long size = cache.getFile(source1).length() + sizeCache.getFile(source3).length();
+
+        // room for the first and the last file only
+        cache = new PersistentPrecompileCache(directory, size * 10 / 9 + 1, VERSION);
+        cache.put(source3, compiler.preCompileSource(source3));
+
+        assertNotNull(cache.get(source1));
+        assertNull(cache.get(source2));
+        assertNotNull(cache.get(source3));
+    }
+
+    @Test
+    public void testServiceFallsBackToPersistentCache() throws Exception {
+        System.setProperty(SlangSystemPropertyConstant.CSLANG_PRECOMPILE_CACHE_DIR.getValue(),
+                folder.getRoot().getAbsolutePath());
+        SlangSource source = getSource("/check_Weather.sl");
+        ExecutableModellingResult result = compiler.preCompileSource(source);
+        CachedPrecompileServiceImpl service = new CachedPrecompileServiceImpl();
+        service.init();
+        service.cacheValue(source.getFilePath(), result, source);
+        service.invalidateAll();
+
+        CachedPrecompileServiceImpl newService = new CachedPrecompileServiceImpl();
+        newService.init();
+        CacheResult cacheResult = newService.getValueFromCache(source.getFilePath(), getSource("/check_Weather.sl"));
+
+        assertEquals(CacheValueState.VALID, cacheResult.getState());
+        assertEquals(result.getExecutable(), cacheResult.getExecutableModellingResult().getExecutable());
+    }
+
+    private SlangSource getSource(String resource) throws URISyntaxException {
+        return SlangSource.fromFile(getClass().getResource(resource).toURI());
+    }
+}
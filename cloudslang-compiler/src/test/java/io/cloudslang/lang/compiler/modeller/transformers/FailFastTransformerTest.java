@@ -0,0 +1,42 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.compiler.modeller.transformers;
+
+import io.cloudslang.lang.compiler.modeller.result.TransformModellingResult;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FailFastTransformerTest {
+
+    private FailFastTransformer failFastTransformer = new FailFastTransformer();
+
+    @Test
+    public void testTransformBoolean() throws Exception {
+        TransformModellingResult<Boolean> result = failFastTransformer.transform(true);
+        Assert.assertEquals(Boolean.TRUE, result.getTransformedData());
+        Assert.assertTrue(result.getErrors().isEmpty());
+    }
+
+    @Test
+    public void testTransformNullReturnsNull() throws Exception {
+        TransformModellingResult<Boolean> result = failFastTransformer.transform(null);
+        Assert.assertNull(result.getTransformedData());
+        Assert.assertTrue(result.getErrors().isEmpty());
+    }
+
+    @Test
+    public void testTransformInvalidValues() throws Exception {
+        for (Object rawData : new Object[]{"true", 1, 0}) {
+            TransformModellingResult<Boolean> result = failFastTransformer.transform(rawData);
+            Assert.assertNull(result.getTransformedData());
+            Assert.assertEquals(1, result.getErrors().size());
+        }
+    }
+}
@@ -253,6 +253,13 @@ public class InputsTransformerTest extends TransformersTestParent {
         Assert.assertEquals("${ \"mighty\" + \" max\"   + varX }", input.getValue().get());
     }
 
+    @Test
+    public void testVariableDependencies() throws Exception {
+        @SuppressWarnings("unchecked") List<Input> inputs = inputTransformer.transform(inputsMap).getTransformedData();
+        Input input = inputs.get(11);
+        Assert.assertEquals(Sets.newHashSet("varX"), input.getVariableDependencies());
+    }
+
     @Test
     public void testFunctionsAndSpDependencies() throws Exception {
         @SuppressWarnings("unchecked")
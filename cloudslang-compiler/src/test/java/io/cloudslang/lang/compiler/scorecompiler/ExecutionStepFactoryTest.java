@@ -222,6 +222,23 @@ public class ExecutionStepFactoryTest {
         Assert.assertSame("parallel loop statement in not correctly set under the key", statement, actualStatement);
     }
 
+    @Test
+    public void testCreateAddBranchesStepWithMaxParallelism() throws Exception {
+        HashMap<String, Serializable> preStepData = new HashMap<>();
+        preStepData.put(SlangTextualKeys.MAX_PARALLELISM_KEY, 10);
+        ExecutionStep startStep = factory.createAddBranchesStep(2L, 5L, 3L, preStepData, "refID", "evenCoolerStep");
+        Assert.assertEquals(10, startStep.getActionData().get(ScoreLangConstants.MAX_PARALLELISM_KEY));
+        Assert.assertEquals(2L, startStep.getActionData().get(ScoreLangConstants.ADD_BRANCHES_STEP_ID_KEY));
+    }
+
+    @Test
+    public void testCreateAddBranchesStepWithFailFast() throws Exception {
+        HashMap<String, Serializable> preStepData = new HashMap<>();
+        preStepData.put(SlangTextualKeys.FAIL_FAST_KEY, true);
+        ExecutionStep startStep = factory.createAddBranchesStep(2L, 5L, 3L, preStepData, "refID", "evenCoolerStep");
+        Assert.assertEquals(true, startStep.getActionData().get(ScoreLangConstants.FAIL_FAST_KEY));
+    }
+
     @Test
     public void testCreateJoinBranchesStep() throws Exception {
         Map<String, Serializable> postStepData = new HashMap<>();
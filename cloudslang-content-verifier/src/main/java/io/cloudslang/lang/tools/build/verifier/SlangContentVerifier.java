@@ -15,6 +15,7 @@ import io.cloudslang.lang.compiler.SlangCompiler;
 import io.cloudslang.lang.compiler.SlangSource;
 import io.cloudslang.lang.compiler.modeller.model.Executable;
 import io.cloudslang.lang.compiler.modeller.model.Metadata;
+import io.cloudslang.lang.compiler.scorecompiler.ExecutionPlanCache;
 import io.cloudslang.lang.compiler.scorecompiler.ScoreCompiler;
 import io.cloudslang.lang.entities.CompilationArtifact;
 import io.cloudslang.lang.logging.LoggingService;
@@ -22,12 +23,19 @@ import io.cloudslang.lang.tools.build.validation.MetadataMissingException;
 import io.cloudslang.lang.tools.build.validation.StaticValidator;
 import java.io.File;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.apache.commons.lang.Validate;
 import org.apache.log4j.Level;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -39,6 +47,8 @@ import org.springframework.stereotype.Component;
 @Component
 public class SlangContentVerifier {
 
+    public static final String SLANG_PRECOMPILE_THREAD_COUNT = "slang.precompile.thread.count";
+
     @Autowired
     private SlangCompiler slangCompiler;
 
@@ -67,27 +77,14 @@ public class SlangContentVerifier {
         loggingService.logEvent(Level.INFO, slangFiles.size() + " .sl files were found");
         loggingService.logEvent(Level.INFO, "");
         Queue<RuntimeException> exceptions = new ArrayDeque<>();
-        for (File slangFile: slangFiles) {
-            Executable sourceModel = null;
-            try {
-                Validate.isTrue(slangFile.isFile(), "file path \'" + slangFile.getAbsolutePath() +
-                        "\' must lead to a file");
-                SlangSource slangSource = SlangSource.fromFile(slangFile);
-                sourceModel = slangCompiler.preCompile(slangSource);
-                Metadata sourceMetadata = metadataExtractor.extractMetadata(slangSource);
-                if (sourceModel != null) {
-                    staticValidator
-                            .validateSlangFile(slangFile, sourceModel, sourceMetadata, shouldValidateDescription);
-                    slangModels.put(getUniqueName(sourceModel), sourceModel);
-                }
-            } catch (Exception e) {
-                String errorMessage = "Failed to extract metadata for file: \'" +
-                        slangFile.getAbsoluteFile() + "\'.\n" + e.getMessage();
-                loggingService.logEvent(Level.ERROR, errorMessage);
-                exceptions.add(new RuntimeException(errorMessage, e));
-                if (e instanceof MetadataMissingException && sourceModel != null) {
-                    slangModels.put(getUniqueName(sourceModel), sourceModel);
-                }
+        // the files are modelled in parallel, but their results are handled in the order of the files
+        for (PreCompileResult preCompileResult : preCompileFiles(slangFiles, shouldValidateDescription)) {
+            if (preCompileResult.exception != null) {
+                loggingService.logEvent(Level.ERROR, preCompileResult.exception.getMessage());
+                exceptions.add(preCompileResult.exception);
+            }
+            if (preCompileResult.sourceModel != null) {
+                slangModels.put(getUniqueName(preCompileResult.sourceModel), preCompileResult.sourceModel);
             }
         }
         if (slangFiles.size() != slangModels.size()) {
@@ -101,15 +98,91 @@ public class SlangContentVerifier {
         return compilationResult;
     }
 
+    private List<PreCompileResult> preCompileFiles(Collection<File> slangFiles,
+                                                   final boolean shouldValidateDescription) {
+        List<PreCompileResult> preCompileResults = new ArrayList<>(slangFiles.size());
+        int threadCount = Math.min(getPreCompileThreadCount(), slangFiles.size());
+        if (threadCount <= 1) {
+            for (File slangFile : slangFiles) {
+                preCompileResults.add(preCompileFile(slangFile, shouldValidateDescription));
+            }
+            return preCompileResults;
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        try {
+            List<Future<PreCompileResult>> futures = new ArrayList<>(slangFiles.size());
+            for (final File slangFile : slangFiles) {
+                futures.add(executorService.submit(new Callable<PreCompileResult>() {
+                    @Override
+                    public PreCompileResult call() {
+                        return preCompileFile(slangFile, shouldValidateDescription);
+                    }
+                }));
+            }
+            for (Future<PreCompileResult> future : futures) {
+                preCompileResults.add(getPreCompileResult(future));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+        return preCompileResults;
+    }
+
+    private PreCompileResult getPreCompileResult(Future<PreCompileResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while pre-compiling slang files", e);
+        } catch (ExecutionException e) {
+            // the exceptions of a file are part of its result, so this is an error
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        }
+    }
+
+    private PreCompileResult preCompileFile(File slangFile, boolean shouldValidateDescription) {
+        Executable sourceModel = null;
+        try {
+            Validate.isTrue(slangFile.isFile(), "file path \'" + slangFile.getAbsolutePath() +
+                    "\' must lead to a file");
+            SlangSource slangSource = SlangSource.fromFile(slangFile);
+            sourceModel = slangCompiler.preCompile(slangSource);
+            Metadata sourceMetadata = metadataExtractor.extractMetadata(slangSource);
+            if (sourceModel != null) {
+                staticValidator
+                        .validateSlangFile(slangFile, sourceModel, sourceMetadata, shouldValidateDescription);
+            }
+            return new PreCompileResult(sourceModel, null);
+        } catch (Exception e) {
+            String errorMessage = "Failed to extract metadata for file: \'" +
+                    slangFile.getAbsoluteFile() + "\'.\n" + e.getMessage();
+            return new PreCompileResult(e instanceof MetadataMissingException ? sourceModel : null,
+                    new RuntimeException(errorMessage, e));
+        }
+    }
+
+    private int getPreCompileThreadCount() {
+        return Integer.getInteger(SLANG_PRECOMPILE_THREAD_COUNT, Runtime.getRuntime().availableProcessors());
+    }
+
     public Map<String, CompilationArtifact> compileSlangModels(Map<String, Executable> slangModels) {
         Map<String, CompilationArtifact> compiledArtifacts = new HashMap<>();
+        // shared by all the models, so a dependency used by many flows is resolved and compiled once
+        Map<String, Set<Executable>> modelDependencies = new HashMap<>();
+        ExecutionPlanCache executionPlanCache = new ExecutionPlanCache();
         for (Map.Entry<String, Executable> slangModelEntry : slangModels.entrySet()) {
             Executable slangModel = slangModelEntry.getValue();
             try {
                 CompilationArtifact compiledSource = compiledArtifacts.get(getUniqueName(slangModel));
                 if (compiledSource == null) {
-                    Set<Executable> dependenciesModels = getModelDependenciesRecursively(slangModels, slangModel);
-                    compiledSource = scoreCompiler.compile(slangModel, dependenciesModels);
+                    Set<Executable> dependenciesModels =
+                            getModelDependenciesRecursively(slangModels, slangModel, modelDependencies);
+                    compiledSource = scoreCompiler.compile(slangModel, dependenciesModels, executionPlanCache);
                     if (compiledSource != null) {
                         loggingService.logEvent(Level.INFO, "Compiled: \'" + slangModel.getNamespace() + "." +
                                 slangModel.getName() + "\' successfully");
@@ -130,8 +203,13 @@ public class SlangContentVerifier {
     }
 
     private Set<Executable> getModelDependenciesRecursively(Map<String, Executable> slangModels,
-                                                            Executable slangModel) {
-        Set<Executable> dependenciesModels = new HashSet<>();
+                                                            Executable slangModel,
+                                                            Map<String, Set<Executable>> modelDependencies) {
+        Set<Executable> dependenciesModels = modelDependencies.get(getUniqueName(slangModel));
+        if (dependenciesModels != null) {
+            return dependenciesModels;
+        }
+        dependenciesModels = new HashSet<>();
         for (String dependencyName : slangModel.getExecutableDependencies()) {
             Executable dependency = slangModels.get(dependencyName);
             if (dependency == null) {
@@ -139,8 +217,9 @@ public class SlangContentVerifier {
                         slangModel.getName() + ". Missing dependency: " + dependencyName);
             }
             dependenciesModels.add(dependency);
-            dependenciesModels.addAll(getModelDependenciesRecursively(slangModels, dependency));
+            dependenciesModels.addAll(getModelDependenciesRecursively(slangModels, dependency, modelDependencies));
         }
+        modelDependencies.put(getUniqueName(slangModel), dependenciesModels);
         return dependenciesModels;
     }
 
@@ -148,4 +227,16 @@ public class SlangContentVerifier {
         return sourceModel.getNamespace() + "." + sourceModel.getName();
     }
 
+    private static class PreCompileResult {
+
+        // the model to verify further, if any
+        private final Executable sourceModel;
+        private final RuntimeException exception;
+
+        PreCompileResult(Executable sourceModel, RuntimeException exception) {
+            this.sourceModel = sourceModel;
+            this.exception = exception;
+        }
+    }
+
 }
@@ -24,6 +24,7 @@ import io.cloudslang.lang.compiler.modeller.model.Flow;
 import io.cloudslang.lang.compiler.modeller.model.Metadata;
 import io.cloudslang.lang.compiler.modeller.transformers.PublishTransformer;
 import io.cloudslang.lang.compiler.modeller.transformers.ResultsTransformer;
+import io.cloudslang.lang.compiler.scorecompiler.ExecutionPlanCache;
 import io.cloudslang.lang.compiler.scorecompiler.ScoreCompiler;
 import io.cloudslang.lang.compiler.validator.ExecutableValidator;
 import io.cloudslang.lang.compiler.validator.ExecutableValidatorImpl;
@@ -264,7 +265,7 @@ public class SlangBuilderTest {
     public void testCompileValidSlangFileNoDependencies() throws Exception {
         final URI resource = getClass().getResource("/no_dependencies").toURI();
         when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(EMPTY_EXECUTABLE);
-        when(scoreCompiler.compile(EMPTY_EXECUTABLE, new HashSet<Executable>()))
+        when(scoreCompiler.compile(eq(EMPTY_EXECUTABLE), eq(new HashSet<Executable>()), any(ExecutionPlanCache.class)))
                 .thenReturn(EMPTY_COMPILATION_ARTIFACT);
 
         SlangBuildResults buildResults = slangBuilder.buildSlangContent(resource.getPath(), resource.getPath(),
@@ -278,7 +279,8 @@ public class SlangBuilderTest {
     public void testCompileInvalidSlangFile() throws Exception {
         final URI resource = getClass().getResource("/no_dependencies").toURI();
         when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(EMPTY_EXECUTABLE);
-        when(scoreCompiler.compile(EMPTY_EXECUTABLE, new HashSet<Executable>())).thenThrow(new RuntimeException());
+        when(scoreCompiler.compile(eq(EMPTY_EXECUTABLE), eq(new HashSet<Executable>()), any(ExecutionPlanCache.class)))
+                .thenThrow(new RuntimeException());
         exception.expect(RuntimeException.class);
         slangBuilder.buildSlangContent(resource.getPath(), resource.getPath(), null, null, false,
                 ALL_SEQUENTIAL, buildMode, changedFiles);
@@ -288,7 +290,8 @@ public class SlangBuilderTest {
     public void testNotAllSlangFilesWereCompiled() throws Exception {
         final URI resource = getClass().getResource("/no_dependencies").toURI();
         when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(EMPTY_EXECUTABLE);
-        when(scoreCompiler.compile(EMPTY_EXECUTABLE, new HashSet<Executable>())).thenReturn(null);
+        when(scoreCompiler.compile(eq(EMPTY_EXECUTABLE), eq(new HashSet<Executable>()), any(ExecutionPlanCache.class)))
+                .thenReturn(null);
         exception.expect(RuntimeException.class);
         exception.expectMessage("1");
         exception.expectMessage("0");
@@ -306,7 +309,7 @@ public class SlangBuilderTest {
         Flow newExecutable = new Flow(null, null, null, "no_dependencies", "empty_flow", null, null, null,
                 flowDependencies, SYSTEM_PROPERTY_DEPENDENCIES);
         when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(newExecutable);
-        when(scoreCompiler.compile(newExecutable, new HashSet<Executable>()))
+        when(scoreCompiler.compile(eq(newExecutable), eq(new HashSet<Executable>()), any(ExecutionPlanCache.class)))
                 .thenReturn(EMPTY_COMPILATION_ARTIFACT);
         when(metadataExtractor.extractMetadata(any(SlangSource.class))).thenReturn(EMPTY_METADATA);
         doCallRealMethod().when(staticValidator)
@@ -336,9 +339,10 @@ public class SlangBuilderTest {
         when(slangCompiler.preCompile(dependencySource)).thenReturn(dependencyExecutable);
         HashSet<Executable> dependencies = new HashSet<>();
         dependencies.add(dependencyExecutable);
-        when(scoreCompiler.compile(emptyFlowExecutable, dependencies))
+        when(scoreCompiler.compile(eq(emptyFlowExecutable), eq(dependencies), any(ExecutionPlanCache.class)))
                 .thenReturn(EMPTY_COMPILATION_ARTIFACT);
-        when(scoreCompiler.compile(dependencyExecutable, new HashSet<Executable>()))
+        when(scoreCompiler.compile(eq(dependencyExecutable), eq(new HashSet<Executable>()),
+                any(ExecutionPlanCache.class)))
                 .thenReturn(EMPTY_COMPILATION_ARTIFACT);
         SlangBuildResults buildResults = slangBuilder.buildSlangContent(resource.getPath(), resource.getPath(),
                 null, null, false, ALL_SEQUENTIAL, buildMode, changedFiles);
@@ -392,7 +396,7 @@ public class SlangBuilderTest {
         final Flow executable = new Flow(null, null, null, "no_dependencies-0123456789", "empty_flow",
                 null, null, null, new HashSet<String>(), SYSTEM_PROPERTY_DEPENDENCIES);
         when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(executable);
-        when(scoreCompiler.compile(executable, new HashSet<Executable>()))
+        when(scoreCompiler.compile(eq(executable), eq(new HashSet<Executable>()), any(ExecutionPlanCache.class)))
                 .thenReturn(EMPTY_COMPILATION_ARTIFACT);
         SlangBuildResults buildResults = slangBuilder.buildSlangContent(resource.getPath(), resource.getPath(),
                 null, null, false, ALL_SEQUENTIAL, buildMode, changedFiles);
@@ -407,7 +411,7 @@ public class SlangBuilderTest {
         final Flow executable = new Flow(null, null, null, "No_Dependencies", "empty_flow", null, null, null,
                 new HashSet<String>(), SYSTEM_PROPERTY_DEPENDENCIES);
         when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(executable);
-        when(scoreCompiler.compile(executable, new HashSet<Executable>()))
+        when(scoreCompiler.compile(eq(executable), eq(new HashSet<Executable>()), any(ExecutionPlanCache.class)))
                 .thenReturn(EMPTY_COMPILATION_ARTIFACT);
         SlangBuildResults buildResults = slangBuilder.buildSlangContent(resource.getPath(),
                 resource.getPath(), null, null, false, ALL_SEQUENTIAL, buildMode, changedFiles);
@@ -440,7 +444,7 @@ public class SlangBuilderTest {
         final URI contentResource = getClass().getResource("/no_dependencies").toURI();
         final URI testResource = getClass().getResource("/test/valid").toURI();
         when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(EMPTY_EXECUTABLE);
-        when(scoreCompiler.compile(EMPTY_EXECUTABLE, new HashSet<Executable>()))
+        when(scoreCompiler.compile(eq(EMPTY_EXECUTABLE), eq(new HashSet<Executable>()), any(ExecutionPlanCache.class)))
                 .thenReturn(EMPTY_COMPILATION_ARTIFACT);
 
         doAnswer(new Answer() {
@@ -469,7 +473,7 @@ public class SlangBuilderTest {
         final URI contentResource = getClass().getResource("/no_dependencies").toURI();
         final URI testResource = getClass().getResource("/test/valid").toURI();
         when(slangCompiler.preCompile(any(SlangSource.class))).thenReturn(EMPTY_EXECUTABLE);
-        when(scoreCompiler.compile(EMPTY_EXECUTABLE, new HashSet<Executable>()))
+        when(scoreCompiler.compile(eq(EMPTY_EXECUTABLE), eq(new HashSet<Executable>()), any(ExecutionPlanCache.class)))
                 .thenReturn(EMPTY_COMPILATION_ARTIFACT);
 
         doNothing().when(slangTestRunner).runTestsSequential(
@@ -0,0 +1,129 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.tools.build.verifier;
+
+import io.cloudslang.lang.commons.services.api.SlangCompilationService;
+import io.cloudslang.lang.compiler.MetadataExtractor;
+import io.cloudslang.lang.compiler.SlangCompiler;
+import io.cloudslang.lang.compiler.SlangSource;
+import io.cloudslang.lang.compiler.modeller.model.Executable;
+import io.cloudslang.lang.logging.LoggingService;
+import io.cloudslang.lang.tools.build.validation.StaticValidator;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SlangContentVerifierTest {
+
+    private static final int FILE_COUNT = 20;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @InjectMocks
+    private SlangContentVerifier slangContentVerifier;
+
+    @Mock
+    private SlangCompiler slangCompiler;
+
+    @Mock
+    private MetadataExtractor metadataExtractor;
+
+    @Mock
+    private StaticValidator staticValidator;
+
+    @Mock
+    private LoggingService loggingService;
+
+    @Mock
+    private SlangCompilationService slangCompilationService;
+
+    private List<File> slangFiles;
+
+    @Before
+    public void setUp() throws Exception {
+        slangFiles = new ArrayList<>();
+        for (int i = 0; i < FILE_COUNT; i++) {
+            File slangFile = folder.newFile("op_" + i + ".sl");
+            FileUtils.writeStringToFile(slangFile, String.valueOf(i));
+            slangFiles.add(slangFile);
+        }
+        when(slangCompilationService.listSlangFiles(any(File.class), anyBoolean())).thenReturn(slangFiles);
+        when(slangCompiler.preCompile(any(SlangSource.class))).thenAnswer(new Answer<Executable>() {
+            @Override
+            public Executable answer(InvocationOnMock invocation) throws Throwable {
+                int index = Integer.parseInt(((SlangSource) invocation.getArguments()[0]).getContent());
+                // the first files take the longest, so they are done last when run in parallel
+                Thread.sleep(FILE_COUNT - index);
+                if (index % 2 == 1) {
+                    throw new RuntimeException("error " + index);
+                }
+                Executable executable = mock(Executable.class);
+                when(executable.getNamespace()).thenReturn("ns");
+                when(executable.getName()).thenReturn("op_" + index);
+                return executable;
+            }
+        });
+    }
+
+    @After
+    public void tearDown() {
+        System.clearProperty(SlangContentVerifier.SLANG_PRECOMPILE_THREAD_COUNT);
+    }
+
+    @Test
+    public void testParallelPreCompileKeepsTheOrderOfTheFiles() {
+        System.setProperty(SlangContentVerifier.SLANG_PRECOMPILE_THREAD_COUNT, "4");
+
+        assertCompilationResult(
+                slangContentVerifier.createModelsAndValidate(folder.getRoot().getAbsolutePath(), false));
+    }
+
+    @Test
+    public void testSequentialPreCompile() {
+        System.setProperty(SlangContentVerifier.SLANG_PRECOMPILE_THREAD_COUNT, "1");
+
+        assertCompilationResult(
+                slangContentVerifier.createModelsAndValidate(folder.getRoot().getAbsolutePath(), false));
+    }
+
+    private void assertCompilationResult(CompilationResult compilationResult) {
+        assertEquals(FILE_COUNT / 2, compilationResult.getResults().size());
+        for (int i = 0; i < FILE_COUNT; i += 2) {
+            assertTrue(compilationResult.getResults().containsKey("ns.op_" + i));
+        }
+        List<RuntimeException> exceptions = new ArrayList<>(compilationResult.getExceptions());
+        assertEquals(FILE_COUNT / 2 + 1, exceptions.size());
+        for (int i = 0; i < FILE_COUNT / 2; i++) {
+            assertTrue(exceptions.get(i).getMessage().endsWith("error " + (2 * i + 1)));
+        }
+        assertTrue(exceptions.get(FILE_COUNT / 2).getMessage().startsWith("Some Slang files were not pre-compiled"));
+    }
+}
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The language events fired by a run. Score events are not affected.
+ */
+public enum EventVerbosity {
+
+    /**
+     * No language events.
+     */
+    NONE(Collections.<String>emptySet()),
+
+    /**
+     * The end of the execution and the errors.
+     */
+    RESULTS_ONLY(asSet(
+            ScoreLangConstants.EVENT_EXECUTION_FINISHED,
+            ScoreLangConstants.SLANG_EXECUTION_EXCEPTION,
+            ScoreLangConstants.EVENT_ACTION_ERROR)),
+
+    /**
+     * The results, plus the start and the end of every step, executable and parallel loop branch.
+     * The binding events of inputs, arguments and actions are not fired.
+     */
+    STEP_BOUNDARIES(asSet(
+            ScoreLangConstants.EVENT_EXECUTION_FINISHED,
+            ScoreLangConstants.SLANG_EXECUTION_EXCEPTION,
+            ScoreLangConstants.EVENT_ACTION_ERROR,
+            ScoreLangConstants.EVENT_STEP_START,
+            ScoreLangConstants.EVENT_OUTPUT_END,
+            ScoreLangConstants.EVENT_SPLIT_BRANCHES,
+            ScoreLangConstants.EVENT_BRANCH_START,
+            ScoreLangConstants.EVENT_BRANCH_END,
+            ScoreLangConstants.EVENT_JOIN_BRANCHES_END)),
+
+    /**
+     * All the language events.
+     */
+    FULL(null);
+
+    private final Set<String> eventTypes;
+
+    EventVerbosity(Set<String> eventTypes) {
+        this.eventTypes = eventTypes;
+    }
+
+    public boolean isEventEnabled(String eventType) {
+        return eventTypes == null || eventTypes.contains(eventType);
+    }
+
+    private static Set<String> asSet(String... eventTypes) {
+        return Collections.unmodifiableSet(new HashSet<>(Arrays.asList(eventTypes)));
+    }
+}
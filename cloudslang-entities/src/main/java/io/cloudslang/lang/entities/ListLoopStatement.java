@@ -32,7 +32,13 @@ public class ListLoopStatement extends LoopStatement implements Serializable {
 
     public ListLoopStatement(String varName, String collectionExpression, Set<ScriptFunction> functionDependencies,
                              Set<String> systemPropertyDependencies, boolean isParallelLoop) {
-        super(collectionExpression, functionDependencies, systemPropertyDependencies);
+        this(varName, collectionExpression, functionDependencies, systemPropertyDependencies, null, isParallelLoop);
+    }
+
+    public ListLoopStatement(String varName, String collectionExpression, Set<ScriptFunction> functionDependencies,
+                             Set<String> systemPropertyDependencies, Set<String> variableDependencies,
+                             boolean isParallelLoop) {
+        super(collectionExpression, functionDependencies, systemPropertyDependencies, variableDependencies);
         String message = FOR_LOOP_VAR_NAME_CANNOT_BE_EMPTY;
         if (isParallelLoop) {
             message = PARALLEL_LOOP_VAR_NAME_CANNOT_BE_EMPTY;
@@ -23,18 +23,28 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
  * @author Bonczidai Levente
  */
 public abstract class LoopStatement implements Serializable {
+
+    private static final long serialVersionUID = 3563394747445675409L;
+
     private final String expression;
     private Set<ScriptFunction> functionDependencies;
     private Set<String> systemPropertyDependencies;
+    private Set<String> variableDependencies;
 
     public LoopStatement(String expression, Set<ScriptFunction> functionDependencies,
                          Set<String> systemPropertyDependencies) {
+        this(expression, functionDependencies, systemPropertyDependencies, null);
+    }
+
+    public LoopStatement(String expression, Set<ScriptFunction> functionDependencies,
+                         Set<String> systemPropertyDependencies, Set<String> variableDependencies) {
 
         Validate.notBlank(expression, "loop expression cannot be empty");
 
         this.expression = expression;
         this.functionDependencies = functionDependencies;
         this.systemPropertyDependencies = systemPropertyDependencies;
+        this.variableDependencies = variableDependencies;
     }
 
     /**
@@ -57,6 +67,13 @@ public abstract class LoopStatement implements Serializable {
         return systemPropertyDependencies;
     }
 
+    /**
+     * @return the names of the variables the loop expression may read, or null if they are unknown
+     */
+    public Set<String> getVariableDependencies() {
+        return variableDependencies;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this)
@@ -31,7 +31,13 @@ public class MapLoopStatement extends LoopStatement implements Serializable {
 
     public MapLoopStatement(String keyName, String valueName, String collectionExpression,
                             Set<ScriptFunction> functionDependencies, Set<String> systemPropertyDependencies) {
-        super(collectionExpression, functionDependencies, systemPropertyDependencies);
+        this(keyName, valueName, collectionExpression, functionDependencies, systemPropertyDependencies, null);
+    }
+
+    public MapLoopStatement(String keyName, String valueName, String collectionExpression,
+                            Set<ScriptFunction> functionDependencies, Set<String> systemPropertyDependencies,
+                            Set<String> variableDependencies) {
+        super(collectionExpression, functionDependencies, systemPropertyDependencies, variableDependencies);
         Validate.notBlank(keyName, "key name cannot be empty");
         Validate.notBlank(valueName, "value name cannot be empty");
 
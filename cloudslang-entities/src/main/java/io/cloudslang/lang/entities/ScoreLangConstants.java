@@ -62,6 +62,9 @@ public interface ScoreLangConstants {
     String PARALLEL_LOOP_KEY = "parallelLoop";
     String PARALLEL_LOOP_STATEMENT_KEY = "parallelLoopStatement";
     String BRANCH_BEGIN_STEP_ID_KEY = "branchBeginStep";
+    String MAX_PARALLELISM_KEY = "maxParallelism";
+    String ADD_BRANCHES_STEP_ID_KEY = "addBranchesStepId";
+    String FAIL_FAST_KEY = "failFast";
     String BRANCH_RESULT_KEY = "branch_result";
 
     // Events types
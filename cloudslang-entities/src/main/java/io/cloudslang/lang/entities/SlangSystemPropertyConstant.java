@@ -11,6 +11,14 @@ package io.cloudslang.lang.entities;
 
 public enum SlangSystemPropertyConstant {
     CSLANG_ENCODING("cslang.encoding"),
+    CSLANG_EVENTS_SUBSCRIBED_ONLY("cslang.events.subscribed.only"),
+    CSLANG_EXPRESSION_CACHE_SIZE("cslang.expression.cache.size"),
+    CSLANG_PRECOMPILE_CACHE_DIR("cslang.precompile.cache.dir"),
+    CSLANG_PRECOMPILE_CACHE_MAX_SIZE("cslang.precompile.cache.max.size"),
+    CSLANG_PYTHON_INTERPRETER_POOL_SIZE("cslang.python.interpreter.pool.size"),
+    CSLANG_PYTHON_INTERPRETER_POOL_TIMEOUT("cslang.python.interpreter.pool.timeout"),
+    CSLANG_RUNENV_BINARY_SERIALIZATION("cslang.runenv.binary.serialization"),
+    CSLANG_SENSITIVE_COMPACT_ENCODING("cslang.sensitive.compact.encoding"),
     LOG4J_CONFIGURATION("log4j.configuration");
 
     private final String value;
@@ -18,6 +18,8 @@ import java.util.Set;
  */
 public class Argument extends InOutParam {
 
+    private static final long serialVersionUID = -4802179519327908861L;
+
     private boolean privateArgument;
 
     public Argument(String name, Value value) {
@@ -34,6 +36,16 @@ public class Argument extends InOutParam {
         privateArgument = true;
     }
 
+    public Argument(
+            String name,
+            Value value,
+            Set<ScriptFunction> scriptFunctions,
+            Set<String> systemPropertyDependencies,
+            Set<String> variableDependencies) {
+        super(name, value, scriptFunctions, systemPropertyDependencies, variableDependencies);
+        privateArgument = true;
+    }
+
     public Argument(String name) {
         super(name, null);
         privateArgument = false;
@@ -31,16 +31,27 @@ public abstract class InOutParam implements Serializable {
     private Value value;
     private Set<ScriptFunction> functionDependencies;
     private Set<String> systemPropertyDependencies;
+    private Set<String> variableDependencies;
 
     public InOutParam(
             String name,
             Value value,
             Set<ScriptFunction> functionDependencies,
             Set<String> systemPropertyDependencies) {
+        this(name, value, functionDependencies, systemPropertyDependencies, null);
+    }
+
+    public InOutParam(
+            String name,
+            Value value,
+            Set<ScriptFunction> functionDependencies,
+            Set<String> systemPropertyDependencies,
+            Set<String> variableDependencies) {
         this.name = name;
         this.value = value;
         this.functionDependencies = functionDependencies;
         this.systemPropertyDependencies = systemPropertyDependencies;
+        this.variableDependencies = variableDependencies;
     }
 
     public InOutParam(String name, Value value) {
@@ -74,6 +85,14 @@ public abstract class InOutParam implements Serializable {
         return systemPropertyDependencies;
     }
 
+    /**
+     * @return the names of the variables the value expression may read,
+     *     or null if they are unknown and the expression needs the whole context
+     */
+    public Set<String> getVariableDependencies() {
+        return variableDependencies;
+    }
+
     @Override
     public String toString() {
         return new ToStringBuilder(this)
@@ -81,6 +100,7 @@ public abstract class InOutParam implements Serializable {
                 .append("value", value)
                 .append("functionDependencies", functionDependencies)
                 .append("systemPropertyDependencies", systemPropertyDependencies)
+                .append("variableDependencies", variableDependencies)
                 .toString();
     }
 
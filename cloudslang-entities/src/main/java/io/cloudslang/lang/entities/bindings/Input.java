@@ -34,7 +34,8 @@ public class Input extends InOutParam {
         super(inputBuilder.name,
                 inputBuilder.value,
                 inputBuilder.functionDependencies,
-                inputBuilder.systemPropertyDependencies
+                inputBuilder.systemPropertyDependencies,
+                inputBuilder.variableDependencies
         );
         this.required = inputBuilder.required;
         this.privateInput = inputBuilder.privateInput;
@@ -99,6 +100,7 @@ public class Input extends InOutParam {
         private boolean privateInput;
         private Set<ScriptFunction> functionDependencies;
         private Set<String> systemPropertyDependencies;
+        private Set<String> variableDependencies;
 
         public InputBuilder(String name, Serializable serializable) {
             this(name, serializable, false);
@@ -133,6 +135,11 @@ public class Input extends InOutParam {
             return this;
         }
 
+        public InputBuilder withVariableDependencies(Set<String> variableDependencies) {
+            this.variableDependencies = variableDependencies;
+            return this;
+        }
+
         public Input build() {
             return new Input(this);
         }
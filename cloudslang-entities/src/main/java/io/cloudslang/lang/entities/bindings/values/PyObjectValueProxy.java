@@ -0,0 +1,26 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.bindings.values;
+
+import org.python.core.PyObject;
+
+/**
+ * Implemented by the proxy classes generated by {@link PyObjectValueProxyFactory}.
+ * Not meant to be implemented by other classes.
+ */
+public interface PyObjectValueProxy extends PyObjectValue {
+
+    /**
+     * Marks the value as accessed.
+     *
+     * @return the wrapped PyObject
+     */
+    PyObject getProxiedPyObject();
+}
@@ -0,0 +1,299 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.bindings.values;
+
+import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javassist.CannotCompileException;
+import javassist.bytecode.AccessFlag;
+import javassist.bytecode.Bytecode;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.ConstPool;
+import javassist.bytecode.DuplicateMemberException;
+import javassist.bytecode.ExceptionsAttribute;
+import javassist.bytecode.FieldInfo;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.Opcode;
+import javassist.util.proxy.FactoryHelper;
+import javassist.util.proxy.RuntimeSupport;
+import org.python.core.PyObject;
+
+/**
+ * Generates the bytecode of a PyObjectValue proxy class for a PyObject type.
+ * <p>
+ * The generated class extends the PyObject type and implements {@link PyObjectValueProxy}.
+ * Every public method of the PyObject type is overridden by a method that marks the value as accessed
+ * (except toString), unwraps PyObjectValue arguments and calls the same method of the wrapped PyObject directly.
+ * The PyObjectValue methods are answered from the wrapped {@link Value}.
+ * When serialized, a proxy is replaced by the wrapped Value and read back as a new proxy, see
+ * {@link PyObjectValueProxyFactory#writeReplace(Value, boolean)}.
+ * <p>
+ * The methods only contain straight-line code, so no stack map frames are needed.
+ */
+final class PyObjectValueProxyClassGenerator {
+
+    private static final String PROXY_CLASS_NAME_SUFFIX = "_$$_PyObjectValueProxy";
+
+    private static final String PY_OBJECT_FIELD = "pyObject";
+    private static final String VALUE_FIELD = "value";
+    private static final String ACCESSED_FIELD = "accessed";
+
+    private static final String CONSTRUCTOR_NAME = "<init>";
+    private static final String GET_PROXIED_PY_OBJECT_METHOD = "getProxiedPyObject";
+    private static final String IS_ACCESSED_METHOD = "isAccessed";
+    private static final String GET_METHOD = "get";
+    private static final String IS_SENSITIVE_METHOD = "isSensitive";
+    private static final String TO_STRING_METHOD = "toString";
+    private static final String WRITE_REPLACE_METHOD = "writeReplace";
+    private static final String UNWRAP_METHOD = "unwrap";
+
+    private static final String VALUE_DESCRIPTOR = descriptor(Value.class);
+    private static final String ACCESSED_DESCRIPTOR = "Z";
+
+    private PyObjectValueProxyClassGenerator() {
+    }
+
+    /**
+     * @param pyObjectClass    the PyObject type to extend
+     * @param superConstructor the constructor of the PyObject type called by the proxy constructor,
+     *                         the proxy constructor takes its parameters followed by the PyObject and the Value
+     * @return the generated class, defined in the package and class loader of the PyObject type
+     */
+    static Class<?> generate(Class<?> pyObjectClass, Constructor<?> superConstructor) throws CannotCompileException {
+        String superclassName = pyObjectClass.getName();
+        ClassFile classFile = new ClassFile(false, superclassName + PROXY_CLASS_NAME_SUFFIX, superclassName);
+        classFile.setAccessFlags(AccessFlag.PUBLIC);
+        classFile.setInterfaces(new String[]{PyObjectValueProxy.class.getName()});
+        ConstPool constPool = classFile.getConstPool();
+        String className = classFile.getName();
+        String pyObjectDescriptor = descriptor(pyObjectClass);
+
+        try {
+            classFile.addField(new FieldInfo(constPool, PY_OBJECT_FIELD, pyObjectDescriptor));
+            classFile.addField(new FieldInfo(constPool, VALUE_FIELD, VALUE_DESCRIPTOR));
+            classFile.addField(new FieldInfo(constPool, ACCESSED_FIELD, ACCESSED_DESCRIPTOR));
+
+            classFile.addMethod(createConstructor(constPool, className, pyObjectClass, superConstructor));
+            classFile.addMethod(createGetProxiedPyObject(constPool, className, pyObjectDescriptor));
+            classFile.addMethod(createIsAccessed(constPool, className));
+            classFile.addMethod(createValueMethod(constPool, className, GET_METHOD, Serializable.class));
+            classFile.addMethod(createValueMethod(constPool, className, IS_SENSITIVE_METHOD, boolean.class));
+            classFile.addMethod(createWriteReplace(constPool, className));
+            for (Method method : getDelegatedMethods(pyObjectClass)) {
+                classFile.addMethod(createDelegatingMethod(constPool, className, pyObjectClass, method));
+            }
+        } catch (DuplicateMemberException e) {
+            throw new CannotCompileException(e);
+        }
+        return FactoryHelper.toClass(classFile, pyObjectClass.getClassLoader(), pyObjectClass.getProtectionDomain());
+    }
+
+    private static MethodInfo createConstructor(ConstPool constPool, String className, Class<?> pyObjectClass,
+                                                Constructor<?> superConstructor) {
+        Class<?>[] superParameterTypes = superConstructor.getParameterTypes();
+        Class<?>[] parameterTypes = Arrays.copyOf(superParameterTypes, superParameterTypes.length + 2);
+        parameterTypes[superParameterTypes.length] = pyObjectClass;
+        parameterTypes[superParameterTypes.length + 1] = Value.class;
+
+        Bytecode code = new Bytecode(constPool);
+        code.addAload(0);
+        int slot = loadParameters(code, superParameterTypes, 1, false);
+        code.addInvokespecial(pyObjectClass.getName(), CONSTRUCTOR_NAME,
+                RuntimeSupport.makeDescriptor(superParameterTypes, void.class));
+        code.addAload(0);
+        code.addAload(slot);
+        code.addPutfield(className, PY_OBJECT_FIELD, descriptor(pyObjectClass));
+        code.addAload(0);
+        code.addAload(slot + 1);
+        code.addPutfield(className, VALUE_FIELD, VALUE_DESCRIPTOR);
+        code.addOpcode(Opcode.RETURN);
+        code.setMaxLocals(slot + 2);
+
+        return createMethod(constPool, CONSTRUCTOR_NAME, RuntimeSupport.makeDescriptor(parameterTypes, void.class),
+                code);
+    }
+
+    private static MethodInfo createGetProxiedPyObject(ConstPool constPool, String className,
+                                                       String pyObjectDescriptor) {
+        Bytecode code = new Bytecode(constPool);
+        addMarkAccessed(code, className);
+        code.addAload(0);
+        code.addGetfield(className, PY_OBJECT_FIELD, pyObjectDescriptor);
+        code.addOpcode(Opcode.ARETURN);
+        code.setMaxLocals(1);
+        return createMethod(constPool, GET_PROXIED_PY_OBJECT_METHOD, "()" + descriptor(PyObject.class), code);
+    }
+
+    private static MethodInfo createIsAccessed(ConstPool constPool, String className) {
+        Bytecode code = new Bytecode(constPool);
+        code.addAload(0);
+        code.addGetfield(className, ACCESSED_FIELD, ACCESSED_DESCRIPTOR);
+        code.addOpcode(Opcode.IRETURN);
+        code.setMaxLocals(1);
+        return createMethod(constPool, IS_ACCESSED_METHOD, "()" + ACCESSED_DESCRIPTOR, code);
+    }
+
+    private static MethodInfo createValueMethod(ConstPool constPool, String className, String methodName,
+                                                Class<?> returnType) {
+        String methodDescriptor = RuntimeSupport.makeDescriptor(new Class[0], returnType);
+        Bytecode code = new Bytecode(constPool);
+        code.addAload(0);
+        code.addGetfield(className, VALUE_FIELD, VALUE_DESCRIPTOR);
+        code.addInvokeinterface(Value.class.getName(), methodName, methodDescriptor, 1);
+        addReturn(code, returnType);
+        code.setMaxLocals(1);
+        return createMethod(constPool, methodName, methodDescriptor, code);
+    }
+
+    private static MethodInfo createWriteReplace(ConstPool constPool, String className) {
+        Bytecode code = new Bytecode(constPool);
+        code.addAload(0);
+        code.addGetfield(className, VALUE_FIELD, VALUE_DESCRIPTOR);
+        code.addAload(0);
+        code.addGetfield(className, ACCESSED_FIELD, ACCESSED_DESCRIPTOR);
+        code.addInvokestatic(PyObjectValueProxyFactory.class.getName(), WRITE_REPLACE_METHOD,
+                "(" + VALUE_DESCRIPTOR + ACCESSED_DESCRIPTOR + ")" + descriptor(Object.class));
+        code.addOpcode(Opcode.ARETURN);
+        code.setMaxLocals(1);
+        MethodInfo methodInfo = createMethod(constPool, WRITE_REPLACE_METHOD, "()" + descriptor(Object.class), code);
+        methodInfo.setAccessFlags(AccessFlag.PRIVATE);
+        return methodInfo;
+    }
+
+    private static MethodInfo createDelegatingMethod(ConstPool constPool, String className, Class<?> pyObjectClass,
+                                                     Method method) {
+        final Class<?>[] parameterTypes = method.getParameterTypes();
+        final String methodDescriptor = RuntimeSupport.makeDescriptor(method);
+
+        Bytecode code = new Bytecode(constPool);
+        if (!TO_STRING_METHOD.equals(method.getName())) {
+            addMarkAccessed(code, className);
+        }
+        code.addAload(0);
+        code.addGetfield(className, PY_OBJECT_FIELD, descriptor(pyObjectClass));
+        int maxLocals = loadParameters(code, parameterTypes, 1, true);
+        code.addInvokevirtual(pyObjectClass.getName(), method.getName(), methodDescriptor);
+        addReturn(code, method.getReturnType());
+        code.setMaxLocals(maxLocals);
+
+        MethodInfo methodInfo = createMethod(constPool, method.getName(), methodDescriptor, code);
+        Class<?>[] exceptionTypes = method.getExceptionTypes();
+        if (exceptionTypes.length > 0) {
+            String[] exceptionNames = new String[exceptionTypes.length];
+            for (int index = 0; index < exceptionTypes.length; index++) {
+                exceptionNames[index] = exceptionTypes[index].getName();
+            }
+            ExceptionsAttribute exceptions = new ExceptionsAttribute(constPool);
+            exceptions.setExceptions(exceptionNames);
+            methodInfo.setExceptionsAttribute(exceptions);
+        }
+        return methodInfo;
+    }
+
+    /**
+     * The public methods the proxy overrides, one per signature.
+     * Static, final and bridge methods cannot or need not be overridden,
+     * methods with the signature of a PyObjectValue method are answered from the Value.
+     */
+    private static Iterable<Method> getDelegatedMethods(Class<?> pyObjectClass) {
+        Map<String, Method> methods = new LinkedHashMap<>();
+        for (Method method : pyObjectClass.getMethods()) {
+            int modifiers = method.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isFinal(modifiers) || method.isBridge() ||
+                    isPyObjectValueMethod(method)) {
+                continue;
+            }
+            String signature = method.getName() + Arrays.toString(method.getParameterTypes());
+            Method existing = methods.get(signature);
+            if (existing == null || existing.getDeclaringClass().isInterface()) {
+                methods.put(signature, method);
+            }
+        }
+        return methods.values();
+    }
+
+    private static boolean isPyObjectValueMethod(Method method) {
+        if (method.getParameterTypes().length > 0) {
+            return false;
+        }
+        String name = method.getName();
+        return GET_METHOD.equals(name) || IS_SENSITIVE_METHOD.equals(name) || IS_ACCESSED_METHOD.equals(name) ||
+                GET_PROXIED_PY_OBJECT_METHOD.equals(name) || WRITE_REPLACE_METHOD.equals(name);
+    }
+
+    private static void addMarkAccessed(Bytecode code, String className) {
+        code.addAload(0);
+        code.addIconst(1);
+        code.addPutfield(className, ACCESSED_FIELD, ACCESSED_DESCRIPTOR);
+    }
+
+    /**
+     * @return the next free local variable slot
+     */
+    private static int loadParameters(Bytecode code, Class<?>[] parameterTypes, int firstSlot, boolean unwrap) {
+        int slot = firstSlot;
+        for (Class<?> parameterType : parameterTypes) {
+            if (parameterType == long.class) {
+                code.addLload(slot);
+                slot += 2;
+            } else if (parameterType == double.class) {
+                code.addDload(slot);
+                slot += 2;
+            } else if (parameterType == float.class) {
+                code.addFload(slot++);
+            } else if (parameterType.isPrimitive()) {
+                code.addIload(slot++);
+            } else {
+                code.addAload(slot++);
+                if (unwrap) {
+                    code.addInvokestatic(PyObjectValueProxyFactory.class.getName(), UNWRAP_METHOD,
+                            "(Ljava/lang/Object;)Ljava/lang/Object;");
+                    if (parameterType != Object.class) {
+                        code.addCheckcast(parameterType.getName());
+                    }
+                }
+            }
+        }
+        return slot;
+    }
+
+    private static void addReturn(Bytecode code, Class<?> returnType) {
+        if (returnType == void.class) {
+            code.addOpcode(Opcode.RETURN);
+        } else if (returnType == long.class) {
+            code.addOpcode(Opcode.LRETURN);
+        } else if (returnType == double.class) {
+            code.addOpcode(Opcode.DRETURN);
+        } else if (returnType == float.class) {
+            code.addOpcode(Opcode.FRETURN);
+        } else if (returnType.isPrimitive()) {
+            code.addOpcode(Opcode.IRETURN);
+        } else {
+            code.addOpcode(Opcode.ARETURN);
+        }
+    }
+
+    private static MethodInfo createMethod(ConstPool constPool, String name, String methodDescriptor,
+                                           Bytecode code) {
+        MethodInfo methodInfo = new MethodInfo(constPool, name, methodDescriptor);
+        methodInfo.setAccessFlags(AccessFlag.PUBLIC);
+        methodInfo.setCodeAttribute(code.toCodeAttribute());
+        return methodInfo;
+    }
+
+    private static String descriptor(Class<?> type) {
+        return RuntimeSupport.makeDescriptor(new Class[0], type).substring(2);
+    }
+}
@@ -11,18 +11,12 @@ package io.cloudslang.lang.entities.bindings.values;
 
 import java.io.Serializable;
 import java.lang.reflect.Constructor;
-import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
-import javassist.util.proxy.MethodFilter;
-import javassist.util.proxy.MethodHandler;
-import javassist.util.proxy.Proxy;
-import javassist.util.proxy.ProxyFactory;
-import javassist.util.proxy.ProxyObject;
 import org.apache.commons.lang.ClassUtils;
 import org.python.core.Py;
 import org.python.core.PyObject;
@@ -31,6 +25,9 @@ import org.python.core.PyType;
 /**
  * PyObjectValue proxy factory
  * <p>
+ * A proxy class is generated once per PyObject type and cached. Its methods call the wrapped PyObject directly,
+ * see {@link PyObjectValueProxyClassGenerator}.
+ * <p>
  * Created by Ifat Gavish on 04/05/2016
  */
 public class PyObjectValueProxyFactory {
@@ -43,13 +40,32 @@ public class PyObjectValueProxyFactory {
     private static ConcurrentMap<String, PyObjectValueProxyClass> proxyClasses = new ConcurrentHashMap<>();
 
     public static PyObjectValue create(Serializable content, boolean sensitive) {
-        PyObject pyObject = Py.java2py(content);
+        return createProxy(Py.java2py(content), ValueFactory.create(content, sensitive));
+    }
+
+    /**
+     * Called by the generated proxy classes for every argument they pass to the wrapped PyObject.
+     * A PyObjectValue argument is marked as accessed and replaced by the PyObject it wraps.
+     */
+    public static Object unwrap(Object argument) {
+        return argument instanceof PyObjectValueProxy ? ((PyObjectValueProxy) argument).getProxiedPyObject() : argument;
+    }
+
+    /**
+     * Called by the generated proxy classes when they are serialized.
+     * A proxy is written as the value it wraps, and read back as a new proxy of that value.
+     */
+    public static Object writeReplace(Value value, boolean accessed) {
+        return new SerializedPyObjectValue(value, accessed);
+    }
+
+    private static PyObjectValue createProxy(PyObject pyObject, Value value) {
         try {
             PyObjectValueProxyClass proxyClass = getProxyClass(pyObject);
-            PyObjectValue pyObjectValue = (PyObjectValue) proxyClass.getConstructor()
-                    .newInstance(proxyClass.getParams());
-            ((Proxy) pyObjectValue).setHandler(new PyObjectValueMethodHandler(content, sensitive, pyObject));
-            return pyObjectValue;
+            Object[] params = proxyClass.getParams();
+            params[params.length - 2] = pyObject;
+            params[params.length - 1] = value;
+            return (PyObjectValue) proxyClass.getConstructor().newInstance(params);
         } catch (Exception e) {
             throw new RuntimeException("Failed to create a proxy to new instance for PyObjectValue and " +
                     pyObject.getClass().getSimpleName(), e);
@@ -64,12 +80,7 @@ public class PyObjectValueProxyFactory {
             try {
                 proxyClass = proxyClasses.get(proxyClassName);
                 if (proxyClass == null) {
-                    ProxyFactory factory = new ProxyFactory();
-                    factory.setSuperclass(pyObject.getClass());
-                    factory.setInterfaces(new Class[]{PyObjectValue.class});
-                    factory.setFilter(new PyObjectValueMethodFilter());
-                    factory.setUseWriteReplace(false);
-                    proxyClasses.putIfAbsent(proxyClassName, createProxyClass(factory.createClass(), pyObject));
+                    proxyClasses.putIfAbsent(proxyClassName, createProxyClass(pyObject));
                     proxyClass = proxyClasses.get(proxyClassName);
                 }
             } finally {
@@ -79,19 +90,31 @@ public class PyObjectValueProxyFactory {
         return proxyClass;
     }
 
-    private static PyObjectValueProxyClass createProxyClass(Class proxyClass, PyObject pyObject) throws Exception {
+    private static PyObjectValueProxyClass createProxyClass(PyObject pyObject) throws Exception {
+        Constructor<?> superConstructor = getSuperConstructor(pyObject.getClass());
+        Class<?> proxyClass = PyObjectValueProxyClassGenerator.generate(pyObject.getClass(), superConstructor);
+        Class<?>[] superParameterTypes = superConstructor.getParameterTypes();
+        // the last two parameters are the PyObject and the Value, set for every instance
+        Object[] params = new Object[superParameterTypes.length + 2];
+        for (int index = 0; index < superParameterTypes.length; index++) {
+            params[index] = getParamDefaultValue(pyObject, superParameterTypes[index]);
+        }
         Constructor<?> constructor = proxyClass.getConstructors()[0];
-        for (Constructor<?> con : proxyClass.getConstructors()) {
-            if (con.getParameterTypes().length < constructor.getParameterTypes().length) {
+        return new PyObjectValueProxyClass(proxyClass, constructor, params);
+    }
+
+    private static Constructor<?> getSuperConstructor(Class<?> pyObjectClass) {
+        Constructor<?> constructor = null;
+        for (Constructor<?> con : pyObjectClass.getDeclaredConstructors()) {
+            if (!Modifier.isPrivate(con.getModifiers()) && (constructor == null ||
+                    con.getParameterTypes().length < constructor.getParameterTypes().length)) {
                 constructor = con;
             }
         }
-        Object[] params = new Object[constructor.getParameterTypes().length];
-        for (int index = 0; index < constructor.getParameterTypes().length; index++) {
-            Class<?> parameterType = constructor.getParameterTypes()[index];
-            params[index] = getParamDefaultValue(pyObject, parameterType);
+        if (constructor == null) {
+            throw new RuntimeException("No accessible constructor found for " + pyObjectClass.getName());
         }
-        return new PyObjectValueProxyClass(proxyClass, constructor, params);
+        return constructor;
     }
 
     @SuppressWarnings("unchecked")
@@ -107,60 +130,27 @@ public class PyObjectValueProxyFactory {
         }
     }
 
-    private static class PyObjectValueMethodFilter implements MethodFilter {
-
-        @Override
-        public boolean isHandled(Method method) {
-            return Modifier.isPublic(method.getModifiers());
-        }
-    }
-
-    private static class PyObjectValueMethodHandler implements MethodHandler, Serializable {
+    /**
+     * The serialized form of a proxy, the generated class itself may not exist where it is read.
+     */
+    private static class SerializedPyObjectValue implements Serializable {
 
-        private static final String ACCESSED_GETTER_METHOD = "isAccessed";
+        private static final long serialVersionUID = 1L;
 
-        protected Value value;
-        protected PyObject pyObject;
-        protected boolean accessed;
+        private final Value value;
+        private final boolean accessed;
 
-        public PyObjectValueMethodHandler(Serializable content, boolean sensitive, PyObject pyObject) {
-            this.value = ValueFactory.create(content, sensitive);
-            this.pyObject = pyObject;
-            this.accessed = false;
+        SerializedPyObjectValue(Value value, boolean accessed) {
+            this.value = value;
+            this.accessed = accessed;
         }
 
-        @Override
-        public Object invoke(Object self, Method thisMethod, Method proceed, Object[] args) throws Throwable {
-            if (thisMethod.getName().equals(ACCESSED_GETTER_METHOD)) {
-                return accessed;
-            } else if (Value.class.isAssignableFrom(thisMethod.getDeclaringClass())) {
-                Method valueMethod = value.getClass().getMethod(thisMethod.getName(), thisMethod.getParameterTypes());
-                return valueMethod.invoke(value, args);
-            } else if (PyObject.class.isAssignableFrom(thisMethod.getDeclaringClass())) {
-                Method pyObjectMethod = pyObject.getClass()
-                        .getMethod(thisMethod.getName(), thisMethod.getParameterTypes());
-                if (!thisMethod.getName().equals("toString")) {
-                    accessed = true;
-                }
-                return pyObjectMethod.invoke(pyObject, getPyObjectArgs(args));
-            } else {
-                throw new RuntimeException("Failed to invoke PyObjectValue method. Implementing class not found");
+        private Object readResolve() {
+            PyObjectValue pyObjectValue = createProxy(Py.java2py(value.get()), value);
+            if (accessed) {
+                ((PyObjectValueProxy) pyObjectValue).getProxiedPyObject();
             }
-        }
-
-        private Object[] getPyObjectArgs(Object[] args) {
-            Object[] pyObjectArgs = new Object[args.length];
-            for (int index = 0; index < args.length; index++) {
-                if (args[index] instanceof PyObjectValue) {
-                    PyObjectValueMethodHandler handler = (PyObjectValueMethodHandler) ((ProxyObject) args[index])
-                            .getHandler();
-                    handler.accessed = true;
-                    pyObjectArgs[index] = handler.pyObject;
-                } else {
-                    pyObjectArgs[index] = args[index];
-                }
-            }
-            return pyObjectArgs;
+            return pyObjectValue;
         }
     }
 }
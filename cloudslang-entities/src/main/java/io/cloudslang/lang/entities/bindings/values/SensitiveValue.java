@@ -11,15 +11,8 @@ package io.cloudslang.lang.entities.bindings.values;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import io.cloudslang.lang.entities.encryption.EncryptionProvider;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.Serializable;
-import javassist.util.proxy.ProxyObjectInputStream;
-import javassist.util.proxy.ProxyObjectOutputStream;
 import org.apache.commons.codec.binary.Base64;
-import org.apache.commons.io.IOUtils;
 
 /**
  * Sensitive InOutParam value
@@ -28,6 +21,8 @@ import org.apache.commons.io.IOUtils;
  */
 public class SensitiveValue implements Value {
 
+    private static final long serialVersionUID = 2805166804438625750L;
+
     public static final String SENSITIVE_VALUE_MASK = "********";
 
     private String content = null;
@@ -66,7 +61,7 @@ public class SensitiveValue implements Value {
     }
 
     protected String encrypt(Serializable originalContent) {
-        byte[] serialized = serialize(originalContent);
+        byte[] serialized = SensitiveValueCodec.encode(originalContent);
         String serializedAsString = Base64.encodeBase64String(serialized);
         return EncryptionProvider.get().encrypt(serializedAsString.toCharArray());
     }
@@ -83,7 +78,7 @@ public class SensitiveValue implements Value {
         String serializedAsString = new String(decrypted);
 
         byte[] serialized = Base64.decodeBase64(serializedAsString);
-        return deserialize(serialized);
+        return SensitiveValueCodec.decode(serialized);
     }
 
     public String getContent() {
@@ -94,9 +89,25 @@ public class SensitiveValue implements Value {
         this.content = content;
     }
 
+    Serializable getOriginalContent() {
+        return originalContent;
+    }
+
+    void setOriginalContent(Serializable originalContent) {
+        this.originalContent = originalContent;
+    }
+
     @Override
     public Serializable get() {
-        return (originalContent != null) ? originalContent : ((content == null) ? null : decrypt(content));
+        if (originalContent != null || content == null) {
+            return originalContent;
+        }
+        Serializable cached = SensitiveValueCache.get(content);
+        if (cached == null) {
+            cached = decrypt(content);
+            SensitiveValueCache.put(content, cached);
+        }
+        return cached;
     }
 
     @JsonIgnore
@@ -134,35 +145,4 @@ public class SensitiveValue implements Value {
     public String toString() {
         return SENSITIVE_VALUE_MASK;
     }
-
-    private byte[] serialize(Serializable data) {
-        ObjectOutputStream oos = null;
-        try {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            oos = new ProxyObjectOutputStream(baos);
-            oos.writeObject(data);
-            return baos.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to serialize object", e);
-        } finally {
-            if (oos != null) {
-                IOUtils.closeQuietly(oos);
-            }
-        }
-    }
-
-    private Serializable deserialize(byte[] data) {
-        ObjectInputStream ois = null;
-        try {
-            ByteArrayInputStream bais = new ByteArrayInputStream(data);
-            ois = new ProxyObjectInputStream(bais);
-            return (Serializable) ois.readObject();
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to deserialize object", e);
-        } finally {
-            if (ois != null) {
-                IOUtils.closeQuietly(ois);
-            }
-        }
-    }
 }
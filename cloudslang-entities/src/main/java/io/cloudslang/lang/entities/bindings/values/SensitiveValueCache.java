@@ -0,0 +1,99 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.bindings.values;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of decrypted {@link SensitiveValue} content, keyed by the encrypted content.
+ * <p>
+ * The cache only exists between {@link #open()} and the matching {@link #close()} on the current thread,
+ * so plaintext never outlives the execution step that opened it. Outside of a scope every read decrypts.
+ */
+public final class SensitiveValueCache {
+
+    public static final int MAX_ENTRIES = 256;
+
+    private static final ThreadLocal<Scope> SCOPE = new ThreadLocal<>();
+
+    private SensitiveValueCache() {
+    }
+
+    /**
+     * Opens a cache scope on the current thread, or joins the one that is already open.
+     * Every call must be matched by a call to {@link #close()}.
+     */
+    public static void open() {
+        Scope scope = SCOPE.get();
+        if (scope == null) {
+            scope = new Scope();
+            SCOPE.set(scope);
+        }
+        scope.depth++;
+    }
+
+    /**
+     * Closes the scope opened by the matching {@link #open()}, dropping the cached plaintext
+     * when the outermost scope is closed.
+     */
+    public static void close() {
+        Scope scope = SCOPE.get();
+        if (scope != null && --scope.depth == 0) {
+            scope.entries.clear();
+            SCOPE.remove();
+        }
+    }
+
+    static Serializable get(String content) {
+        Scope scope = SCOPE.get();
+        Serializable plaintext = scope == null ? null : scope.entries.get(content);
+        // lists are mutable, hand out a copy so callers cannot change the cached one
+        return plaintext instanceof ArrayList ? new ArrayList<>((ArrayList<?>) plaintext) : plaintext;
+    }
+
+    static void put(String content, Serializable plaintext) {
+        Scope scope = SCOPE.get();
+        if (scope != null && isCacheable(plaintext)) {
+            scope.entries.put(content, plaintext instanceof ArrayList ?
+                    new ArrayList<>((ArrayList<?>) plaintext) : plaintext);
+        }
+    }
+
+    private static boolean isCacheable(Serializable plaintext) {
+        if (plaintext instanceof String || plaintext instanceof Integer || plaintext instanceof Long ||
+                plaintext instanceof Double || plaintext instanceof Boolean) {
+            return true;
+        }
+        if (plaintext == null || plaintext.getClass() != ArrayList.class) {
+            return false;
+        }
+        for (Object element : (ArrayList<?>) plaintext) {
+            if (element != null && !(element instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class Scope {
+
+        private int depth;
+
+        private final Map<String, Serializable> entries = new LinkedHashMap<String, Serializable>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Serializable> eldest) {
+                return size() > MAX_ENTRIES;
+            }
+        };
+    }
+}
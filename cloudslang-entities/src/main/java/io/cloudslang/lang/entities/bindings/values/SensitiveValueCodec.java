@@ -0,0 +1,240 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.bindings.values;
+
+import io.cloudslang.lang.entities.SlangSystemPropertyConstant;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import javassist.util.proxy.ProxyObjectInputStream;
+import javassist.util.proxy.ProxyObjectOutputStream;
+import org.apache.commons.io.IOUtils;
+
+/**
+ * Encodes the content of a {@link SensitiveValue} before it is encrypted, and the content of values
+ * written by {@link ValueCodec}.
+ * <p>
+ * Strings, integers, longs, doubles, booleans and array lists of strings can be written in a compact binary
+ * form, anything else with Java serialization. The first byte tells the two apart: a Java serialization
+ * stream always starts with 0xAC, so both forms are always decoded.
+ * Versions before the compact form only read Java serialization, so {@link #encode} writes the compact form
+ * only when the 'cslang.sensitive.compact.encoding' system property is true, which should be set once all
+ * the components that decrypt the values are upgraded.
+ */
+final class SensitiveValueCodec {
+
+    private static final byte TYPE_STRING = 1;
+    private static final byte TYPE_INTEGER = 2;
+    private static final byte TYPE_LONG = 3;
+    private static final byte TYPE_DOUBLE = 4;
+    private static final byte TYPE_BOOLEAN = 5;
+    private static final byte TYPE_STRING_LIST = 6;
+    private static final byte TYPE_NULL = 7;
+    private static final byte TYPE_SERIALIZED = 8;
+
+    private SensitiveValueCodec() {
+    }
+
+    private static boolean isCompactEncodingEnabled() {
+        return Boolean.parseBoolean(
+                System.getProperty(SlangSystemPropertyConstant.CSLANG_SENSITIVE_COMPACT_ENCODING.getValue()));
+    }
+
+    static byte[] encode(Serializable data) {
+        byte type = isCompactEncodingEnabled() ? getCompactType(data) : 0;
+        if (type == 0) {
+            return serialize(data);
+        }
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(baos);
+            out.writeByte(type);
+            writeCompact(out, type, data);
+            out.flush();
+            return baos.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize object", e);
+        }
+    }
+
+    static Serializable decode(byte[] data) {
+        if (data.length == 0 || data[0] < TYPE_STRING || data[0] > TYPE_STRING_LIST) {
+            return deserialize(data);
+        }
+        try {
+            return readCompact(new DataInputStream(new ByteArrayInputStream(data, 1, data.length - 1)), data[0]);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to deserialize object", e);
+        }
+    }
+
+    /**
+     * Writes the content as part of a larger stream, see {@link ValueCodec}.
+     */
+    static void writeContent(DataOutput out, Serializable data) throws IOException {
+        byte type = getCompactType(data);
+        if (data == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (type == 0) {
+            byte[] serialized = serialize(data);
+            out.writeByte(TYPE_SERIALIZED);
+            out.writeInt(serialized.length);
+            out.write(serialized);
+        } else {
+            out.writeByte(type);
+            writeCompact(out, type, data);
+        }
+    }
+
+    static Serializable readContent(DataInput in) throws IOException {
+        byte type = in.readByte();
+        if (type == TYPE_NULL) {
+            return null;
+        } else if (type == TYPE_SERIALIZED) {
+            byte[] serialized = new byte[in.readInt()];
+            in.readFully(serialized);
+            return deserialize(serialized);
+        } else if (type < TYPE_STRING || type > TYPE_STRING_LIST) {
+            throw new IOException("Unknown content type: " + type);
+        }
+        return readCompact(in, type);
+    }
+
+    private static void writeCompact(DataOutput out, byte type, Serializable data) throws IOException {
+        switch (type) {
+            case TYPE_STRING:
+                writeString(out, (String) data);
+                break;
+            case TYPE_INTEGER:
+                out.writeInt((Integer) data);
+                break;
+            case TYPE_LONG:
+                out.writeLong((Long) data);
+                break;
+            case TYPE_DOUBLE:
+                out.writeDouble((Double) data);
+                break;
+            case TYPE_BOOLEAN:
+                out.writeBoolean((Boolean) data);
+                break;
+            default:
+                List<?> list = (List<?>) data;
+                out.writeInt(list.size());
+                for (Object element : list) {
+                    out.writeBoolean(element != null);
+                    if (element != null) {
+                        writeString(out, (String) element);
+                    }
+                }
+        }
+    }
+
+    private static Serializable readCompact(DataInput in, byte type) throws IOException {
+        switch (type) {
+            case TYPE_STRING:
+                return readString(in);
+            case TYPE_INTEGER:
+                return in.readInt();
+            case TYPE_LONG:
+                return in.readLong();
+            case TYPE_DOUBLE:
+                return in.readDouble();
+            case TYPE_BOOLEAN:
+                return in.readBoolean();
+            default:
+                int size = in.readInt();
+                ArrayList<String> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(in.readBoolean() ? readString(in) : null);
+                }
+                return list;
+        }
+    }
+
+    private static byte getCompactType(Serializable data) {
+        if (data instanceof String) {
+            return TYPE_STRING;
+        } else if (data instanceof Integer) {
+            return TYPE_INTEGER;
+        } else if (data instanceof Long) {
+            return TYPE_LONG;
+        } else if (data instanceof Double) {
+            return TYPE_DOUBLE;
+        } else if (data instanceof Boolean) {
+            return TYPE_BOOLEAN;
+        } else if (data != null && data.getClass() == ArrayList.class && containsOnlyStrings((List<?>) data)) {
+            return TYPE_STRING_LIST;
+        }
+        return 0;
+    }
+
+    private static boolean containsOnlyStrings(List<?> list) {
+        for (Object element : list) {
+            if (element != null && !(element instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    static byte[] serialize(Serializable data) {
+        ObjectOutputStream oos = null;
+        try {
+            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            oos = new ProxyObjectOutputStream(baos);
+            oos.writeObject(data);
+            oos.flush();
+            return baos.toByteArray();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize object", e);
+        } finally {
+            if (oos != null) {
+                IOUtils.closeQuietly(oos);
+            }
+        }
+    }
+
+    static Serializable deserialize(byte[] data) {
+        ObjectInputStream ois = null;
+        try {
+            ByteArrayInputStream bais = new ByteArrayInputStream(data);
+            ois = new ProxyObjectInputStream(bais);
+            return (Serializable) ois.readObject();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to deserialize object", e);
+        } finally {
+            if (ois != null) {
+                IOUtils.closeQuietly(ois);
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.bindings.values;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary form of {@link Value}s, for codecs that write them as part of a larger stream.
+ * <p>
+ * Simple and sensitive values are written field by field, their content with the compact encoding of
+ * {@link SensitiveValueCodec}. Any other value is written with Java serialization.
+ * Sensitive values are written in their current state: encrypted content stays encrypted.
+ * Like Java serialization, a value referenced several times is written once, and so is a repeated string.
+ */
+public final class ValueCodec {
+
+    private static final byte NULL_VALUE = 0;
+    private static final byte SIMPLE_VALUE = 1;
+    private static final byte SENSITIVE_VALUE = 2;
+    private static final byte SENSITIVE_STRING_VALUE = 3;
+    private static final byte SERIALIZED_VALUE = 4;
+    private static final byte VALUE_REFERENCE = 5;
+
+    private static final int NULL_STRING = -1;
+    private static final int NEW_STRING = -2;
+
+    private ValueCodec() {
+    }
+
+    /**
+     * Writes values to a stream. Use one writer per stream, and read the stream back with a single {@link Reader}.
+     */
+    public static final class Writer {
+
+        private final DataOutput out;
+        private final Map<Value, Integer> values = new IdentityHashMap<>();
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        public Writer(DataOutput out) {
+            this.out = out;
+        }
+
+        public void writeValue(Value value) throws IOException {
+            if (value == null) {
+                out.writeByte(NULL_VALUE);
+                return;
+            }
+            Integer index = values.get(value);
+            if (index != null) {
+                out.writeByte(VALUE_REFERENCE);
+                out.writeInt(index);
+                return;
+            }
+            values.put(value, values.size());
+            if (value.getClass() == SimpleValue.class) {
+                out.writeByte(SIMPLE_VALUE);
+                writeContent(value.get());
+            } else if (value.getClass() == SensitiveValue.class || value.getClass() == SensitiveStringValue.class) {
+                SensitiveValue sensitiveValue = (SensitiveValue) value;
+                out.writeByte(value.getClass() == SensitiveValue.class ? SENSITIVE_VALUE : SENSITIVE_STRING_VALUE);
+                // getContent() falls back to the original content, so read the encrypted field only when it is set
+                writeString(sensitiveValue.getOriginalContent() == null ? sensitiveValue.getContent() : null);
+                writeContent(sensitiveValue.getOriginalContent());
+            } else {
+                byte[] serialized = SensitiveValueCodec.serialize(value);
+                out.writeByte(SERIALIZED_VALUE);
+                out.writeInt(serialized.length);
+                out.write(serialized);
+            }
+        }
+
+        /**
+         * Writes any serializable content, compactly for strings, numbers, booleans and lists of strings.
+         */
+        public void writeContent(Serializable content) throws IOException {
+            SensitiveValueCodec.writeContent(out, content);
+        }
+
+        /**
+         * Writes a string that may be null, with no length limit.
+         */
+        public void writeString(String string) throws IOException {
+            if (string == null) {
+                out.writeInt(NULL_STRING);
+                return;
+            }
+            Integer index = strings.get(string);
+            if (index != null) {
+                out.writeInt(index);
+            } else {
+                strings.put(string, strings.size());
+                out.writeInt(NEW_STRING);
+                SensitiveValueCodec.writeString(out, string);
+            }
+        }
+    }
+
+    /**
+     * Reads the values written by a {@link Writer}.
+     */
+    public static final class Reader {
+
+        private final DataInput in;
+        private final List<Value> values = new ArrayList<>();
+        private final List<String> strings = new ArrayList<>();
+
+        public Reader(DataInput in) {
+            this.in = in;
+        }
+
+        public Value readValue() throws IOException {
+            byte type = in.readByte();
+            if (type == NULL_VALUE) {
+                return null;
+            } else if (type == VALUE_REFERENCE) {
+                return values.get(in.readInt());
+            }
+            // reserve the index before reading, the same order the writer assigned it
+            int index = values.size();
+            values.add(null);
+            Value value;
+            switch (type) {
+                case SIMPLE_VALUE:
+                    value = new SimpleValue(readContent());
+                    break;
+                case SENSITIVE_VALUE:
+                case SENSITIVE_STRING_VALUE:
+                    SensitiveValue sensitiveValue = type == SENSITIVE_VALUE ?
+                            new SensitiveValue() : new SensitiveStringValue();
+                    sensitiveValue.setContent(readString());
+                    sensitiveValue.setOriginalContent(readContent());
+                    value = sensitiveValue;
+                    break;
+                case SERIALIZED_VALUE:
+                    byte[] serialized = new byte[in.readInt()];
+                    in.readFully(serialized);
+                    value = (Value) SensitiveValueCodec.deserialize(serialized);
+                    break;
+                default:
+                    throw new IOException("Unknown value type: " + type);
+            }
+            values.set(index, value);
+            return value;
+        }
+
+        public Serializable readContent() throws IOException {
+            return SensitiveValueCodec.readContent(in);
+        }
+
+        public String readString() throws IOException {
+            int index = in.readInt();
+            if (index == NULL_STRING) {
+                return null;
+            } else if (index == NEW_STRING) {
+                String string = SensitiveValueCodec.readString(in);
+                strings.add(string);
+                return string;
+            }
+            return strings.get(index);
+        }
+    }
+}
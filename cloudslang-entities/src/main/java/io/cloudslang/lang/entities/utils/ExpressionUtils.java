@@ -10,10 +10,35 @@
 package io.cloudslang.lang.entities.utils;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import org.python.antlr.PythonTree;
+import org.python.antlr.Visitor;
+import org.python.antlr.ast.Attribute;
+import org.python.antlr.ast.Call;
+import org.python.antlr.ast.GeneratorExp;
+import org.python.antlr.ast.Index;
+import org.python.antlr.ast.Lambda;
+import org.python.antlr.ast.ListComp;
+import org.python.antlr.ast.Name;
+import org.python.antlr.ast.Num;
+import org.python.antlr.ast.Str;
+import org.python.antlr.ast.Subscript;
+import org.python.antlr.ast.UnaryOp;
+import org.python.antlr.ast.comprehension;
+import org.python.antlr.base.expr;
+import org.python.antlr.base.mod;
+import org.python.antlr.base.slice;
+import org.python.core.CompileMode;
+import org.python.core.CompilerFlags;
+import org.python.core.ParserFacade;
+import org.python.core.PyException;
+import org.python.core.PyInteger;
+import org.python.core.PyString;
 
 import static io.cloudslang.lang.entities.constants.Regex.CHECK_EMPTY_REGEX;
 import static io.cloudslang.lang.entities.constants.Regex.EXPRESSION_REGEX;
@@ -48,6 +73,12 @@ public final class ExpressionUtils {
     private static final Pattern GET_PATTERN_WITH_DEFAULT = compile(GET_REGEX_WITH_DEFAULT);
     private static final Pattern CHECK_EMPTY_PATTERN = compile(CHECK_EMPTY_REGEX);
 
+    private static final String SCRIPT_FILE_NAME = "<string>";
+    private static final String GET_FUNCTION_NAME = "get";
+    // functions that read the namespace by a name known only at runtime
+    private static final Set<String> DYNAMIC_ACCESS_FUNCTIONS =
+            new HashSet<>(Arrays.asList("globals", "locals", "vars", "dir", "eval"));
+
     public static String extractExpression(Serializable value) {
         String expression = null;
         if (value instanceof String) {
@@ -76,6 +107,57 @@ public final class ExpressionUtils {
         return matchPattern(CHECK_EMPTY_PATTERN, text);
     }
 
+    /**
+     * Collects the names an expression may read from its context: the names it references
+     * and the literal keys passed to get().
+     * Names bound inside the expression (e.g. comprehension variables) may be included as well.
+     *
+     * @param expression the expression without the delimiters
+     * @return the variable names or null if they cannot be determined statically,
+     *     e.g. the expression does not parse or looks names up dynamically
+     */
+    public static Set<String> extractVariables(String expression) {
+        mod expressionTree;
+        try {
+            expressionTree = ParserFacade.parse(expression, CompileMode.eval, SCRIPT_FILE_NAME, new CompilerFlags());
+        } catch (PyException e) {
+            // the evaluation will report the error
+            return null;
+        }
+        VariableCollector variableCollector = new VariableCollector();
+        try {
+            variableCollector.visit(expressionTree);
+        } catch (Exception e) {
+            return null;
+        }
+        return variableCollector.isDynamic() ? null : variableCollector.getVariables();
+    }
+
+    /**
+     * Collects the keys an expression reads from the maps of a list of maps, like the branches context
+     * of a parallel loop. The maps may only be read by literal keys: list[0]['key'], list[-1].get('key'),
+     * map(lambda x: x['key'], list), filter(...), [x['key'] for x in list] or len(list).
+     *
+     * @param expression the expression without the delimiters
+     * @param listName   the name of the list of maps
+     * @return the keys or null if the expression uses the maps in any other way
+     */
+    public static Set<String> extractListOfMapsKeys(String expression, String listName) {
+        mod expressionTree;
+        try {
+            expressionTree = ParserFacade.parse(expression, CompileMode.eval, SCRIPT_FILE_NAME, new CompilerFlags());
+        } catch (PyException e) {
+            return null;
+        }
+        MapKeyCollector mapKeyCollector = new MapKeyCollector(listName);
+        try {
+            mapKeyCollector.visit(expressionTree);
+        } catch (Exception e) {
+            return null;
+        }
+        return mapKeyCollector.isOtherUse() ? null : mapKeyCollector.getKeys();
+    }
+
     private static boolean matchPattern(Pattern pattern, String text) {
         Matcher matcher = pattern.matcher(text);
         return matcher.find();
@@ -90,4 +172,197 @@ public final class ExpressionUtils {
         return parameters;
     }
 
+    private static class MapKeyCollector extends Visitor {
+
+        private static final Set<String> ITERATING_FUNCTIONS = new HashSet<>(Arrays.asList("map", "filter"));
+        private static final String LENGTH_FUNCTION_NAME = "len";
+
+        private final String listName;
+        // names bound to a single map of the list, e.g. lambda parameters
+        private final Set<String> mapNames = new HashSet<>();
+        private final Set<String> keys = new HashSet<>();
+        private boolean otherUse;
+
+        MapKeyCollector(String listName) {
+            this.listName = listName;
+        }
+
+        @Override
+        public Object visitName(Name node) throws Exception {
+            String name = node.getInternalId();
+            // any use not matched by the patterns below, get() may read the list by name
+            if (listName.equals(name) || mapNames.contains(name) || GET_FUNCTION_NAME.equals(name) ||
+                    DYNAMIC_ACCESS_FUNCTIONS.contains(name)) {
+                otherUse = true;
+            }
+            return super.visitName(node);
+        }
+
+        @Override
+        public Object visitSubscript(Subscript node) throws Exception {
+            String key = getLiteralKey(node.getInternalSlice());
+            if (key != null && isMap(node.getInternalValue())) {
+                keys.add(key);
+                return null;
+            }
+            return super.visitSubscript(node);
+        }
+
+        @Override
+        public Object visitCall(Call node) throws Exception {
+            expr function = node.getInternalFunc();
+            List<expr> arguments = node.getInternalArgs();
+            if (function instanceof Attribute && GET_FUNCTION_NAME.equals(((Attribute) function).getInternalAttr()) &&
+                    isMap(((Attribute) function).getInternalValue()) &&
+                    !arguments.isEmpty() && getLiteralString(arguments.get(0)) != null) {
+                keys.add(getLiteralString(arguments.get(0)));
+                visitAll(arguments.subList(1, arguments.size()));
+                return null;
+            }
+            if (function instanceof Name && arguments.size() == 1 && isList(arguments.get(0)) &&
+                    LENGTH_FUNCTION_NAME.equals(((Name) function).getInternalId())) {
+                return null;
+            }
+            if (function instanceof Name && arguments.size() == 2 && isList(arguments.get(1)) &&
+                    ITERATING_FUNCTIONS.contains(((Name) function).getInternalId()) &&
+                    arguments.get(0) instanceof Lambda) {
+                Lambda lambda = (Lambda) arguments.get(0);
+                List<expr> lambdaArguments = lambda.getInternalArgs().getInternalArgs();
+                if (lambdaArguments.size() == 1 && lambdaArguments.get(0) instanceof Name) {
+                    String mapName = ((Name) lambdaArguments.get(0)).getInternalId();
+                    boolean added = mapNames.add(mapName);
+                    visit(lambda.getInternalBody());
+                    if (added) {
+                        mapNames.remove(mapName);
+                    }
+                    return null;
+                }
+            }
+            return super.visitCall(node);
+        }
+
+        @Override
+        public Object visitListComp(ListComp node) throws Exception {
+            visitComprehension(node.getInternalElt(), node.getInternalGenerators());
+            return null;
+        }
+
+        @Override
+        public Object visitGeneratorExp(GeneratorExp node) throws Exception {
+            visitComprehension(node.getInternalElt(), node.getInternalGenerators());
+            return null;
+        }
+
+        private void visitComprehension(expr element, List<comprehension> generators) throws Exception {
+            Set<String> addedMapNames = new HashSet<>();
+            for (comprehension generator : generators) {
+                expr target = generator.getInternalTarget();
+                if (isList(generator.getInternalIter()) && target instanceof Name) {
+                    String mapName = ((Name) target).getInternalId();
+                    if (mapNames.add(mapName)) {
+                        addedMapNames.add(mapName);
+                    }
+                } else {
+                    visit(generator.getInternalIter());
+                    visit(target);
+                }
+                visitAll(generator.getInternalIfs());
+            }
+            visit(element);
+            mapNames.removeAll(addedMapNames);
+        }
+
+        private void visitAll(List<? extends PythonTree> nodes) throws Exception {
+            for (PythonTree node : nodes) {
+                visit(node);
+            }
+        }
+
+        private boolean isList(expr node) {
+            return node instanceof Name && listName.equals(((Name) node).getInternalId());
+        }
+
+        // a name bound to a map of the list, or the list indexed by a literal
+        private boolean isMap(expr node) {
+            if (node instanceof Name) {
+                return mapNames.contains(((Name) node).getInternalId());
+            }
+            if (node instanceof Subscript && isList(((Subscript) node).getInternalValue())) {
+                slice index = ((Subscript) node).getInternalSlice();
+                return index instanceof Index && isIntegerLiteral(((Index) index).getInternalValue());
+            }
+            return false;
+        }
+
+        private boolean isIntegerLiteral(expr node) {
+            if (node instanceof UnaryOp) {
+                return isIntegerLiteral(((UnaryOp) node).getInternalOperand());
+            }
+            return node instanceof Num && ((Num) node).getInternalN() instanceof PyInteger;
+        }
+
+        private String getLiteralKey(slice node) {
+            return node instanceof Index ? getLiteralString(((Index) node).getInternalValue()) : null;
+        }
+
+        private String getLiteralString(expr node) {
+            if (node instanceof Str && ((Str) node).getInternalS() instanceof PyString) {
+                return ((PyString) ((Str) node).getInternalS()).getString();
+            }
+            return null;
+        }
+
+        Set<String> getKeys() {
+            return keys;
+        }
+
+        boolean isOtherUse() {
+            return otherUse;
+        }
+    }
+
+    private static class VariableCollector extends Visitor {
+
+        private final Set<String> variables = new HashSet<>();
+        private int getReferences;
+        private int getCallsWithLiteralKey;
+        private boolean dynamic;
+
+        @Override
+        public Object visitName(Name node) throws Exception {
+            String name = node.getInternalId();
+            variables.add(name);
+            if (GET_FUNCTION_NAME.equals(name)) {
+                getReferences++;
+            } else if (DYNAMIC_ACCESS_FUNCTIONS.contains(name)) {
+                dynamic = true;
+            }
+            return super.visitName(node);
+        }
+
+        @Override
+        public Object visitCall(Call node) throws Exception {
+            expr function = node.getInternalFunc();
+            List<expr> arguments = node.getInternalArgs();
+            if (function instanceof Name && GET_FUNCTION_NAME.equals(((Name) function).getInternalId()) &&
+                    !arguments.isEmpty() && arguments.get(0) instanceof Str) {
+                Object key = ((Str) arguments.get(0)).getInternalS();
+                if (key instanceof PyString) {
+                    variables.add(((PyString) key).getString());
+                    getCallsWithLiteralKey++;
+                }
+            }
+            return super.visitCall(node);
+        }
+
+        Set<String> getVariables() {
+            return variables;
+        }
+
+        boolean isDynamic() {
+            // get() with a computed key, or get passed around as a value
+            return dynamic || getReferences > getCallsWithLiteralKey;
+        }
+    }
+
 }
@@ -14,6 +14,7 @@ import io.cloudslang.lang.entities.bindings.values.ValueFactory;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Bonczidai Levente
@@ -33,6 +34,33 @@ public final class MapUtils {
         return result;
     }
 
+    /**
+     * Merges only the entries with the given keys, the values of map2 override the ones of map1.
+     * Keys missing from both maps are not added.
+     *
+     * @param keys the keys to copy or null to merge all the entries
+     */
+    public static Map<String, Value> mergeMaps(
+            Set<String> keys,
+            Map<String, ? extends Value> map1,
+            Map<String, ? extends Value> map2) {
+        if (keys == null) {
+            Map<String, Value> result = new HashMap<>();
+            putAllIfNotEmpty(result, map1);
+            putAllIfNotEmpty(result, map2);
+            return result;
+        }
+        Map<String, Value> result = new HashMap<>(keys.size() * 2);
+        for (String key : keys) {
+            if (map2 != null && map2.containsKey(key)) {
+                result.put(key, map2.get(key));
+            } else if (map1 != null && map1.containsKey(key)) {
+                result.put(key, map1.get(key));
+            }
+        }
+        return result;
+    }
+
     public static Map<String, Value> convertMapNonSensitiveValues(Map<String, ? extends Serializable> source) {
         Map<String, Value> target = new HashMap<>(source.size());
         for (Map.Entry<String, ? extends Serializable> entry : source.entrySet()) {
@@ -43,7 +71,7 @@ public final class MapUtils {
 
     private static void putAllIfNotEmpty(
             Map<String, Value> target,
-            Map<String, Value> source) {
+            Map<String, ? extends Value> source) {
         if (org.apache.commons.collections4.MapUtils.isNotEmpty(source)) {
             target.putAll(source);
         }
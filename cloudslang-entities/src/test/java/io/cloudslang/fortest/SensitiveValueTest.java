@@ -10,11 +10,19 @@
 package io.cloudslang.fortest;
 
 import configuration.SlangEntitiesSpringConfig;
+import io.cloudslang.lang.entities.SlangSystemPropertyConstant;
 import io.cloudslang.lang.entities.bindings.values.SensitiveValue;
+import io.cloudslang.lang.entities.bindings.values.SensitiveValueCache;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
 import io.cloudslang.lang.spi.encryption.Encryption;
 
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -36,6 +44,9 @@ import static org.junit.Assert.assertTrue;
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
 public class SensitiveValueTest {
     private static final String ENCRYPTED = "{Encrypted}";
+    private static final String COMPACT_ENCODING =
+            SlangSystemPropertyConstant.CSLANG_SENSITIVE_COMPACT_ENCODING.getValue();
+    private static final AtomicInteger DECRYPT_COUNT = new AtomicInteger();
 
     @Test
     public void testSensitiveValueEncryptDecrypt() {
@@ -109,6 +120,91 @@ public class SensitiveValueTest {
         verifyEncrypted(value, expectedDecryptedValue, encryptedString);
     }
 
+    @Test
+    public void testCompactEncodingRoundTrip() {
+        ArrayList<String> list = new ArrayList<>(Arrays.asList("a", null, "c"));
+        LinkedList<String> linkedList = new LinkedList<>(Arrays.asList("a", "b"));
+        HashMap<String, String> map = new HashMap<>();
+        map.put("key", "value");
+        System.setProperty(COMPACT_ENCODING, "true");
+        try {
+            for (Serializable originalValue : Arrays.<Serializable>asList("multi\nline", "", 5, 5L, 1.5, true,
+                    list, new ArrayList<String>(), linkedList, map)) {
+                SensitiveValue value = (SensitiveValue) ValueFactory.create(originalValue, true);
+                assertEquals(originalValue, value.get());
+                assertEquals(originalValue.getClass(), value.get().getClass());
+            }
+        } finally {
+            System.clearProperty(COMPACT_ENCODING);
+        }
+    }
+
+    @Test
+    public void testCompactEncodingWhenEnabled() {
+        System.setProperty(COMPACT_ENCODING, "true");
+        try {
+            SensitiveValue value = (SensitiveValue) ValueFactory.create("OriginalSensitiveValue", true);
+            assertEquals("{Encrypted}AQAAABZPcmlnaW5hbFNlbnNpdGl2ZVZhbHVl", value.getContent());
+        } finally {
+            System.clearProperty(COMPACT_ENCODING);
+        }
+    }
+
+    @Test
+    public void testJavaSerializedContentIsDecoded() {
+        SensitiveValue value = (SensitiveValue) ValueFactory.create("other", true);
+        value.setContent("{Encrypted}rO0ABXQAFk9yaWdpbmFsU2Vuc2l0aXZlVmFsdWU=");
+        assertEquals("OriginalSensitiveValue", value.get());
+    }
+
+    @Test
+    public void testCompactContentIsDecoded() {
+        SensitiveValue value = (SensitiveValue) ValueFactory.create("other", true);
+        value.setContent("{Encrypted}AQAAABZPcmlnaW5hbFNlbnNpdGl2ZVZhbHVl");
+        assertEquals("OriginalSensitiveValue", value.get());
+    }
+
+    @Test
+    public void testDecryptedContentCachedOnlyInsideScope() {
+        SensitiveValue value = (SensitiveValue) ValueFactory.create("OriginalSensitiveValue", true);
+        int decryptCount = DECRYPT_COUNT.get();
+        value.get();
+        value.get();
+        assertEquals(decryptCount + 2, DECRYPT_COUNT.get());
+
+        SensitiveValueCache.open();
+        try {
+            SensitiveValueCache.open();
+            try {
+                assertEquals("OriginalSensitiveValue", value.get());
+            } finally {
+                SensitiveValueCache.close();
+            }
+            assertEquals("OriginalSensitiveValue", value.get());
+            assertEquals(decryptCount + 3, DECRYPT_COUNT.get());
+        } finally {
+            SensitiveValueCache.close();
+        }
+
+        value.get();
+        assertEquals(decryptCount + 4, DECRYPT_COUNT.get());
+    }
+
+    @Test
+    public void testCachedListIsCopied() {
+        ArrayList<String> list = new ArrayList<>(Arrays.asList("a", "b"));
+        SensitiveValue value = (SensitiveValue) ValueFactory.create(list, true);
+        SensitiveValueCache.open();
+        try {
+            @SuppressWarnings("unchecked")
+            List<String> first = (List<String>) value.get();
+            first.add("c");
+            assertEquals(list, value.get());
+        } finally {
+            SensitiveValueCache.close();
+        }
+    }
+
     private void verifyEncrypted(SensitiveValue value, Serializable expectedOriginalValue,
                                  String expectedEncryptedString) {
 
@@ -145,6 +241,7 @@ public class SensitiveValueTest {
 
                 @Override
                 public char[] decrypt(String cypherText) {
+                    DECRYPT_COUNT.incrementAndGet();
                     return cypherText.substring(ENCRYPTED.length()).toCharArray();
                 }
 
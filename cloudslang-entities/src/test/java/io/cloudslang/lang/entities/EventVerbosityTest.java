@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EventVerbosityTest {
+
+    @Test
+    public void testNoneDisablesAllEvents() throws Exception {
+        Assert.assertFalse(EventVerbosity.NONE.isEventEnabled(ScoreLangConstants.EVENT_EXECUTION_FINISHED));
+        Assert.assertFalse(EventVerbosity.NONE.isEventEnabled(ScoreLangConstants.EVENT_STEP_START));
+    }
+
+    @Test
+    public void testResultsOnly() throws Exception {
+        Assert.assertTrue(EventVerbosity.RESULTS_ONLY.isEventEnabled(ScoreLangConstants.EVENT_EXECUTION_FINISHED));
+        Assert.assertTrue(EventVerbosity.RESULTS_ONLY.isEventEnabled(ScoreLangConstants.SLANG_EXECUTION_EXCEPTION));
+        Assert.assertFalse(EventVerbosity.RESULTS_ONLY.isEventEnabled(ScoreLangConstants.EVENT_STEP_START));
+    }
+
+    @Test
+    public void testStepBoundariesSkipsBindingEvents() throws Exception {
+        Assert.assertTrue(EventVerbosity.STEP_BOUNDARIES.isEventEnabled(ScoreLangConstants.EVENT_EXECUTION_FINISHED));
+        Assert.assertTrue(EventVerbosity.STEP_BOUNDARIES.isEventEnabled(ScoreLangConstants.EVENT_STEP_START));
+        Assert.assertTrue(EventVerbosity.STEP_BOUNDARIES.isEventEnabled(ScoreLangConstants.EVENT_OUTPUT_END));
+        Assert.assertFalse(EventVerbosity.STEP_BOUNDARIES.isEventEnabled(ScoreLangConstants.EVENT_ARGUMENT_END));
+        Assert.assertFalse(EventVerbosity.STEP_BOUNDARIES.isEventEnabled(ScoreLangConstants.EVENT_ACTION_START));
+    }
+
+    @Test
+    public void testFullEnablesAllEvents() throws Exception {
+        Assert.assertTrue(EventVerbosity.FULL.isEventEnabled(ScoreLangConstants.EVENT_ARGUMENT_END));
+        Assert.assertTrue(EventVerbosity.FULL.isEventEnabled("CUSTOM_EVENT"));
+    }
+}
@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.bindings.values;
+
+import java.io.Serializable;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import javassist.util.proxy.MethodFilter;
+import javassist.util.proxy.MethodHandler;
+import javassist.util.proxy.ProxyFactory;
+import javassist.util.proxy.ProxyObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.python.core.Py;
+import org.python.core.PyInteger;
+import org.python.core.PyList;
+import org.python.core.PyObject;
+
+/**
+ * Compares the generated PyObjectValue proxies with proxies that dispatch every call by reflection,
+ * the way {@link PyObjectValueProxyFactory} used to.
+ * <p>
+ * Run the main method from the test classpath, e.g. from the IDE after mvn test-compile.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PyObjectValueProxyFactoryBenchmark {
+
+    private PyObject generatedInteger;
+    private PyObject generatedList;
+    private PyObject reflectiveInteger;
+    private PyObject reflectiveList;
+    private PyObject two;
+    private PyObject zero;
+
+    @Setup
+    public void setUp() throws Exception {
+        ArrayList<String> list = new ArrayList<>(Arrays.asList("a", "b", "c"));
+        generatedInteger = (PyObject) PyObjectValueProxyFactory.create(5, false);
+        generatedList = (PyObject) PyObjectValueProxyFactory.create(list, false);
+        reflectiveInteger = createReflectiveProxy(5, PyInteger.class, new Class[]{int.class}, new Object[]{0});
+        reflectiveList = createReflectiveProxy(list, PyList.class, new Class[0], new Object[0]);
+        two = Py.newInteger(2);
+        zero = Py.newInteger(0);
+    }
+
+    @Benchmark
+    public PyObject generatedAdd() {
+        return generatedInteger.__add__(two);
+    }
+
+    @Benchmark
+    public PyObject reflectiveAdd() {
+        return reflectiveInteger.__add__(two);
+    }
+
+    @Benchmark
+    public PyObject generatedGetItem() {
+        return generatedList.__getitem__(zero);
+    }
+
+    @Benchmark
+    public PyObject reflectiveGetItem() {
+        return reflectiveList.__getitem__(zero);
+    }
+
+    @Benchmark
+    public PyObject generatedProxyArgument() {
+        return two.__add__(generatedInteger);
+    }
+
+    @Benchmark
+    public PyObject reflectiveProxyArgument() {
+        return two.__add__(reflectiveInteger);
+    }
+
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .include(PyObjectValueProxyFactoryBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static PyObject createReflectiveProxy(Serializable content, Class<? extends PyObject> pyObjectClass,
+                                                  Class[] constructorTypes, Object[] constructorArgs)
+            throws Exception {
+        final PyObject pyObject = Py.java2py(content);
+        ProxyFactory factory = new ProxyFactory();
+        factory.setSuperclass(pyObjectClass);
+        factory.setInterfaces(new Class[]{PyObjectValue.class});
+        factory.setFilter(new MethodFilter() {
+            @Override
+            public boolean isHandled(Method method) {
+                return Modifier.isPublic(method.getModifiers());
+            }
+        });
+        factory.setUseWriteReplace(false);
+        return (PyObject) factory.create(constructorTypes, constructorArgs,
+                new ReflectiveMethodHandler(ValueFactory.create(content), pyObject));
+    }
+
+    private static class ReflectiveMethodHandler implements MethodHandler {
+
+        private final Value value;
+        private final PyObject pyObject;
+        private boolean accessed;
+
+        ReflectiveMethodHandler(Value value, PyObject pyObject) {
+            this.value = value;
+            this.pyObject = pyObject;
+        }
+
+        @Override
+        public Object invoke(Object self, Method thisMethod, Method proceed, Object[] args) throws Throwable {
+            if (thisMethod.getName().equals("isAccessed")) {
+                return accessed;
+            } else if (Value.class.isAssignableFrom(thisMethod.getDeclaringClass())) {
+                Method valueMethod = value.getClass().getMethod(thisMethod.getName(), thisMethod.getParameterTypes());
+                return valueMethod.invoke(value, args);
+            } else {
+                Method pyObjectMethod = pyObject.getClass()
+                        .getMethod(thisMethod.getName(), thisMethod.getParameterTypes());
+                if (!thisMethod.getName().equals("toString")) {
+                    accessed = true;
+                }
+                return pyObjectMethod.invoke(pyObject, getPyObjectArgs(args));
+            }
+        }
+
+        private Object[] getPyObjectArgs(Object[] args) {
+            Object[] pyObjectArgs = new Object[args.length];
+            for (int index = 0; index < args.length; index++) {
+                if (args[index] instanceof ProxyObject &&
+                        ((ProxyObject) args[index]).getHandler() instanceof ReflectiveMethodHandler) {
+                    ReflectiveMethodHandler handler = (ReflectiveMethodHandler) ((ProxyObject) args[index])
+                            .getHandler();
+                    handler.accessed = true;
+                    pyObjectArgs[index] = handler.pyObject;
+                } else {
+                    pyObjectArgs[index] = args[index];
+                }
+            }
+            return pyObjectArgs;
+        }
+    }
+}
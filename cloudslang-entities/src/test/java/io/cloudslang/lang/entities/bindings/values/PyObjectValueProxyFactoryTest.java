@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.entities.bindings.values;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.python.core.Py;
+import org.python.core.PyObject;
+
+public class PyObjectValueProxyFactoryTest {
+
+    @Test
+    public void testProxyExtendsPyObjectType() throws Exception {
+        for (Serializable content : Arrays.<Serializable>asList("abc", 5, 5L, 1.5, true, null,
+                new ArrayList<>(Arrays.asList("a", "b")), new HashMap<String, String>())) {
+            PyObjectValue value = PyObjectValueProxyFactory.create(content, false);
+            Assert.assertTrue(Py.java2py(content).getClass().isInstance(value));
+            Assert.assertEquals(content, value.get());
+            Assert.assertFalse(value.isSensitive());
+            Assert.assertFalse(value.isAccessed());
+        }
+    }
+
+    @Test
+    public void testProxyClassIsReused() throws Exception {
+        Assert.assertSame(PyObjectValueProxyFactory.create("abc", false).getClass(),
+                PyObjectValueProxyFactory.create("def", false).getClass());
+    }
+
+    @Test
+    public void testMethodCallDelegatesAndMarksAccessed() throws Exception {
+        PyObjectValue value = PyObjectValueProxyFactory.create(5, false);
+        PyObject result = ((PyObject) value).__add__(Py.newInteger(2));
+        Assert.assertEquals(7, result.asInt());
+        Assert.assertTrue(value.isAccessed());
+    }
+
+    @Test
+    public void testToStringDoesNotMarkAccessed() throws Exception {
+        PyObjectValue value = PyObjectValueProxyFactory.create(5, false);
+        Assert.assertEquals("5", value.toString());
+        Assert.assertFalse(value.isAccessed());
+    }
+
+    @Test
+    public void testProxyArgumentIsUnwrapped() throws Exception {
+        PyObjectValue left = PyObjectValueProxyFactory.create("abc", false);
+        PyObjectValue right = PyObjectValueProxyFactory.create("def", false);
+        PyObject result = ((PyObject) left).__add__((PyObject) right);
+        Assert.assertEquals("abcdef", result.toString());
+        Assert.assertFalse(result instanceof PyObjectValue);
+        Assert.assertTrue(left.isAccessed());
+        Assert.assertTrue(right.isAccessed());
+    }
+
+    @Test
+    public void testSerializedAsPyObjectValue() throws Exception {
+        PyObjectValue value = PyObjectValueProxyFactory.create("abc", false);
+
+        Object deserialized = serializeAndDeserialize(value);
+
+        Assert.assertTrue(deserialized instanceof PyObjectValue);
+        Assert.assertTrue(deserialized instanceof Value);
+        Assert.assertEquals("abc", deserialized.toString());
+        Assert.assertEquals("abc", ((PyObjectValue) deserialized).get());
+        Assert.assertFalse(((PyObjectValue) deserialized).isSensitive());
+        Assert.assertFalse(((PyObjectValue) deserialized).isAccessed());
+    }
+
+    @Test
+    public void testSerializedProxyKeepsSensitivityAndAccess() throws Exception {
+        PyObjectValue value = PyObjectValueProxyFactory.create(5, true);
+        ((PyObject) value).__add__(Py.newInteger(2));
+
+        PyObjectValue deserialized = (PyObjectValue) serializeAndDeserialize(value);
+
+        Assert.assertEquals(5, deserialized.get());
+        Assert.assertTrue(deserialized.isSensitive());
+        Assert.assertTrue(deserialized.isAccessed());
+    }
+
+    private Object serializeAndDeserialize(Object value) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream outputStream = new ObjectOutputStream(bytes);
+        outputStream.writeObject(value);
+        outputStream.close();
+        return new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+    }
+}
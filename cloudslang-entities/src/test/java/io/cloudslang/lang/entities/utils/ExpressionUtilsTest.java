@@ -18,7 +18,9 @@ import junit.framework.Assert;
 import org.junit.Test;
 
 import static io.cloudslang.lang.entities.utils.ExpressionUtils.extractExpression;
+import static io.cloudslang.lang.entities.utils.ExpressionUtils.extractListOfMapsKeys;
 import static io.cloudslang.lang.entities.utils.ExpressionUtils.extractSystemProperties;
+import static io.cloudslang.lang.entities.utils.ExpressionUtils.extractVariables;
 import static io.cloudslang.lang.entities.utils.ExpressionUtils.matchGetFunction;
 
 /**
@@ -203,4 +205,74 @@ public class ExpressionUtilsTest {
         Assert.assertTrue(matchGetFunction("exec(get(get(var, default_expr), default_expr))"));
     }
 
+    ///////////////////////////////////////////////////////////////////////////////////////////////////////////
+
+    @Test
+    public void testExtractVariablesNames() throws Exception {
+        Assert.assertEquals(Sets.newHashSet("var1", "var2", "str"), extractVariables("str(var1) + var2.upper()"));
+    }
+
+    @Test
+    public void testExtractVariablesLiteralsOnly() throws Exception {
+        Assert.assertEquals(EMPTY_SET, extractVariables("'abc' + 'var1'"));
+    }
+
+    @Test
+    public void testExtractVariablesGetLiteralKey() throws Exception {
+        Assert.assertEquals(Sets.newHashSet("get", "var1", "var2"), extractVariables("get('var1', var2)"));
+    }
+
+    @Test
+    public void testExtractVariablesGetComputedKey() throws Exception {
+        Assert.assertNull(extractVariables("get('var' + suffix)"));
+    }
+
+    @Test
+    public void testExtractVariablesGetAsValue() throws Exception {
+        Assert.assertNull(extractVariables("map(get, ['var1']) + get('var2')"));
+    }
+
+    @Test
+    public void testExtractVariablesDynamicAccess() throws Exception {
+        Assert.assertNull(extractVariables("globals()['var1']"));
+    }
+
+    @Test
+    public void testExtractVariablesInvalidExpression() throws Exception {
+        Assert.assertNull(extractVariables("var1 +"));
+    }
+
+    @Test
+    public void testExtractListOfMapsKeysLambda() throws Exception {
+        Assert.assertEquals(Sets.newHashSet("name"),
+                extractListOfMapsKeys("str(map(lambda x:str(x['name']), branches_context))", "branches_context"));
+    }
+
+    @Test
+    public void testExtractListOfMapsKeysIndex() throws Exception {
+        Assert.assertEquals(Sets.newHashSet("int_output", "name"),
+                extractListOfMapsKeys("branches_context[-1]['int_output'] + branches_context[0].get('name', '')",
+                        "branches_context"));
+    }
+
+    @Test
+    public void testExtractListOfMapsKeysComprehension() throws Exception {
+        Assert.assertEquals(Sets.newHashSet("result", "name"),
+                extractListOfMapsKeys("[x['name'] for x in branches_context if x['result'] == 'SUCCESS']",
+                        "branches_context"));
+    }
+
+    @Test
+    public void testExtractListOfMapsKeysLength() throws Exception {
+        Assert.assertEquals(EMPTY_SET, extractListOfMapsKeys("str(len(branches_context))", "branches_context"));
+    }
+
+    @Test
+    public void testExtractListOfMapsKeysWholeMapUsed() throws Exception {
+        Assert.assertNull(extractListOfMapsKeys("str(branches_context)", "branches_context"));
+        Assert.assertNull(extractListOfMapsKeys("map(lambda x:x.keys(), branches_context)", "branches_context"));
+        Assert.assertNull(extractListOfMapsKeys("branches_context[0][key]", "branches_context"));
+        Assert.assertNull(extractListOfMapsKeys("map(lambda x:str(x), branches_context)", "branches_context"));
+        Assert.assertNull(extractListOfMapsKeys("str(get('branches_context'))", "branches_context"));
+    }
 }
@@ -12,6 +12,8 @@ package io.cloudslang.lang.entities.utils;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
 
+import com.google.common.collect.Sets;
+
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
@@ -67,4 +69,17 @@ public class MapUtilsTest {
         Assert.assertEquals(map_1_2, MapUtils.mergeMaps(map1, map2));
     }
 
+    @Test
+    public void testSelectedKeys() throws Exception {
+        Map<String, Value> expected = new HashMap<>();
+        expected.put("key1", map2.get("key1"));
+        expected.put("key2", map1.get("key2"));
+        Assert.assertEquals(expected, MapUtils.mergeMaps(Sets.newHashSet("key1", "key2", "key4"), map1, map2));
+    }
+
+    @Test
+    public void testSelectedKeysNull() throws Exception {
+        Assert.assertEquals(map_1_2, MapUtils.mergeMaps(null, map1, map2));
+    }
+
 }
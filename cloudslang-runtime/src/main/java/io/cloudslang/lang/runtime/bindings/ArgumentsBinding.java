@@ -11,7 +11,10 @@ package io.cloudslang.lang.runtime.bindings;
 
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Argument;
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
 import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.utils.MapUtils;
+import io.cloudslang.lang.runtime.bindings.scripts.BindingSection;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
@@ -37,49 +40,85 @@ public class ArgumentsBinding extends AbstractBinding {
             List<Argument> arguments,
             Map<String, ? extends Value> context,
             Set<SystemProperty> systemProperties) {
-        Map<String, Value> resultContext = new HashMap<>();
+        // the original context map is only read
+        ArgumentsSection section = new ArgumentsSection(arguments, context);
+        scriptEvaluator.evalSection(section, systemProperties);
+        return section.resultContext;
+    }
 
-        //we do not want to change original context map
-        Map<String, Value> srcContext = new HashMap<>(context);
+    private class ArgumentsSection implements BindingSection {
 
-        for (Argument argument : arguments) {
-            bindArgument(argument, srcContext, systemProperties, resultContext);
-        }
+        private final List<Argument> arguments;
+        private final Map<String, ? extends Value> srcContext;
+        private final Map<String, Value> resultContext = new HashMap<>();
+        private final String[] expressions;
 
-        return resultContext;
-    }
-
-    private void bindArgument(
-            Argument argument,
-            Map<String, ? extends Value> srcContext,
-            Set<SystemProperty> systemProperties,
-            Map<String, Value> targetContext) {
-        Value inputValue;
-        String inputName = argument.getName();
-        String errorMessagePrefix = "Error binding step input: '" + inputName;
-
-        try {
-            inputValue = srcContext.get(inputName);
-            if (argument.isPrivateArgument()) {
+        ArgumentsSection(List<Argument> arguments, Map<String, ? extends Value> srcContext) {
+            this.arguments = arguments;
+            this.srcContext = srcContext;
+            expressions = new String[arguments.size()];
+            for (int i = 0; i < arguments.size(); i++) {
+                Argument argument = arguments.get(i);
                 Value rawValue = argument.getValue();
-                String expressionToEvaluate = extractExpression(rawValue == null ? null : rawValue.get());
-                if (expressionToEvaluate != null) {
-                    //we do not want to change original context map
-                    Map<String, Value> scriptContext = new HashMap<>(srcContext);
-                    scriptContext.put(inputName, inputValue);
-                    //so you can resolve previous arguments already bound
-                    scriptContext.putAll(targetContext);
-                    inputValue = scriptEvaluator.evalExpr(expressionToEvaluate, scriptContext, systemProperties,
-                            argument.getFunctionDependencies());
-                } else {
-                    inputValue = rawValue;
+                if (argument.isPrivateArgument()) {
+                    expressions[i] = extractExpression(rawValue == null ? null : rawValue.get());
                 }
             }
-        } catch (Throwable t) {
-            throw new RuntimeException(errorMessagePrefix + "', \n\tError is: " + t.getMessage(), t);
         }
-        validateStringValue(errorMessagePrefix, inputValue);
-        targetContext.put(inputName, inputValue);
+
+        @Override
+        public int size() {
+            return arguments.size();
+        }
+
+        @Override
+        public String getExpression(int index) {
+            return expressions[index];
+        }
+
+        @Override
+        public Set<ScriptFunction> getFunctionDependencies(int index) {
+            return arguments.get(index).getFunctionDependencies();
+        }
+
+        @Override
+        public Map<String, Value> getScriptContext(int index) {
+            Argument argument = arguments.get(index);
+            String inputName = argument.getName();
+            //so you can resolve previous arguments already bound
+            Map<String, Value> scriptContext =
+                    MapUtils.mergeMaps(argument.getVariableDependencies(), srcContext, resultContext);
+            if (!resultContext.containsKey(inputName)) {
+                scriptContext.put(inputName, srcContext.get(inputName));
+            }
+            return scriptContext;
+        }
+
+        @Override
+        public void bind(int index, Value evalResult) {
+            Argument argument = arguments.get(index);
+            String inputName = argument.getName();
+            Value inputValue;
+            if (!argument.isPrivateArgument()) {
+                inputValue = srcContext.get(inputName);
+            } else if (expressions[index] == null) {
+                inputValue = argument.getValue();
+            } else {
+                inputValue = evalResult;
+            }
+            validateStringValue(getErrorMessagePrefix(argument), inputValue);
+            resultContext.put(inputName, inputValue);
+        }
+
+        @Override
+        public RuntimeException getBindingError(int index, Throwable error) {
+            return new RuntimeException(getErrorMessagePrefix(arguments.get(index)) + "', \n\tError is: " +
+                    error.getMessage(), error);
+        }
+
+        private String getErrorMessagePrefix(Argument argument) {
+            return "Error binding step input: '" + argument.getName();
+        }
     }
 
 }
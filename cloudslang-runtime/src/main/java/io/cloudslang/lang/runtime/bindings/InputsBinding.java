@@ -21,9 +21,12 @@ package io.cloudslang.lang.runtime.bindings;
 
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Input;
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
 import io.cloudslang.lang.entities.utils.ExpressionUtils;
+import io.cloudslang.lang.entities.utils.MapUtils;
+import io.cloudslang.lang.runtime.bindings.scripts.BindingSection;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import java.util.HashMap;
 import java.util.List;
@@ -48,73 +51,101 @@ public class InputsBinding extends AbstractBinding {
      */
     public Map<String, Value> bindInputs(List<Input> inputs, Map<String, ? extends Value> context,
                                          Set<SystemProperty> systemProperties) {
-        Map<String, Value> resultContext = new HashMap<>();
-
-        //we do not want to change original context map
-        Map<String, Value> srcContext = new HashMap<>(context);
+        // the original context map is only read
+        InputsSection section = new InputsSection(inputs, context);
+        scriptEvaluator.evalSection(section, systemProperties);
+        return section.resultContext;
+    }
 
-        for (Input input : inputs) {
-            bindInput(input, srcContext, resultContext, systemProperties);
+    private class InputsSection implements BindingSection {
+
+        private final List<Input> inputs;
+        private final Map<String, ? extends Value> context;
+        private final Map<String, Value> resultContext = new HashMap<>();
+        // the value taken from the context, evaluated only if it is empty
+        private final Value[] contextValues;
+        private final String[] expressions;
+
+        InputsSection(List<Input> inputs, Map<String, ? extends Value> context) {
+            this.inputs = inputs;
+            this.context = context;
+            contextValues = new Value[inputs.size()];
+            expressions = new String[inputs.size()];
+            for (int i = 0; i < inputs.size(); i++) {
+                Input input = inputs.get(i);
+                Validate.notEmpty(input.getName());
+                if (!input.isPrivateInput()) {
+                    contextValues[i] = ValueFactory.create(context.get(input.getName()), isSensitive(input));
+                }
+                if (isEmpty(contextValues[i])) {
+                    Value rawValue = input.getValue();
+                    expressions[i] = ExpressionUtils.extractExpression(rawValue == null ? null : rawValue.get());
+                }
+            }
         }
 
-        return resultContext;
-    }
-
-    private void bindInput(Input input, Map<String, ? extends Value> context, Map<String, Value> targetContext,
-                           Set<SystemProperty> systemProperties) {
-        Value value;
+        @Override
+        public int size() {
+            return inputs.size();
+        }
 
-        String inputName = input.getName();
-        Validate.notEmpty(inputName);
-        String errorMessagePrefix = "Error binding input: '" + inputName;
+        @Override
+        public String getExpression(int index) {
+            return expressions[index];
+        }
 
-        try {
-            value = resolveValue(input, context, targetContext, systemProperties);
-        } catch (Throwable t) {
-            throw new RuntimeException(errorMessagePrefix + "', \n\tError is: " + t.getMessage(), t);
+        @Override
+        public Set<ScriptFunction> getFunctionDependencies(int index) {
+            return inputs.get(index).getFunctionDependencies();
         }
 
-        if (input.isRequired() && isEmpty(value)) {
-            throw new RuntimeException("Input with name: \'" + inputName + "\' is Required, but value is empty");
+        @Override
+        public Map<String, Value> getScriptContext(int index) {
+            //so you can resolve previous inputs already bound
+            return MapUtils.mergeMaps(inputs.get(index).getVariableDependencies(), context, resultContext);
         }
 
-        validateStringValue(errorMessagePrefix, value);
-        targetContext.put(inputName, value);
-    }
+        @Override
+        public void bind(int index, Value evalResult) {
+            Input input = inputs.get(index);
+            String inputName = input.getName();
+            Value value = expressions[index] == null ?
+                    resolveValue(input, contextValues[index]) : ValueFactory.create(evalResult, isSensitive(input));
 
-    private Value resolveValue(Input input, Map<String, ? extends Value> context,
-                               Map<String, ? extends Value> targetContext, Set<SystemProperty> systemProperties) {
-        Value value = null;
+            if (input.isRequired() && isEmpty(value)) {
+                throw new RuntimeException("Input with name: \'" + inputName + "\' is Required, but value is empty");
+            }
 
-        //we do not want to change original context map
-        Map<String, Value> scriptContext = new HashMap<>(context);
+            validateStringValue(getErrorMessagePrefix(input), value);
+            resultContext.put(inputName, value);
+        }
 
-        String inputName = input.getName();
-        Value valueFromContext = context.get(inputName);
-        boolean sensitive = input.getValue() != null && input.getValue().isSensitive() ||
-                valueFromContext != null && valueFromContext.isSensitive();
-        if (!input.isPrivateInput()) {
-            value = ValueFactory.create(valueFromContext, sensitive);
+        @Override
+        public RuntimeException getBindingError(int index, Throwable error) {
+            return new RuntimeException(getErrorMessagePrefix(inputs.get(index)) + "', \n\tError is: " +
+                    error.getMessage(), error);
         }
 
+        private String getErrorMessagePrefix(Input input) {
+            return "Error binding input: '" + input.getName();
+        }
+
+        private boolean isSensitive(Input input) {
+            Value valueFromContext = context.get(input.getName());
+            return input.getValue() != null && input.getValue().isSensitive() ||
+                    valueFromContext != null && valueFromContext.isSensitive();
+        }
+    }
+
+    private Value resolveValue(Input input, Value valueFromContext) {
+        Value value = valueFromContext;
         if (isEmpty(value)) {
             Value rawValue = input.getValue();
-            String expressionToEvaluate = ExpressionUtils.extractExpression(rawValue == null ? null : rawValue.get());
-            if (expressionToEvaluate != null) {
-                if (context.containsKey(inputName)) {
-                    scriptContext.put(inputName, valueFromContext);
-                }
-                //so you can resolve previous inputs already bound
-                scriptContext.putAll(targetContext);
-                value = scriptEvaluator.evalExpr(expressionToEvaluate, scriptContext, systemProperties,
-                        input.getFunctionDependencies());
-                value = ValueFactory.create(value, sensitive);
-            } else if ((value == null && rawValue != null) ||
+            if ((value == null && rawValue != null) ||
                     (containsEmptyStringOrNull(value) && doesNotContainNull(rawValue))) {
                 value = rawValue;
             }
         }
-
         return value;
     }
 
@@ -18,6 +18,7 @@ import io.cloudslang.lang.runtime.env.Context;
 import io.cloudslang.lang.runtime.env.ForLoopCondition;
 import io.cloudslang.lang.runtime.env.LoopCondition;
 
+import java.io.Serializable;
 import java.util.Map;
 import java.util.Set;
 
@@ -119,6 +120,14 @@ public class LoopsBinding extends AbstractBinding {
     }
 
     private ForLoopCondition createForLoopCondition(Value evalResult) {
+        Serializable loopCollectionContent = evalResult.get();
+        if (loopCollectionContent instanceof Iterable) {
+            @SuppressWarnings("unchecked")
+            Iterable<? extends Serializable> iterable = (Iterable<? extends Serializable>) loopCollectionContent;
+            return new ForLoopCondition(iterable, evalResult.isSensitive());
+        } else if (loopCollectionContent instanceof String) {
+            return new ForLoopCondition((String) loopCollectionContent, evalResult.isSensitive());
+        }
         Iterable<Value> iterable = getIterableFromEvalResult(evalResult);
         if (iterable == null) {
             return null;
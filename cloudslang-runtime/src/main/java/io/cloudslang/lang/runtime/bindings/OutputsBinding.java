@@ -11,11 +11,14 @@ package io.cloudslang.lang.runtime.bindings;
 
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Output;
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
 import io.cloudslang.lang.entities.utils.ExpressionUtils;
 import io.cloudslang.lang.entities.utils.MapUtils;
+import io.cloudslang.lang.runtime.bindings.scripts.BindingSection;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -42,33 +45,88 @@ public class OutputsBinding extends AbstractBinding {
             Set<SystemProperty> systemProperties,
             List<Output> possibleOutputs) {
 
-        Map<String, Value> outputs = new LinkedHashMap<>();
-        Map<String, Value> scriptContext = MapUtils.mergeMaps(initialContext, returnContext);
+        OutputsSection section = new OutputsSection(initialContext, returnContext,
+                possibleOutputs == null ? Collections.<Output>emptyList() : possibleOutputs);
+        scriptEvaluator.evalSection(section, systemProperties);
+        return section.outputs;
+    }
+
+    private class OutputsSection implements BindingSection {
+
+        private final Map<String, Value> initialContext;
+        private final Map<String, Value> returnContext;
+        private final List<Output> possibleOutputs;
+        private final Map<String, Value> outputs = new LinkedHashMap<>();
+        private final String[] expressions;
+        // merged only if an output expression needs the whole context
+        private Map<String, Value> fullScriptContext;
 
-        if (possibleOutputs != null) {
-            for (Output output : possibleOutputs) {
-                String outputKey = output.getName();
-                String errorMessagePrefix = "Error binding output: '" + output.getName();
-                Value rawValue = output.getValue();
-                Value valueToAssign = rawValue;
-                String expressionToEvaluate = extractExpression(rawValue == null ? null : rawValue.get());
-                if (expressionToEvaluate != null) {
-                    // initialize with null value if key does not exist
-                    scriptContext.put(outputKey, scriptContext.get(outputKey));
-                    try {
-                        //evaluate expression
-                        Value value = scriptEvaluator.evalExpr(expressionToEvaluate, scriptContext,
-                                systemProperties, output.getFunctionDependencies());
-                        valueToAssign = ValueFactory.create(value, rawValue != null && rawValue.isSensitive());
-                    } catch (Throwable t) {
-                        throw new RuntimeException(errorMessagePrefix + "',\n\tError is: " + t.getMessage(), t);
-                    }
+        OutputsSection(Map<String, Value> initialContext, Map<String, Value> returnContext,
+                       List<Output> possibleOutputs) {
+            this.initialContext = initialContext;
+            this.returnContext = returnContext;
+            this.possibleOutputs = possibleOutputs;
+            expressions = new String[possibleOutputs.size()];
+            for (int i = 0; i < possibleOutputs.size(); i++) {
+                Value rawValue = possibleOutputs.get(i).getValue();
+                expressions[i] = extractExpression(rawValue == null ? null : rawValue.get());
+            }
+        }
+
+        @Override
+        public int size() {
+            return possibleOutputs.size();
+        }
+
+        @Override
+        public String getExpression(int index) {
+            return expressions[index];
+        }
+
+        @Override
+        public Set<ScriptFunction> getFunctionDependencies(int index) {
+            return possibleOutputs.get(index).getFunctionDependencies();
+        }
+
+        @Override
+        public Map<String, Value> getScriptContext(int index) {
+            Output output = possibleOutputs.get(index);
+            String outputKey = output.getName();
+            Set<String> variables = output.getVariableDependencies();
+            Map<String, Value> scriptContext;
+            if (variables == null) {
+                if (fullScriptContext == null) {
+                    fullScriptContext = MapUtils.mergeMaps(initialContext, returnContext);
+                    fullScriptContext.putAll(outputs);
                 }
-                validateStringValue(errorMessagePrefix, valueToAssign);
-                outputs.put(outputKey, valueToAssign);
-                scriptContext.put(outputKey, valueToAssign);
+                scriptContext = fullScriptContext;
+            } else {
+                scriptContext = MapUtils.mergeMaps(variables,
+                        MapUtils.mergeMaps(variables, initialContext, returnContext), outputs);
+            }
+            // initialize with null value if key does not exist
+            scriptContext.put(outputKey, scriptContext.get(outputKey));
+            return scriptContext;
+        }
+
+        @Override
+        public void bind(int index, Value evalResult) {
+            Output output = possibleOutputs.get(index);
+            String outputKey = output.getName();
+            Value rawValue = output.getValue();
+            Value valueToAssign = expressions[index] == null ?
+                    rawValue : ValueFactory.create(evalResult, rawValue != null && rawValue.isSensitive());
+            validateStringValue("Error binding output: '" + outputKey, valueToAssign);
+            outputs.put(outputKey, valueToAssign);
+            if (fullScriptContext != null) {
+                fullScriptContext.put(outputKey, valueToAssign);
             }
         }
-        return outputs;
+
+        @Override
+        public RuntimeException getBindingError(int index, Throwable error) {
+            return new RuntimeException("Error binding output: '" + possibleOutputs.get(index).getName() +
+                    "',\n\tError is: " + error.getMessage(), error);
+        }
     }
 }
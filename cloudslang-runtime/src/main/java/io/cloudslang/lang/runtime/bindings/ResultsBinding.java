@@ -98,7 +98,8 @@ public class ResultsBinding {
                                     " expression " + ScoreLangConstants.EXPRESSION_END_DELIMITER);
                 }
 
-                Map<String, Value> scriptContext = MapUtils.mergeMaps(inputs, context);
+                Map<String, Value> scriptContext =
+                        MapUtils.mergeMaps(result.getVariableDependencies(), inputs, context);
 
                 try {
                     Value expressionResult = scriptEvaluator.evalExpr(expression, scriptContext, systemProperties,
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The bindings of one section, e.g. the inputs of an executable, evaluated by {@link ScriptEvaluator#evalSection}.
+ * The bindings are bound in order, so an expression can use the values of the bindings before it.
+ */
+public interface BindingSection {
+
+    int size();
+
+    /**
+     * @return the expression of the binding, or null if the binding is bound without evaluating one
+     */
+    String getExpression(int index);
+
+    Set<ScriptFunction> getFunctionDependencies(int index);
+
+    /**
+     * @return the context to evaluate the expression in, requested once the previous bindings are bound
+     */
+    Map<String, Value> getScriptContext(int index);
+
+    /**
+     * @param value the result of the expression, or null if the binding has no expression
+     */
+    void bind(int index, Value value);
+
+    /**
+     * @return the exception to throw when the expression of the binding could not be evaluated
+     */
+    RuntimeException getBindingError(int index, Throwable error);
+}
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.SystemProperty;
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.python.core.Py;
+import org.python.core.PyCode;
+import org.python.core.PyObject;
+
+/**
+ * Evaluates the expressions of a {@link BindingSection} with a single Python program. For each expression,
+ * the program asks whether it should be evaluated by Python and then hands its result back:
+ * <pre>
+ * if __cs_pending(0):
+ *   __cs_bind(0, (
+ * expression
+ * ))
+ * </pre>
+ * The callbacks bind the section in order, and before each expression the namespace is set up as for a single
+ * evaluation, so each expression sees the bindings before it and the sensitivity of each result is its own.
+ * Simple expressions are still evaluated in Java, see {@link SimpleExpressionEvaluator}.
+ */
+class BindingSectionEvaluation {
+
+    private static final String PENDING_FUNCTION = "__cs_pending";
+    private static final String BIND_FUNCTION = "__cs_bind";
+
+    private final ScriptEvaluator scriptEvaluator;
+    private final BindingSection section;
+    private final Set<SystemProperty> systemProperties;
+    private final PooledPythonInterpreter interpreter;
+    private final PyObject pendingFunction = new PendingFunction();
+    private final PyObject bindFunction = new BindFunction();
+
+    // the first binding that is not bound yet
+    private int next;
+    private Map<String, Value> pythonSystemProperties;
+    // thrown by a callback, so Python only stops the program
+    private RuntimeException failure;
+
+    BindingSectionEvaluation(ScriptEvaluator scriptEvaluator, BindingSection section,
+                             Set<SystemProperty> systemProperties, PooledPythonInterpreter interpreter) {
+        this.scriptEvaluator = scriptEvaluator;
+        this.section = section;
+        this.systemProperties = systemProperties;
+        this.interpreter = interpreter;
+    }
+
+    static String createProgram(List<String> expressions) {
+        StringBuilder program = new StringBuilder();
+        for (int i = 0; i < expressions.size(); i++) {
+            if (expressions.get(i) != null) {
+                // the expression is on its own lines, so a trailing comment does not hide the closing parentheses
+                program.append("if ").append(PENDING_FUNCTION).append('(').append(i).append("):\n")
+                        .append("  ").append(BIND_FUNCTION).append('(').append(i).append(", (\n")
+                        .append(expressions.get(i)).append("\n))\n");
+            }
+        }
+        return program.toString();
+    }
+
+    void run(PyCode program) {
+        interpreter.set(PENDING_FUNCTION, pendingFunction);
+        try {
+            interpreter.exec(program);
+        } catch (RuntimeException e) {
+            if (failure != null) {
+                throw failure;
+            }
+            throw section.getBindingError(next, scriptEvaluator.getScriptError(section.getExpression(next), e));
+        }
+        bindUpTo(section.size());
+    }
+
+    /**
+     * @return true if Python should evaluate the expression, false if it was evaluated in Java
+     */
+    private boolean pending(int index) {
+        bindUpTo(index);
+        String expr = section.getExpression(index);
+        Set<ScriptFunction> functionDependencies = section.getFunctionDependencies(index);
+        Value simpleExpressionValue;
+        Map<String, Value> context;
+        try {
+            context = section.getScriptContext(index);
+            simpleExpressionValue = SimpleExpressionEvaluator.evalExpr(expr, context, functionDependencies);
+        } catch (RuntimeException e) {
+            throw fail(section.getBindingError(index, e));
+        }
+        if (simpleExpressionValue != null) {
+            bind(index, simpleExpressionValue);
+            return false;
+        }
+
+        pythonSystemProperties = functionDependencies.contains(ScriptFunction.GET_SYSTEM_PROPERTY) ?
+                scriptEvaluator.prepareSystemProperties(systemProperties) : null;
+        interpreter.reset();
+        try {
+            interpreter.prepare(context, pythonSystemProperties, functionDependencies);
+        } catch (RuntimeException e) {
+            throw fail(section.getBindingError(index, scriptEvaluator.getScriptError(expr, e)));
+        }
+        interpreter.set(PENDING_FUNCTION, pendingFunction);
+        interpreter.set(BIND_FUNCTION, bindFunction);
+        return true;
+    }
+
+    private void bindResult(int index, PyObject result) {
+        Value value;
+        try {
+            Serializable content = scriptEvaluator.resolveJythonObjectToJava(result, section.getExpression(index));
+            value = ValueFactory.create(content, scriptEvaluator.getSensitive(
+                    interpreter.getMaterializedContextValues(), pythonSystemProperties));
+        } catch (RuntimeException e) {
+            throw fail(section.getBindingError(index,
+                    scriptEvaluator.getScriptError(section.getExpression(index), e)));
+        }
+        bind(index, value);
+    }
+
+    private void bindUpTo(int index) {
+        while (next < index) {
+            bind(next, null);
+        }
+    }
+
+    private void bind(int index, Value value) {
+        try {
+            section.bind(index, value);
+        } catch (RuntimeException e) {
+            throw fail(e);
+        }
+        next = index + 1;
+    }
+
+    private RuntimeException fail(RuntimeException e) {
+        failure = e;
+        return e;
+    }
+
+    private class PendingFunction extends PyObject {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public PyObject __call__(PyObject[] args, String[] keywords) {
+            return Py.newBoolean(pending(args[0].asInt()));
+        }
+    }
+
+    private class BindFunction extends PyObject {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public PyObject __call__(PyObject[] args, String[] keywords) {
+            bindResult(args[0].asInt(), args[1]);
+            return Py.None;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.cloudslang.lang.entities.SlangSystemPropertyConstant;
+import java.util.List;
+import org.python.core.CompileMode;
+import org.python.core.CompilerFlags;
+import org.python.core.Py;
+import org.python.core.PyCode;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * Bounded cache of compiled Python code for the expressions evaluated by {@link ScriptEvaluator},
+ * keyed by the expression text.
+ */
+@Component
+public class CompiledExpressionCache {
+
+    private static final String SCRIPT_FILE_NAME = "<string>";
+    private static final int DEFAULT_CACHE_SIZE = 5000;
+
+    private Cache<String, PyCode> cache;
+    private Cache<List<String>, PyCode> programCache;
+
+    @PostConstruct
+    public void init() {
+        cache = CacheBuilder.newBuilder()
+                .maximumSize(getCacheSize())
+                .concurrencyLevel(2 * Runtime.getRuntime().availableProcessors())
+                .recordStats()
+                .build();
+        programCache = CacheBuilder.newBuilder()
+                .maximumSize(getCacheSize())
+                .concurrencyLevel(2 * Runtime.getRuntime().availableProcessors())
+                .build();
+    }
+
+    public PyCode getCompiledExpression(String expression) {
+        PyCode compiledExpression = cache.getIfPresent(expression);
+        if (compiledExpression == null) {
+            compiledExpression = Py.compile_flags(expression, SCRIPT_FILE_NAME, CompileMode.eval, new CompilerFlags());
+            cache.put(expression, compiledExpression);
+        }
+        return compiledExpression;
+    }
+
+    /**
+     * Compiles each expression on its own first, so an expression that is not valid is not mistaken
+     * for part of the program.
+     *
+     * @param expressions the expressions of a binding section, null for a binding without one
+     * @return the program evaluating the expressions, see {@link BindingSectionEvaluation}
+     */
+    public PyCode getCompiledProgram(List<String> expressions) {
+        PyCode compiledProgram = programCache.getIfPresent(expressions);
+        if (compiledProgram == null) {
+            for (String expression : expressions) {
+                if (expression != null) {
+                    getCompiledExpression(expression);
+                }
+            }
+            compiledProgram = Py.compile_flags(BindingSectionEvaluation.createProgram(expressions),
+                    SCRIPT_FILE_NAME, CompileMode.exec, new CompilerFlags());
+            programCache.put(expressions, compiledProgram);
+        }
+        return compiledProgram;
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+        programCache.invalidateAll();
+    }
+
+    private int getCacheSize() {
+        String cacheSize = System.getProperty(SlangSystemPropertyConstant.CSLANG_EXPRESSION_CACHE_SIZE.getValue());
+        return cacheSize == null ? DEFAULT_CACHE_SIZE : Integer.parseInt(cacheSize);
+    }
+}
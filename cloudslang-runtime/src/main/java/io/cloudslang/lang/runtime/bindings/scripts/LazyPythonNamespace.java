@@ -0,0 +1,62 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.bindings.values.PyObjectValue;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.python.core.PyObject;
+import org.python.core.PyStringMap;
+
+/**
+ * Python namespace backed by the binding context.
+ * A context value is wrapped in a {@link PyObjectValue} only when Python looks up its name,
+ * so an evaluation allocates proxies just for the variables it reads.
+ * Iterating the namespace (e.g. globals().keys()) only shows the names that were already looked up.
+ */
+class LazyPythonNamespace extends PyStringMap {
+
+    private Map<String, Value> context = Collections.emptyMap();
+    private final List<PyObjectValue> materializedValues = new ArrayList<>();
+
+    void setContext(Map<String, Value> context) {
+        this.context = context;
+    }
+
+    /**
+     * @return the context values wrapped so far, which are the only ones Python could have accessed
+     */
+    List<PyObjectValue> getMaterializedValues() {
+        return materializedValues;
+    }
+
+    @Override
+    public PyObject __finditem__(String key) {
+        PyObject value = super.__finditem__(key);
+        if (value == null && key != null && context.containsKey(key)) {
+            PyObjectValue pyObjectValue = ValueFactory.createPyObjectValue(context.get(key));
+            materializedValues.add(pyObjectValue);
+            value = (PyObject) pyObjectValue;
+            super.__setitem__(key, value);
+        }
+        return value;
+    }
+
+    @Override
+    public void clear() {
+        super.clear();
+        context = Collections.emptyMap();
+        materializedValues.clear();
+    }
+}
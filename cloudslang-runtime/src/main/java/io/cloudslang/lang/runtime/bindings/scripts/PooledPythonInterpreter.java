@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
+import io.cloudslang.lang.entities.bindings.values.PyObjectValue;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.python.core.PyCode;
+import org.python.core.PyObject;
+import org.python.core.PyString;
+import org.python.core.PySystemState;
+import org.python.util.PythonInterpreter;
+
+import static io.cloudslang.lang.runtime.bindings.scripts.PythonInterpreterPool.FUNCTION_NAMES;
+import static io.cloudslang.lang.runtime.bindings.scripts.PythonInterpreterPool.SYSTEM_PROPERTIES_MAP;
+
+/**
+ * Python interpreter owned by {@link PythonInterpreterPool}.
+ * The helper functions are defined once, when the interpreter is created, and are bound
+ * into the namespace of an evaluation only if the expression depends on them.
+ */
+public class PooledPythonInterpreter {
+
+    private static final String TRUE = "true";
+    private static final String FALSE = "false";
+
+    private final LazyPythonNamespace namespace;
+    private final PythonInterpreter interpreter;
+    private final Map<ScriptFunction, PyObject> functions;
+
+    PooledPythonInterpreter(PyCode functionsCode) {
+        namespace = new LazyPythonNamespace();
+        interpreter = new PythonInterpreter(namespace, new PySystemState());
+        interpreter.exec(functionsCode);
+        functions = new EnumMap<>(ScriptFunction.class);
+        for (Map.Entry<ScriptFunction, String> functionName : FUNCTION_NAMES.entrySet()) {
+            functions.put(functionName.getKey(), namespace.__getitem__(new PyString(functionName.getValue())));
+        }
+        // the functions keep a reference to the namespace as their globals,
+        // so it is cleared between evaluations and never replaced
+        namespace.clear();
+    }
+
+    PyObject eval(PyCode expressionCode, Map<String, Value> context, Map<String, Value> systemProperties,
+                  Set<ScriptFunction> functionDependencies) {
+        prepare(context, systemProperties, functionDependencies);
+        return interpreter.eval(expressionCode);
+    }
+
+    /**
+     * Runs a program that evaluates several expressions, see {@link BindingSectionEvaluation}.
+     */
+    void exec(PyCode programCode) {
+        interpreter.exec(programCode);
+    }
+
+    /**
+     * Sets up the namespace for evaluating one expression.
+     */
+    void prepare(Map<String, Value> context, Map<String, Value> systemProperties,
+                 Set<ScriptFunction> functionDependencies) {
+        namespace.setContext(context);
+        if (systemProperties != null) {
+            interpreter.set(SYSTEM_PROPERTIES_MAP, systemProperties);
+        }
+        if (interpreter.get(TRUE) == null) {
+            interpreter.set(TRUE, Boolean.TRUE);
+        }
+        if (interpreter.get(FALSE) == null) {
+            interpreter.set(FALSE, Boolean.FALSE);
+        }
+        for (ScriptFunction function : functionDependencies) {
+            PyObject functionObject = functions.get(function);
+            if (functionObject == null) {
+                throw new RuntimeException("Error adding function to context: '" + function.getValue() +
+                        "' is not valid.");
+            }
+            namespace.__setitem__(FUNCTION_NAMES.get(function), functionObject);
+        }
+    }
+
+    void set(String name, PyObject value) {
+        namespace.__setitem__(name, value);
+    }
+
+    /**
+     * @return the context values wrapped for Python during the current evaluation
+     */
+    List<PyObjectValue> getMaterializedContextValues() {
+        return namespace.getMaterializedValues();
+    }
+
+    void reset() {
+        namespace.clear();
+    }
+
+    void close() {
+        namespace.clear();
+        interpreter.cleanup();
+    }
+}
@@ -0,0 +1,190 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.SlangSystemPropertyConstant;
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.apache.log4j.Logger;
+import org.python.core.CompileMode;
+import org.python.core.CompilerFlags;
+import org.python.core.Py;
+import org.python.core.PyCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Bounded pool of Python interpreters used for evaluating expressions.
+ * By default there is an interpreter for each worker execution thread. One interpreter per processor is created
+ * and warmed up at startup, the others when they are first needed. Evaluations only lease them.
+ */
+@Component
+public class PythonInterpreterPool {
+
+    private static final Logger logger = Logger.getLogger(PythonInterpreterPool.class);
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+    private static final String SCRIPT_FILE_NAME = "<string>";
+
+    static final String SYSTEM_PROPERTIES_MAP = "sys_prop";
+    static final String GET_FUNCTION_DEFINITION =
+            "def get(key, default_value=None):" + LINE_SEPARATOR +
+                    "  value = globals().get(key)" + LINE_SEPARATOR +
+                    "  return default_value if value is None else value";
+    static final String GET_SP_FUNCTION_DEFINITION =
+            "def get_sp(key, default_value=None):" + LINE_SEPARATOR +
+                    "  property_value = " + SYSTEM_PROPERTIES_MAP + ".get(key)" + LINE_SEPARATOR +
+                    "  return default_value if property_value is None else property_value";
+    static final String CHECK_EMPTY_FUNCTION_DEFINITION =
+            "def check_empty(value_to_check, default_value=None):" + LINE_SEPARATOR +
+                    "  return default_value if value_to_check is None else value_to_check";
+    static final Map<ScriptFunction, String> FUNCTION_NAMES;
+
+    private static final String WARM_UP_EXPRESSION = "check_empty(get('warm_up', get_sp('warm.up')), true)";
+    private static final long DEFAULT_BORROW_TIMEOUT_MILLIS = 60000;
+
+    static {
+        Map<ScriptFunction, String> functionNames = new EnumMap<>(ScriptFunction.class);
+        functionNames.put(ScriptFunction.GET, "get");
+        functionNames.put(ScriptFunction.GET_SYSTEM_PROPERTY, "get_sp");
+        functionNames.put(ScriptFunction.CHECK_EMPTY, "check_empty");
+        FUNCTION_NAMES = Collections.unmodifiableMap(functionNames);
+    }
+
+    // the execution threads of the Score worker, if the pool runs in a worker
+    @Autowired(required = false)
+    @Qualifier("numberOfExecutionThreads")
+    private Integer numberOfExecutionThreads;
+
+    private BlockingQueue<PooledPythonInterpreter> interpreters;
+    private PyCode functionsCode;
+    private int poolSize;
+    private int createdInterpreters;
+    private long borrowTimeoutMillis;
+
+    @PostConstruct
+    public void init() {
+        poolSize = getPoolSize();
+        borrowTimeoutMillis = getBorrowTimeoutMillis();
+        functionsCode = compile(GET_FUNCTION_DEFINITION + LINE_SEPARATOR + LINE_SEPARATOR +
+                GET_SP_FUNCTION_DEFINITION + LINE_SEPARATOR + LINE_SEPARATOR +
+                CHECK_EMPTY_FUNCTION_DEFINITION + LINE_SEPARATOR, CompileMode.exec);
+
+        interpreters = new ArrayBlockingQueue<>(poolSize);
+        int warmInterpreters = Math.min(poolSize, Runtime.getRuntime().availableProcessors());
+        createdInterpreters = warmInterpreters;
+        for (int i = 0; i < warmInterpreters; i++) {
+            interpreters.add(createInterpreter());
+        }
+        logger.debug("Created " + warmInterpreters + " of " + poolSize +
+                " Python interpreters for expression evaluation");
+    }
+
+    @PreDestroy
+    public void destroy() {
+        PooledPythonInterpreter interpreter = interpreters.poll();
+        while (interpreter != null) {
+            interpreter.close();
+            interpreter = interpreters.poll();
+        }
+    }
+
+    /**
+     * Leases an interpreter, waiting for one to be returned if all of them are in use.
+     */
+    public PooledPythonInterpreter borrowInterpreter() {
+        PooledPythonInterpreter interpreter = interpreters.poll();
+        if (interpreter != null) {
+            return interpreter;
+        }
+        if (reserveInterpreter()) {
+            return createReservedInterpreter();
+        }
+        try {
+            interpreter = interpreters.poll(borrowTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a Python interpreter", e);
+        }
+        if (interpreter == null) {
+            throw new RuntimeException("No Python interpreter became available within " + borrowTimeoutMillis +
+                    " ms, all " + poolSize + " interpreters are evaluating expressions. The pool size can be set " +
+                    "with the '" + SlangSystemPropertyConstant.CSLANG_PYTHON_INTERPRETER_POOL_SIZE.getValue() +
+                    "' system property");
+        }
+        return interpreter;
+    }
+
+    public void returnInterpreter(PooledPythonInterpreter interpreter) {
+        interpreter.reset();
+        interpreters.add(interpreter);
+    }
+
+    private synchronized boolean reserveInterpreter() {
+        if (createdInterpreters < poolSize) {
+            createdInterpreters++;
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void releaseReservation() {
+        createdInterpreters--;
+    }
+
+    private PooledPythonInterpreter createReservedInterpreter() {
+        try {
+            return createInterpreter();
+        } catch (RuntimeException e) {
+            releaseReservation();
+            throw e;
+        }
+    }
+
+    private PooledPythonInterpreter createInterpreter() {
+        PooledPythonInterpreter interpreter = new PooledPythonInterpreter(functionsCode);
+        Map<String, Value> warmUpContext = Collections.emptyMap();
+        interpreter.eval(compile(WARM_UP_EXPRESSION, CompileMode.eval), warmUpContext, warmUpContext,
+                EnumSet.allOf(ScriptFunction.class));
+        interpreter.reset();
+        return interpreter;
+    }
+
+    private PyCode compile(String script, CompileMode mode) {
+        return Py.compile_flags(script, SCRIPT_FILE_NAME, mode, new CompilerFlags());
+    }
+
+    private int getPoolSize() {
+        String poolSize = System.getProperty(
+                SlangSystemPropertyConstant.CSLANG_PYTHON_INTERPRETER_POOL_SIZE.getValue());
+        if (poolSize != null) {
+            return Integer.parseInt(poolSize);
+        }
+        return numberOfExecutionThreads == null ?
+                Runtime.getRuntime().availableProcessors() : numberOfExecutionThreads;
+    }
+
+    private long getBorrowTimeoutMillis() {
+        String timeout = System.getProperty(
+                SlangSystemPropertyConstant.CSLANG_PYTHON_INTERPRETER_POOL_TIMEOUT.getValue());
+        return timeout == null ? DEFAULT_BORROW_TIMEOUT_MILLIS : Long.parseLong(timeout);
+    }
+}
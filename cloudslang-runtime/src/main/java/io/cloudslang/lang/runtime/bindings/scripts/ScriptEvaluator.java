@@ -14,16 +14,21 @@ import io.cloudslang.lang.entities.bindings.ScriptFunction;
 import io.cloudslang.lang.entities.bindings.values.PyObjectValue;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
-import io.cloudslang.runtime.api.python.PythonEvaluationResult;
-import io.cloudslang.runtime.api.python.PythonRuntimeService;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.apache.commons.lang3.StringUtils;
 import org.python.core.Py;
+import org.python.core.PyBoolean;
+import org.python.core.PyException;
+import org.python.core.PyCode;
 import org.python.core.PyObject;
+import org.python.core.PyType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
@@ -34,75 +39,133 @@ import org.springframework.stereotype.Component;
  */
 @Component
 public class ScriptEvaluator extends ScriptProcessor {
-    private static String LINE_SEPARATOR = System.lineSeparator();
-    private static final String SYSTEM_PROPERTIES_MAP = "sys_prop";
-    private static final String GET_FUNCTION_DEFINITION =
-            "def get(key, default_value=None):" + LINE_SEPARATOR +
-                    "  value = globals().get(key)" + LINE_SEPARATOR +
-                    "  return default_value if value is None else value";
-    private static final String GET_SP_FUNCTION_DEFINITION =
-            "def get_sp(key, default_value=None):" + LINE_SEPARATOR +
-                    "  property_value = " + SYSTEM_PROPERTIES_MAP + ".get(key)" + LINE_SEPARATOR +
-                    "  return default_value if property_value is None else property_value";
-    private static final String CHECK_EMPTY_FUNCTION_DEFINITION =
-            "def check_empty(value_to_check, default_value=None):" + LINE_SEPARATOR +
-                    "  return default_value if value_to_check is None else value_to_check";
 
     @Autowired
-    private PythonRuntimeService pythonRuntimeService;
+    private CompiledExpressionCache compiledExpressionCache;
+
+    @Autowired
+    private PythonInterpreterPool pythonInterpreterPool;
 
     public Value evalExpr(String expr, Map<String, Value> context, Set<SystemProperty> systemProperties,
                           Set<ScriptFunction> functionDependencies) {
+        Value simpleExpressionValue = SimpleExpressionEvaluator.evalExpr(expr, context, functionDependencies);
+        if (simpleExpressionValue != null) {
+            return simpleExpressionValue;
+        }
         try {
-            Map<String, Serializable> pythonContext = createPythonContext(context);
-            boolean systemPropertiesDefined = functionDependencies.contains(ScriptFunction.GET_SYSTEM_PROPERTY);
-            if (systemPropertiesDefined) {
-                pythonContext.put(SYSTEM_PROPERTIES_MAP, (Serializable) prepareSystemProperties(systemProperties));
-            }
-            PythonEvaluationResult result = pythonRuntimeService.eval(
-                    buildAddFunctionsScript(functionDependencies), expr, pythonContext);
-            if (systemPropertiesDefined) {
-                pythonContext.remove(SYSTEM_PROPERTIES_MAP);
+            PyCode compiledExpression = compiledExpressionCache.getCompiledExpression(expr);
+            Map<String, Value> pythonSystemProperties = null;
+            if (functionDependencies.contains(ScriptFunction.GET_SYSTEM_PROPERTY)) {
+                pythonSystemProperties = prepareSystemProperties(systemProperties);
             }
+            return eval(compiledExpression, expr, context, pythonSystemProperties, functionDependencies);
+        } catch (Exception exception) {
+            throw getScriptError(expr, exception);
+        }
+    }
+
+    /**
+     * Evaluates the expressions of a binding section in order, binding each result before the next
+     * expression is evaluated. When the section has several expressions, they are evaluated by a single
+     * Python program, in one interpreter invocation.
+     */
+    public void evalSection(BindingSection section, Set<SystemProperty> systemProperties) {
+        PyCode program = getCompiledProgram(section);
+        if (program == null) {
+            evalSectionSequentially(section, systemProperties);
+            return;
+        }
+        PooledPythonInterpreter interpreter = pythonInterpreterPool.borrowInterpreter();
+        try {
+            new BindingSectionEvaluation(this, section, systemProperties, interpreter).run(program);
+        } finally {
+            pythonInterpreterPool.returnInterpreter(interpreter);
+        }
+    }
 
-            return ValueFactory.create(result.getEvalResult(),
-                    getSensitive(result.getResultContext(), systemPropertiesDefined));
+    private PyCode getCompiledProgram(BindingSection section) {
+        List<String> expressions = new ArrayList<>(section.size());
+        int count = 0;
+        for (int i = 0; i < section.size(); i++) {
+            String expr = section.getExpression(i);
+            expressions.add(expr);
+            if (expr != null) {
+                count++;
+            }
+        }
+        if (count < 2) {
+            return null;
+        }
+        try {
+            return compiledExpressionCache.getCompiledProgram(expressions);
         } catch (Exception exception) {
-            throw new RuntimeException("Error in running script expression: '" +
-                            expr + "',\n\tException is: " +
-                    handleExceptionSpecialCases(exception.getMessage()), exception);
+            // the error is reported for its binding, after the bindings before it are bound
+            return null;
         }
     }
 
-    private String buildAddFunctionsScript(Set<ScriptFunction> functionDependencies) {
-        String functions = "";
-        for (ScriptFunction function : functionDependencies) {
-            switch (function) {
-                case GET:
-                    functions += GET_FUNCTION_DEFINITION;
-                    functions = appendDelimiterBetweenFunctions(functions);
-                    break;
-                case GET_SYSTEM_PROPERTY:
-                    functions += GET_SP_FUNCTION_DEFINITION;
-                    functions = appendDelimiterBetweenFunctions(functions);
-                    break;
-                case CHECK_EMPTY:
-                    functions += CHECK_EMPTY_FUNCTION_DEFINITION;
-                    functions = appendDelimiterBetweenFunctions(functions);
-                    break;
-                default:
-                    throw new RuntimeException("Error adding function to context: '" + function.getValue() +
-                            "' is not valid.");
+    private void evalSectionSequentially(BindingSection section, Set<SystemProperty> systemProperties) {
+        for (int i = 0; i < section.size(); i++) {
+            String expr = section.getExpression(i);
+            Value value = null;
+            if (expr != null) {
+                try {
+                    value = evalExpr(expr, section.getScriptContext(i), systemProperties,
+                            section.getFunctionDependencies(i));
+                } catch (Throwable t) {
+                    throw section.getBindingError(i, t);
+                }
+            }
+            section.bind(i, value);
+        }
+    }
+
+    private Value eval(PyCode compiledExpression, String expr, Map<String, Value> context,
+                       Map<String, Value> pythonSystemProperties, Set<ScriptFunction> functionDependencies) {
+        PooledPythonInterpreter interpreter = pythonInterpreterPool.borrowInterpreter();
+        try {
+            PyObject evalResult = interpreter.eval(compiledExpression, context, pythonSystemProperties,
+                    functionDependencies);
+            Serializable result = resolveJythonObjectToJava(evalResult, expr);
+            return ValueFactory.create(result,
+                    getSensitive(interpreter.getMaterializedContextValues(), pythonSystemProperties));
+        } finally {
+            pythonInterpreterPool.returnInterpreter(interpreter);
+        }
+    }
+
+    Serializable resolveJythonObjectToJava(PyObject value, String expr) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof PyBoolean) {
+            return ((PyBoolean) value).getBooleanValue();
+        }
+        try {
+            return Py.tojava(value, Serializable.class);
+        } catch (PyException e) {
+            if (e.type instanceof PyType && "TypeError".equals(((PyType) e.type).getName())) {
+                throw new RuntimeException("Evaluation result for a Python expression should be serializable:\n" +
+                        "\tConversion failed for '" + expr + "' (" + value + ").\n", e);
             }
+            throw e;
         }
-        return functions;
     }
 
-    private String appendDelimiterBetweenFunctions(String text) {
-        return text + LINE_SEPARATOR + LINE_SEPARATOR;
+    RuntimeException getScriptError(String expr, Exception exception) {
+        return new RuntimeException("Error in running script expression: '" +
+                expr + "',\n\tException is: " +
+                handleExceptionSpecialCases(getExceptionMessage(exception)), exception);
     }
 
-    private Map<String, Value> prepareSystemProperties(Set<SystemProperty> properties) {
+    private String getExceptionMessage(Exception exception) {
+        if (exception instanceof PyException && ((PyException) exception).value != null) {
+            return ((PyException) exception).value.toString();
+        }
+        return exception.getMessage();
+    }
+
+    Map<String, Value> prepareSystemProperties(Set<SystemProperty> properties) {
         Map<String, Value> processedSystemProperties = new HashMap<>();
         for (SystemProperty property : properties) {
             processedSystemProperties.put(property.getFullyQualifiedName(),
@@ -120,22 +183,14 @@ public class ScriptEvaluator extends ScriptProcessor {
         return processedMessage;
     }
 
-    private boolean getSensitive(Map<String, Serializable> executionResultContext, boolean systemPropertiesInContext) {
-        if (systemPropertiesInContext) {
-            Map<String, Serializable> context = new HashMap<>(executionResultContext);
-            PyObject rawSystemProperties = (PyObject) context.remove(SYSTEM_PROPERTIES_MAP);
-            @SuppressWarnings("unchecked")
-            Map<String, Value> systemProperties = Py.tojava(rawSystemProperties, Map.class);
-            @SuppressWarnings("unchecked")
-            Collection<Serializable> systemPropertyValues = (Collection) systemProperties.values();
-            return checkSensitivity(systemPropertyValues) || checkSensitivity(context.values());
-        } else {
-            return (checkSensitivity(executionResultContext.values()));
-        }
+    boolean getSensitive(Collection<PyObjectValue> contextValues, Map<String, Value> systemProperties) {
+        Collection<Value> systemPropertyValues = systemProperties == null ?
+                Collections.<Value>emptyList() : systemProperties.values();
+        return checkSensitivity(systemPropertyValues) || checkSensitivity(contextValues);
     }
 
-    private boolean checkSensitivity(Collection<Serializable> values) {
-        for (Serializable value : values) {
+    private boolean checkSensitivity(Collection<? extends Value> values) {
+        for (Value value : values) {
             if (value != null && value instanceof PyObjectValue) {
                 PyObjectValue pyObjectValue = (PyObjectValue) value;
                 if (pyObjectValue.isSensitive() && pyObjectValue.isAccessed()) {
@@ -0,0 +1,208 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static io.cloudslang.lang.runtime.bindings.scripts.PythonInterpreterPool.FUNCTION_NAMES;
+import static io.cloudslang.lang.runtime.bindings.scripts.PythonInterpreterPool.SYSTEM_PROPERTIES_MAP;
+
+/**
+ * Evaluates the most common expression shapes without going through Python:
+ * a variable reference, a literal, get('name'[, literal]) and an equality comparison of two such operands.
+ * Any other expression, or an operand whose Python evaluation could differ from the Java one,
+ * is left for the Python interpreter.
+ */
+public final class SimpleExpressionEvaluator {
+
+    private static final String IDENTIFIER = "[A-Za-z_][A-Za-z0-9_]*";
+    // printable ASCII only, without the quote character and backslash
+    private static final String SINGLE_QUOTED_STRING = "'[\\x20-\\x26\\x28-\\x5B\\x5D-\\x7E]*'";
+    private static final String DOUBLE_QUOTED_STRING = "\"[\\x20\\x21\\x23-\\x5B\\x5D-\\x7E]*\"";
+    private static final String STRING = SINGLE_QUOTED_STRING + "|" + DOUBLE_QUOTED_STRING;
+    // leading zeros would make it an octal literal, more than nine digits may not fit an int
+    private static final String INTEGER = "-?(?:0|[1-9][0-9]{0,8})";
+    private static final String OPERAND = "(?:" + IDENTIFIER + "|" + STRING + "|" + INTEGER + ")";
+
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile(IDENTIFIER);
+    private static final Pattern STRING_PATTERN = Pattern.compile(STRING);
+    private static final Pattern INTEGER_PATTERN = Pattern.compile(INTEGER);
+    private static final Pattern OPERAND_PATTERN = Pattern.compile(OPERAND);
+    private static final Pattern COMPARISON_PATTERN =
+            Pattern.compile("(" + OPERAND + ")\\s*(==|!=)\\s*(" + OPERAND + ")");
+    private static final Pattern GET_PATTERN =
+            Pattern.compile("get\\(\\s*(" + STRING + ")\\s*(?:,\\s*(" + OPERAND + ")\\s*)?\\)");
+
+    private static final String TRUE = "true";
+    private static final String FALSE = "false";
+    private static final String PYTHON_TRUE = "True";
+    private static final String PYTHON_FALSE = "False";
+    private static final String PYTHON_NONE = "None";
+    private static final String EQUALS = "==";
+
+    private static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList(
+            "and", "as", "assert", "break", "class", "continue", "def", "del", "elif", "else", "except", "exec",
+            "finally", "for", "from", "global", "if", "import", "in", "is", "lambda", "not", "or", "pass",
+            "print", "raise", "return", "try", "while", "with", "yield"));
+
+    private SimpleExpressionEvaluator() {
+    }
+
+    /**
+     * @return the value of the expression or null if the expression should be evaluated by Python
+     */
+    public static Value evalExpr(String expr, Map<String, Value> context, Set<ScriptFunction> functionDependencies) {
+        if (OPERAND_PATTERN.matcher(expr).matches()) {
+            Operand operand = resolveOperand(expr, context, functionDependencies);
+            return operand == null ? null : operand.toValue();
+        }
+        Matcher comparisonMatcher = COMPARISON_PATTERN.matcher(expr);
+        if (comparisonMatcher.matches()) {
+            return evalComparison(comparisonMatcher, context, functionDependencies);
+        }
+        Matcher getMatcher = GET_PATTERN.matcher(expr);
+        if (getMatcher.matches() && functionDependencies.contains(ScriptFunction.GET)) {
+            return evalGet(getMatcher, context, functionDependencies);
+        }
+        return null;
+    }
+
+    private static Value evalComparison(Matcher comparisonMatcher, Map<String, Value> context,
+                                        Set<ScriptFunction> functionDependencies) {
+        Operand left = resolveOperand(comparisonMatcher.group(1), context, functionDependencies);
+        Operand right = resolveOperand(comparisonMatcher.group(3), context, functionDependencies);
+        if (left == null || right == null) {
+            return null;
+        }
+        Boolean equal = pythonEquals(left.content, right.content);
+        if (equal == null) {
+            return null;
+        }
+        boolean result = EQUALS.equals(comparisonMatcher.group(2)) ? equal : !equal;
+        return ValueFactory.create(result, left.sensitive || right.sensitive);
+    }
+
+    private static Value evalGet(Matcher getMatcher, Map<String, Value> context,
+                                 Set<ScriptFunction> functionDependencies) {
+        String key = parseString(getMatcher.group(1));
+        Operand defaultValue = getMatcher.group(2) == null ? new Operand(null, false) :
+                resolveOperand(getMatcher.group(2), context, functionDependencies);
+        if (defaultValue == null || isShadowed(key, functionDependencies) || key.startsWith("__")) {
+            return null;
+        }
+        Operand value;
+        if (context.containsKey(key)) {
+            value = resolveVariable(context.get(key));
+        } else if (TRUE.equals(key) || FALSE.equals(key)) {
+            value = new Operand(TRUE.equals(key), false);
+        } else {
+            value = new Operand(null, false);
+        }
+        if (value == null) {
+            return null;
+        }
+        // the variable is accessed even if its value is None, so its sensitivity is kept
+        return value.content == null ?
+                ValueFactory.create(defaultValue.content, defaultValue.sensitive || value.sensitive) :
+                value.toValue();
+    }
+
+    private static Operand resolveOperand(String operand, Map<String, Value> context,
+                                          Set<ScriptFunction> functionDependencies) {
+        if (STRING_PATTERN.matcher(operand).matches()) {
+            return new Operand(parseString(operand), false);
+        }
+        if (INTEGER_PATTERN.matcher(operand).matches()) {
+            return new Operand(Integer.valueOf(operand), false);
+        }
+        if (!IDENTIFIER_PATTERN.matcher(operand).matches() || KEYWORDS.contains(operand) ||
+                isShadowed(operand, functionDependencies)) {
+            return null;
+        }
+        if (context.containsKey(operand)) {
+            return PYTHON_NONE.equals(operand) ? null : resolveVariable(context.get(operand));
+        }
+        if (TRUE.equals(operand) || PYTHON_TRUE.equals(operand)) {
+            return new Operand(Boolean.TRUE, false);
+        }
+        if (FALSE.equals(operand) || PYTHON_FALSE.equals(operand)) {
+            return new Operand(Boolean.FALSE, false);
+        }
+        if (PYTHON_NONE.equals(operand)) {
+            return new Operand(null, false);
+        }
+        // undefined name, let Python raise the error
+        return null;
+    }
+
+    private static Operand resolveVariable(Value value) {
+        Serializable content = value == null ? null : value.get();
+        if (content == null || content instanceof String || content instanceof Integer ||
+                content instanceof Boolean) {
+            return new Operand(content, value != null && value.isSensitive());
+        }
+        // other types are converted by Python, e.g. Long to BigInteger
+        return null;
+    }
+
+    private static boolean isShadowed(String name, Set<ScriptFunction> functionDependencies) {
+        if (SYSTEM_PROPERTIES_MAP.equals(name) &&
+                functionDependencies.contains(ScriptFunction.GET_SYSTEM_PROPERTY)) {
+            return true;
+        }
+        for (ScriptFunction function : functionDependencies) {
+            if (name.equals(FUNCTION_NAMES.get(function))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Boolean pythonEquals(Serializable left, Serializable right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        if (left.getClass().equals(right.getClass())) {
+            return left.equals(right);
+        }
+        if (left instanceof String || right instanceof String) {
+            return false;
+        }
+        // Python booleans are integers
+        return null;
+    }
+
+    private static String parseString(String literal) {
+        return literal.substring(1, literal.length() - 1);
+    }
+
+    private static class Operand {
+        private final Serializable content;
+        private final boolean sensitive;
+
+        Operand(Serializable content, boolean sensitive) {
+            this.content = content;
+            this.sensitive = sensitive;
+        }
+
+        Value toValue() {
+            return ValueFactory.create(content, sensitive);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.SystemProperty;
+import io.cloudslang.lang.entities.bindings.values.SimpleValue;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.SerializationUtils;
+
+/**
+ * Copies the values handed to a parallel branch, so that branches running at the same time never change
+ * the same object. Sensitive values are encrypted and decrypted in place, and the content of a plain value may
+ * be a collection changed by an expression. Only a plain value holding a string, a number, a boolean or nothing
+ * cannot change, and is shared.
+ */
+final class BranchValues {
+
+    private static final Set<Class<?>> IMMUTABLE_CONTENT_TYPES = new HashSet<Class<?>>(Arrays.asList(
+            String.class, Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class,
+            Float.class, Double.class, BigInteger.class, BigDecimal.class));
+
+    private BranchValues() {
+    }
+
+    static boolean isShareable(Value value) {
+        return value == null || value.getClass() == SimpleValue.class &&
+                (value.get() == null || IMMUTABLE_CONTENT_TYPES.contains(value.get().getClass()));
+    }
+
+    static Value copy(Value value) {
+        return isShareable(value) ? value : SerializationUtils.clone(value);
+    }
+
+    static Map<String, Value> copy(Map<String, Value> values) {
+        Map<String, Value> copy = new HashMap<>(values);
+        for (Map.Entry<String, Value> entry : copy.entrySet()) {
+            if (!isShareable(entry.getValue())) {
+                entry.setValue(SerializationUtils.clone(entry.getValue()));
+            }
+        }
+        return copy;
+    }
+
+    /**
+     * @return the same set if all the values are shareable, a copy of the set and the properties otherwise
+     */
+    static Set<SystemProperty> copy(Set<SystemProperty> systemProperties) {
+        for (SystemProperty systemProperty : systemProperties) {
+            if (!isShareable(systemProperty.getValue())) {
+                return SerializationUtils.clone(new HashSet<>(systemProperties));
+            }
+        }
+        return systemProperties;
+    }
+}
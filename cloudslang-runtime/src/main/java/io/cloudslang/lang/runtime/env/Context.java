@@ -10,21 +10,66 @@
 package io.cloudslang.lang.runtime.env;
 
 import io.cloudslang.lang.entities.bindings.values.Value;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.SerializationUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
 public class Context implements Serializable {
 
-    private final Map<String, Value> variables;
+    private static final long serialVersionUID = 6380536287300200885L;
+
+    private Map<String, Value> variables;
     private final Map<String, Value> langVariables;
 
+    // names of the entries holding sensitive values, kept up to date on every change
+    private transient Set<String> sensitiveVariableNames;
+    private transient Set<String> sensitiveLangVariableNames;
+
     public Context(Map<String, Value> variables) {
+        this(new HashMap<>(variables), new HashMap<String, Value>());
+    }
+
+    private Context(Map<String, Value> variables, Map<String, Value> langVariables) {
         this.variables = variables;
-        langVariables = new HashMap<>();
+        this.langVariables = langVariables;
+        initSensitiveNames();
+    }
+
+    private Context(Map<String, Value> variables, Map<String, Value> langVariables,
+                    Set<String> sensitiveVariableNames, Set<String> sensitiveLangVariableNames) {
+        this.variables = variables;
+        this.langVariables = langVariables;
+        this.sensitiveVariableNames = new HashSet<>(sensitiveVariableNames);
+        this.sensitiveLangVariableNames = new HashSet<>(sensitiveLangVariableNames);
+    }
+
+    /**
+     * Creates the context of a parallel branch without copying the variables map.
+     * The variables become a snapshot shared by both contexts, and each context keeps its later changes to itself.
+     * The values that can change in place are copied for the branch, see {@link BranchValues},
+     * and so are the language variables.
+     *
+     * @return the branch context
+     */
+    public Context createBranchContext() {
+        OverlayMap<String, Value> snapshot = freezeVariables();
+        OverlayMap<String, Value> branchVariables = snapshot.thaw();
+        for (Map.Entry<String, Value> entry : snapshot.entrySet()) {
+            if (!BranchValues.isShareable(entry.getValue())) {
+                branchVariables.put(entry.getKey(), BranchValues.copy(entry.getValue()));
+            }
+        }
+        HashMap<String, Value> branchLangVariables = SerializationUtils.clone(new HashMap<>(langVariables));
+        return new Context(branchVariables, branchLangVariables, sensitiveVariableNames, sensitiveLangVariableNames);
     }
 
     public Value getVariable(String name) {
@@ -33,10 +78,14 @@ public class Context implements Serializable {
 
     public void putVariable(String name, Value value) {
         variables.put(name, value);
+        track(sensitiveVariableNames, name, value);
     }
 
     public void putVariables(Map<String, ? extends Value> newVariables) {
         variables.putAll(newVariables);
+        for (Map.Entry<String, ? extends Value> entry : newVariables.entrySet()) {
+            track(sensitiveVariableNames, entry.getKey(), entry.getValue());
+        }
     }
 
     public Map<String, Value> getImmutableViewOfLanguageVariables() {
@@ -49,16 +98,78 @@ public class Context implements Serializable {
 
     public void putLanguageVariable(String name, Value value) {
         langVariables.put(name, value);
+        track(sensitiveLangVariableNames, name, value);
     }
 
     public Map<String, Value> getImmutableViewOfVariables() {
         return Collections.unmodifiableMap(variables);
     }
 
+    /**
+     * Takes a read-only copy of the variables that later changes to this context do not affect.
+     * The copy shares its entries with the context, see {@link OverlayMap}, so a chain of snapshots costs
+     * the changes made between them rather than the size of the context.
+     *
+     * @return the snapshot of the variables
+     */
+    public Map<String, Value> snapshotVariables() {
+        return freezeVariables();
+    }
+
+    // freezes the variables as a snapshot, and continues with a writable map on top of it
+    private OverlayMap<String, Value> freezeVariables() {
+        OverlayMap<String, Value> snapshot = variables instanceof OverlayMap ?
+                (OverlayMap<String, Value>) variables : new OverlayMap<>(variables);
+        snapshot.freeze();
+        variables = snapshot.thaw();
+        return snapshot;
+    }
+
     public Value removeLanguageVariable(String key) {
+        sensitiveLangVariableNames.remove(key);
         return langVariables.remove(key);
     }
 
+    public boolean containsSensitiveData() {
+        return !sensitiveVariableNames.isEmpty() || !sensitiveLangVariableNames.isEmpty();
+    }
+
+    /**
+     * Adds the sensitive variables and language variables of this context to the given collection.
+     */
+    public void collectSensitiveValues(Collection<Value> sensitiveValues) {
+        for (String name : sensitiveVariableNames) {
+            sensitiveValues.add(variables.get(name));
+        }
+        for (String name : sensitiveLangVariableNames) {
+            sensitiveValues.add(langVariables.get(name));
+        }
+    }
+
+    private void initSensitiveNames() {
+        sensitiveVariableNames = new HashSet<>();
+        for (Map.Entry<String, Value> entry : variables.entrySet()) {
+            track(sensitiveVariableNames, entry.getKey(), entry.getValue());
+        }
+        sensitiveLangVariableNames = new HashSet<>();
+        for (Map.Entry<String, Value> entry : langVariables.entrySet()) {
+            track(sensitiveLangVariableNames, entry.getKey(), entry.getValue());
+        }
+    }
+
+    private static void track(Set<String> sensitiveNames, String name, Value value) {
+        if (value != null && value.isSensitive()) {
+            sensitiveNames.add(name);
+        } else {
+            sensitiveNames.remove(name);
+        }
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        initSensitiveNames();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
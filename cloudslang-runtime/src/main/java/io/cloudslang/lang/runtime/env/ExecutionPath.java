@@ -12,6 +12,7 @@ package io.cloudslang.lang.runtime.env;
 import java.io.Serializable;
 import java.util.ArrayDeque;
 import java.util.Deque;
+import java.util.Iterator;
 import org.apache.commons.lang3.StringUtils;
 
 import static org.apache.commons.lang3.StringUtils.join;
@@ -22,41 +23,89 @@ import static org.apache.commons.lang3.StringUtils.join;
  */
 public class ExecutionPath implements Serializable {
 
+    private static final long serialVersionUID = 4369019494776498175L;
+
     public static final String PATH_SEPARATOR = ".";
 
     private Deque<Integer> parentPositions;
     private int position;
 
+    // Rendered paths, kept up to date by down/up/forward; null until first needed (e.g. after deserialization)
+    private transient String parentPath;
+    private transient String currentPath;
+
     public ExecutionPath() {
         parentPositions = new ArrayDeque<>();
+        parentPath = "";
+    }
+
+    public ExecutionPath(ExecutionPath executionPath) {
+        parentPositions = new ArrayDeque<>(executionPath.parentPositions);
+        position = executionPath.position;
+        parentPath = executionPath.parentPath;
+        currentPath = executionPath.currentPath;
+    }
+
+    /**
+     * @param positions the parent positions from the top level down, followed by the current position
+     */
+    ExecutionPath(int[] positions) {
+        parentPositions = new ArrayDeque<>();
+        for (int i = 0; i < positions.length - 1; i++) {
+            parentPositions.push(positions[i]);
+        }
+        position = positions[positions.length - 1];
+    }
+
+    /**
+     * @return the parent positions from the top level down, followed by the current position
+     */
+    int[] getPositions() {
+        int[] positions = new int[parentPositions.size() + 1];
+        int index = 0;
+        for (Iterator<Integer> iterator = parentPositions.descendingIterator(); iterator.hasNext(); ) {
+            positions[index++] = iterator.next();
+        }
+        positions[index] = position;
+        return positions;
     }
 
     public void forward() {
         position++;
+        currentPath = null;
     }
 
     public void down() {
+        String newParentPath = getCurrentPath();
         parentPositions.push(position);
         position = 0;
+        parentPath = newParentPath;
+        currentPath = null;
     }
 
     public void up() {
         position = parentPositions.pop();
+        if (parentPath != null) {
+            int separatorIndex = parentPath.lastIndexOf(PATH_SEPARATOR);
+            currentPath = parentPath;
+            parentPath = separatorIndex < 0 ? "" : parentPath.substring(0, separatorIndex);
+        } else {
+            currentPath = null;
+        }
     }
 
     public String getParentPath() {
-        return join(parentPositions.descendingIterator(), PATH_SEPARATOR);
+        if (parentPath == null) {
+            parentPath = join(parentPositions.descendingIterator(), PATH_SEPARATOR);
+        }
+        return parentPath;
     }
 
     public String getCurrentPath() {
-        return getCurrentPath(position);
-    }
-
-    private String getCurrentPath(int position) {
-        String parents = getParentPath();
-        return StringUtils.isEmpty(parents) ? position + "" : parents + PATH_SEPARATOR + position;
+        if (currentPath == null) {
+            String parents = getParentPath();
+            currentPath = StringUtils.isEmpty(parents) ? position + "" : parents + PATH_SEPARATOR + position;
+        }
+        return currentPath;
     }
-
-
-
 }
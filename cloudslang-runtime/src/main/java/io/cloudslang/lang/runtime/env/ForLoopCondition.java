@@ -11,38 +11,128 @@ package io.cloudslang.lang.runtime.env;
 
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
+/**
+ * Iterates the evaluated loop collection as it was returned by the expression.
+ * Only a cursor moves between iterations; the items are wrapped as {@link Value}s when they are reached,
+ * and a comma separated string is scanned up to the next comma instead of being split up front.
+ */
 public class ForLoopCondition implements LoopCondition {
 
-    private final Iterable<? extends Serializable> iterable;
-    private int index = 0;
+    private static final long serialVersionUID = -2974335212434204529L;
+
+    private static final char SEPARATOR = ',';
+    // the fields of the conditions serialized before the items were kept by index
+    private static final String LEGACY_ITERABLE_FIELD = "iterable";
+    private static final String LEGACY_INDEX_FIELD = "index";
+
+    /**
+     * Either a random access list of items or a comma separated string.
+     */
+    private Serializable items;
+    private boolean sensitive;
+    /**
+     * Number of items for a list, end of the last non empty item for a string (-1 if there are no items).
+     */
+    private int end;
+    /**
+     * Index of the next item for a list, offset of the next item for a string.
+     */
+    private int cursor = 0;
 
     public ForLoopCondition(Iterable<? extends Serializable> iterable) {
-        this.iterable = iterable;
+        this(iterable, false);
+    }
+
+    public ForLoopCondition(Iterable<? extends Serializable> iterable, boolean sensitive) {
+        List<? extends Serializable> list = toRandomAccessList(iterable);
+        this.items = (Serializable) list;
+        this.sensitive = sensitive;
+        this.end = list.size();
+    }
+
+    public ForLoopCondition(String commaSeparatedItems, boolean sensitive) {
+        this.items = commaSeparatedItems;
+        this.sensitive = sensitive;
+        this.end = getEndOfItems(commaSeparatedItems);
+    }
+
+    private static List<? extends Serializable> toRandomAccessList(Iterable<? extends Serializable> iterable) {
+        if (iterable instanceof List && iterable instanceof RandomAccess && iterable instanceof Serializable) {
+            return (List<? extends Serializable>) iterable;
+        }
+        List<Serializable> items = new ArrayList<>();
+        for (Serializable item : iterable) {
+            items.add(item);
+        }
+        return items;
     }
 
-    private Iterator<? extends Serializable> loopToCurrentObject() {
-        Iterator<? extends Serializable> iterator = iterable.iterator();
-        for (int i = 0; i < index; i++) {
-            iterator.next();
+    /**
+     * Trailing empty items are dropped, the same way {@link String#split(String)} does.
+     */
+    private static int getEndOfItems(String commaSeparatedItems) {
+        if (commaSeparatedItems.indexOf(SEPARATOR) < 0) {
+            return commaSeparatedItems.length();
         }
-        return iterator;
+        int end = StringUtils.stripEnd(commaSeparatedItems, String.valueOf(SEPARATOR)).length();
+        return end == 0 ? -1 : end;
     }
 
     public Value next() {
-        Serializable serializable = loopToCurrentObject().next();
-        Value next = serializable instanceof Value ? (Value) serializable : ValueFactory.create(serializable);
-        index++;
-        return next;
+        Serializable item;
+        if (items instanceof String) {
+            item = nextString((String) items);
+        } else {
+            item = ((List<? extends Serializable>) items).get(cursor);
+            cursor++;
+        }
+        if (item instanceof Value && !sensitive) {
+            return (Value) item;
+        }
+        return ValueFactory.create(item, sensitive);
+    }
+
+    private String nextString(String commaSeparatedItems) {
+        int separatorIndex = commaSeparatedItems.indexOf(SEPARATOR, cursor);
+        if (separatorIndex < 0 || separatorIndex > end) {
+            separatorIndex = end;
+        }
+        String item = commaSeparatedItems.substring(cursor, separatorIndex);
+        cursor = separatorIndex + 1;
+        return item;
     }
 
     @Override
     public boolean hasMore() {
-        return loopToCurrentObject().hasNext();
+        return items instanceof String ? cursor <= end : cursor < end;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        if (fields.getObjectStreamClass().getField(LEGACY_ITERABLE_FIELD) != null) {
+            List<? extends Serializable> list =
+                    toRandomAccessList((Iterable<? extends Serializable>) fields.get(LEGACY_ITERABLE_FIELD, null));
+            items = (Serializable) list;
+            sensitive = false;
+            end = list.size();
+            cursor = fields.get(LEGACY_INDEX_FIELD, 0);
+        } else {
+            items = (Serializable) fields.get("items", null);
+            sensitive = fields.get("sensitive", false);
+            end = fields.get("end", 0);
+            cursor = fields.get("cursor", 0);
+        }
     }
 
     @Override
@@ -57,16 +147,18 @@ public class ForLoopCondition implements LoopCondition {
         ForLoopCondition that = (ForLoopCondition) o;
 
         return new EqualsBuilder()
-                .append(this.iterable, that.iterable)
-                .append(this.index, that.index)
+                .append(this.items, that.items)
+                .append(this.sensitive, that.sensitive)
+                .append(this.cursor, that.cursor)
                 .isEquals();
     }
 
     @Override
     public int hashCode() {
         return new HashCodeBuilder()
-                .append(iterable)
-                .append(index)
+                .append(items)
+                .append(sensitive)
+                .append(cursor)
                 .toHashCode();
     }
 }
@@ -0,0 +1,227 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map that reads through to a base map which it never changes, and keeps its own entries in layers.
+ * Lets several contexts share the same variables without copying them.
+ * <p>
+ * Only the top layer can be written to. Freezing the map makes it a read-only snapshot, and thawing the snapshot
+ * starts a new empty top layer on top of it, so the frozen layers below are shared by every map created from them.
+ * To keep reads short, a new layer is merged with the layers below it that are less than twice its size,
+ * so each layer is at least twice the size of the one above it and the number of layers grows with the logarithm
+ * of the number of changes. Once the layers hold half as many entries as the base, everything is copied into
+ * a new base. Both copies are paid for by the changes that filled the layers, so a chain of snapshots costs
+ * the changes made between them rather than the size of the map.
+ * <p>
+ * Removing entries is not supported. Serialized as a plain {@link HashMap}.
+ */
+class OverlayMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+    private final Map<K, V> base;
+    // the frozen layers below this one, null if this map reads straight through to the base
+    private final OverlayMap<K, V> parent;
+    private final Map<K, V> overlay;
+    private final int depth;
+    private int size;
+    private boolean frozen;
+
+    OverlayMap(Map<K, V> base) {
+        this(base, null, new HashMap<K, V>(), base.size());
+    }
+
+    private OverlayMap(Map<K, V> base, OverlayMap<K, V> parent, Map<K, V> overlay, int size) {
+        this.base = base;
+        this.parent = parent;
+        this.overlay = overlay;
+        this.depth = parent == null ? 1 : parent.depth + 1;
+        this.size = size;
+    }
+
+    /**
+     * Makes this map read-only, so it can be handed out as a snapshot.
+     */
+    void freeze() {
+        frozen = true;
+    }
+
+    boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Creates a writable map with the same entries as this frozen one.
+     * The layers of this map are shared, and the new changes go to a new layer on top of them.
+     *
+     * @return the writable map
+     */
+    OverlayMap<K, V> thaw() {
+        if (getOverlaySize() * 2 > base.size()) {
+            return new OverlayMap<K, V>(new HashMap<>(this));
+        }
+        OverlayMap<K, V> top = overlay.isEmpty() ? parent : this;
+        while (top != null && top.parent != null && top.parent.overlay.size() < top.overlay.size() * 2) {
+            Map<K, V> merged = new HashMap<>(top.parent.overlay);
+            merged.putAll(top.overlay);
+            top = new OverlayMap<>(base, top.parent.parent, merged, top.size);
+            top.freeze();
+        }
+        return new OverlayMap<>(base, top, new HashMap<K, V>(), size);
+    }
+
+    /**
+     * @return the number of layers a read may go through before the base
+     */
+    int getDepth() {
+        return depth;
+    }
+
+    private int getOverlaySize() {
+        int overlaySize = 0;
+        for (OverlayMap<K, V> layer = this; layer != null; layer = layer.parent) {
+            overlaySize += layer.overlay.size();
+        }
+        return overlaySize;
+    }
+
+    @Override
+    public V get(Object key) {
+        for (OverlayMap<K, V> layer = this; layer != null; layer = layer.parent) {
+            V value = layer.overlay.get(key);
+            if (value != null || layer.overlay.containsKey(key)) {
+                return value;
+            }
+        }
+        return base.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        for (OverlayMap<K, V> layer = this; layer != null; layer = layer.parent) {
+            if (layer.overlay.containsKey(key)) {
+                return true;
+            }
+        }
+        return base.containsKey(key);
+    }
+
+    @Override
+    public V put(K key, V value) {
+        if (frozen) {
+            throw new UnsupportedOperationException("Snapshot cannot be changed");
+        }
+        if (overlay.containsKey(key)) {
+            return overlay.put(key, value);
+        }
+        Map<K, V> below = parent == null ? base : parent;
+        V previous = below.get(key);
+        if (previous == null && !below.containsKey(key)) {
+            size++;
+        }
+        overlay.put(key, value);
+        return previous;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new OverlayIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    private Object writeReplace() {
+        return new HashMap<>(this);
+    }
+
+    /**
+     * Iterates the layers from the top down and then the base, skipping the keys found in a layer above.
+     */
+    private class OverlayIterator implements Iterator<Entry<K, V>> {
+
+        private OverlayMap<K, V> layer = OverlayMap.this;
+        private Iterator<Entry<K, V>> iterator = overlay.entrySet().iterator();
+        private Entry<K, V> next;
+
+        @Override
+        public boolean hasNext() {
+            if (next == null) {
+                next = findNext();
+            }
+            return next != null;
+        }
+
+        @Override
+        public Entry<K, V> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Entry<K, V> entry = next;
+            next = null;
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+
+        private Entry<K, V> findNext() {
+            while (true) {
+                while (iterator.hasNext()) {
+                    Entry<K, V> entry = iterator.next();
+                    if (layer == OverlayMap.this) {
+                        return frozen ? new SimpleImmutableEntry<>(entry) : entry;
+                    }
+                    if (!isInLayerAbove(entry.getKey())) {
+                        // the layers below and the base are shared with snapshots and other branches,
+                        // so they are not changed through the entry
+                        return new SimpleImmutableEntry<>(entry);
+                    }
+                }
+                if (layer == null) {
+                    return null;
+                }
+                layer = layer.parent;
+                iterator = layer == null ? base.entrySet().iterator() : layer.overlay.entrySet().iterator();
+            }
+        }
+
+        private boolean isInLayerAbove(K key) {
+            for (OverlayMap<K, V> above = OverlayMap.this; above != layer; above = above.parent) {
+                if (above.overlay.containsKey(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
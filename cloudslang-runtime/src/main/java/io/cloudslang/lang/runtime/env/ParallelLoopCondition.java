@@ -0,0 +1,88 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.Validate;
+
+/**
+ * Keeps track of a parallel loop that runs its branches in waves of at most max parallelism branches.
+ * Holds the items that were not started yet and the data of the branches that already finished.
+ */
+public class ParallelLoopCondition implements Serializable {
+
+    public static final String PARALLEL_LOOP_CONDITION_KEY = "parallelLoopCondition";
+
+    private final List<Value> splitData;
+    private final int maxParallelism;
+    private final Long addBranchesStepId;
+    private final boolean failFast;
+    private final List<Map<String, Serializable>> branchesContext;
+    private int index = 0;
+
+    public ParallelLoopCondition(List<Value> splitData, int maxParallelism, Long addBranchesStepId) {
+        this(splitData, maxParallelism, addBranchesStepId, false);
+    }
+
+    public ParallelLoopCondition(List<Value> splitData, int maxParallelism, Long addBranchesStepId,
+                                 boolean failFast) {
+        Validate.isTrue(maxParallelism > 0, "max parallelism should be positive");
+        Validate.notNull(addBranchesStepId, "add branches step id cannot be null");
+        this.splitData = new ArrayList<>(splitData);
+        this.maxParallelism = maxParallelism;
+        this.addBranchesStepId = addBranchesStepId;
+        this.failFast = failFast;
+        this.branchesContext = new ArrayList<>();
+    }
+
+    /**
+     * @return the items of the next wave of branches
+     */
+    public List<Value> nextBranches() {
+        int end = Math.min(index + maxParallelism, splitData.size());
+        List<Value> nextBranches = new ArrayList<>(splitData.subList(index, end));
+        index = end;
+        return nextBranches;
+    }
+
+    public boolean hasMore() {
+        return index < splitData.size();
+    }
+
+    /**
+     * Drops the items that were not started yet.
+     *
+     * @return the number of skipped items
+     */
+    public int skipRemaining() {
+        int skipped = splitData.size() - index;
+        index = splitData.size();
+        return skipped;
+    }
+
+    public boolean isFailFast() {
+        return failFast;
+    }
+
+    public Long getAddBranchesStepId() {
+        return addBranchesStepId;
+    }
+
+    /**
+     * @return the data of the finished branches, to be added to by each wave
+     */
+    public List<Map<String, Serializable>> getBranchesContext() {
+        return branchesContext;
+    }
+}
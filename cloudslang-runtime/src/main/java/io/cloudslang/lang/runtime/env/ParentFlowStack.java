@@ -10,6 +10,8 @@
 package io.cloudslang.lang.runtime.env;
 
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
 import java.util.Stack;
 
 /**
@@ -19,6 +21,8 @@ import java.util.Stack;
  */
 public class ParentFlowStack implements Serializable {
 
+    private static final long serialVersionUID = -6803565007209555801L;
+
     private Stack<ParentFlowData> stack = new Stack<>();
 
     public void pushParentFlowData(ParentFlowData newContext) {
@@ -32,6 +36,13 @@ public class ParentFlowStack implements Serializable {
         return stack.pop();
     }
 
+    /**
+     * @return a read-only view of the parent flows' data, from the bottom of the stack to the top
+     */
+    List<ParentFlowData> getParentFlowData() {
+        return Collections.unmodifiableList(stack);
+    }
+
     public boolean isEmpty() {
         return stack.isEmpty();
     }
@@ -21,7 +21,9 @@ public class ReturnValues implements Serializable {
     private final String result;
 
     public ReturnValues(Map<String, Value> outputs, String result) {
-        this.outputs = new HashMap<>(outputs);
+        // snapshots taken by Context.snapshotVariables() cannot change, no need to copy them
+        this.outputs = outputs instanceof OverlayMap && ((OverlayMap<?, ?>) outputs).isFrozen() ?
+                outputs : new HashMap<>(outputs);
         this.result = result;
     }
 
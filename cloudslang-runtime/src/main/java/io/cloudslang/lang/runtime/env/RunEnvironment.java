@@ -9,20 +9,23 @@
  *******************************************************************************/
 package io.cloudslang.lang.runtime.env;
 
-import com.google.common.base.Function;
-import com.google.common.collect.Collections2;
 import com.hp.oo.sdk.content.plugin.SerializableSessionObject;
+import io.cloudslang.lang.entities.EventVerbosity;
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.values.SensitiveValue;
 import io.cloudslang.lang.entities.bindings.values.Value;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamException;
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import org.apache.commons.lang3.SerializationUtils;
 import org.apache.commons.lang3.Validate;
 
 /**
@@ -32,6 +35,8 @@ import org.apache.commons.lang3.Validate;
  */
 public class RunEnvironment implements Serializable {
 
+    private static final long serialVersionUID = 219682738150731993L;
+
     // Call arguments for the current step
     private Map<String, Value> callArguments;
 
@@ -55,6 +60,15 @@ public class RunEnvironment implements Serializable {
     // This is data that should be shared between different actions with the ability to change the data
     private Map<String, SerializableSessionObject> serializableDataMap;
 
+    // The types of the language events someone listens to, null if all of them should be fired
+    private Set<String> enabledEventTypes;
+
+    private EventVerbosity eventVerbosity = EventVerbosity.FULL;
+
+    // Sensitive data tracked on every change, so the checks do not walk all the values
+    private transient Set<String> sensitiveCallArgumentNames;
+    private transient boolean sensitiveReturnValues;
+    private transient List<Value> sensitiveSystemPropertyValues;
 
     public RunEnvironment(Set<SystemProperty> systemProperties) {
         Validate.notNull(systemProperties, "system properties cannot be null");
@@ -64,6 +78,7 @@ public class RunEnvironment implements Serializable {
         executionPath = new ExecutionPath();
         serializableDataMap = new HashMap<>();
         this.systemProperties = systemProperties;
+        initSensitiveDataTracking();
     }
 
     public RunEnvironment() {
@@ -81,21 +96,32 @@ public class RunEnvironment implements Serializable {
     public Map<String, Value> removeCallArguments() {
         Map<String, Value> callArgumentsValues = callArguments;
         callArguments = new HashMap<>();
+        sensitiveCallArgumentNames.clear();
         return callArgumentsValues;
     }
 
     public void putCallArguments(Map<String, Value> callArguments) {
         this.callArguments.putAll(callArguments);
+        for (Map.Entry<String, Value> entry : callArguments.entrySet()) {
+            Value value = entry.getValue();
+            if (value != null && value.isSensitive()) {
+                sensitiveCallArgumentNames.add(entry.getKey());
+            } else {
+                sensitiveCallArgumentNames.remove(entry.getKey());
+            }
+        }
     }
 
     public ReturnValues removeReturnValues() {
         ReturnValues values = returnValues;
         returnValues = null;
+        sensitiveReturnValues = false;
         return values;
     }
 
     public void putReturnValues(ReturnValues returnValues) {
         this.returnValues = returnValues;
+        sensitiveReturnValues = returnValues != null && hasSensitiveValue(returnValues.getOutputs().values());
     }
 
     public Long removeNextStepPosition() {
@@ -112,6 +138,26 @@ public class RunEnvironment implements Serializable {
         return this.executionPath;
     }
 
+    void setExecutionPath(ExecutionPath executionPath) {
+        this.executionPath = executionPath;
+    }
+
+    Map<String, Value> getCallArguments() {
+        return callArguments;
+    }
+
+    ReturnValues getReturnValues() {
+        return returnValues;
+    }
+
+    Long getNextStepPosition() {
+        return nextStepPosition;
+    }
+
+    Set<String> getEnabledEventTypes() {
+        return enabledEventTypes;
+    }
+
     public Set<SystemProperty> getSystemProperties() {
         return systemProperties;
     }
@@ -120,108 +166,135 @@ public class RunEnvironment implements Serializable {
         return serializableDataMap;
     }
 
+    /**
+     * @param enabledEventTypes the types of the language events to fire, or null to fire all of them
+     */
+    public void setEnabledEventTypes(Set<String> enabledEventTypes) {
+        this.enabledEventTypes = enabledEventTypes == null ? null : new HashSet<>(enabledEventTypes);
+    }
+
+    public void setEventVerbosity(EventVerbosity eventVerbosity) {
+        Validate.notNull(eventVerbosity, "event verbosity cannot be null");
+        this.eventVerbosity = eventVerbosity;
+    }
+
+    public EventVerbosity getEventVerbosity() {
+        return eventVerbosity;
+    }
+
+    public boolean isEventEnabled(String eventType) {
+        return eventVerbosity.isEventEnabled(eventType) &&
+                (enabledEventTypes == null || enabledEventTypes.contains(eventType));
+    }
+
+    /**
+     * Creates the run environment of a parallel branch, with empty stacks.
+     * Copies the mutable state of this environment, and the values that can change in place,
+     * see {@link BranchValues}. The system properties are shared if none of their values can change.
+     *
+     * @return the branch run environment
+     */
+    public RunEnvironment createBranchEnvironment() {
+        RunEnvironment branchEnvironment = new RunEnvironment(BranchValues.copy(systemProperties));
+        branchEnvironment.callArguments.putAll(BranchValues.copy(callArguments));
+        branchEnvironment.sensitiveCallArgumentNames.addAll(sensitiveCallArgumentNames);
+        if (returnValues != null) {
+            branchEnvironment.returnValues = new ReturnValues(BranchValues.copy(returnValues.getOutputs()),
+                    returnValues.getResult());
+            branchEnvironment.sensitiveReturnValues = sensitiveReturnValues;
+        }
+        branchEnvironment.nextStepPosition = nextStepPosition;
+        branchEnvironment.executionPath = new ExecutionPath(executionPath);
+        branchEnvironment.serializableDataMap = SerializationUtils.clone(new HashMap<>(serializableDataMap));
+        branchEnvironment.enabledEventTypes = enabledEventTypes;
+        branchEnvironment.eventVerbosity = eventVerbosity;
+        return branchEnvironment;
+    }
+
     public void resetStacks() {
         contextStack = new ContextStack();
         parentFlowStack = new ParentFlowStack();
     }
 
     public boolean containsSensitiveData() {
-        return containsSensitiveCallArgument() ||
-                containsSensitiveReturnValues() ||
-                containsSensitiveSystemProperties() ||
-                containsSensitiveContexts();
-    }
-
-    private boolean containsSensitiveData(Collection<Value> data) {
-        if (data != null) {
-            for (Value value : data) {
-                if (value.isSensitive()) {
-                    return true;
-                }
+        if (!sensitiveCallArgumentNames.isEmpty() || sensitiveReturnValues ||
+                !sensitiveSystemPropertyValues.isEmpty()) {
+            return true;
+        }
+        for (Context context : contextStack.getContexts()) {
+            if (context.containsSensitiveData()) {
+                return true;
             }
         }
         return false;
     }
 
     public void decryptSensitiveData() {
-        for (Value value : prepareValuesForEncryptDecrypt()) {
-            if (value.isSensitive()) {
-                ((SensitiveValue) value).decrypt();
-            }
+        for (Value value : getSensitiveValues()) {
+            ((SensitiveValue) value).decrypt();
         }
     }
 
     public void encryptSensitiveData() {
-        for (Value value : prepareValuesForEncryptDecrypt()) {
-            if (value.isSensitive()) {
-                ((SensitiveValue) value).encrypt();
-            }
+        for (Value value : getSensitiveValues()) {
+            ((SensitiveValue) value).encrypt();
         }
     }
 
-    private boolean containsSensitiveCallArgument() {
-        return callArguments != null && containsSensitiveData(callArguments.values());
-    }
-
-    private boolean containsSensitiveReturnValues() {
-        return (returnValues != null) && (returnValues.getOutputs() != null) &&
-                containsSensitiveData(returnValues.getOutputs().values());
+    private List<Value> getSensitiveValues() {
+        List<Value> sensitiveValues = new ArrayList<>(sensitiveSystemPropertyValues);
+        for (String name : sensitiveCallArgumentNames) {
+            sensitiveValues.add(callArguments.get(name));
+        }
+        if (sensitiveReturnValues) {
+            for (Value value : returnValues.getOutputs().values()) {
+                if (value != null && value.isSensitive()) {
+                    sensitiveValues.add(value);
+                }
+            }
+        }
+        for (Context context : contextStack.getContexts()) {
+            context.collectSensitiveValues(sensitiveValues);
+        }
+        return sensitiveValues;
     }
 
-    private boolean containsSensitiveSystemProperties() {
-        return (systemProperties != null) &&
-                containsSensitiveData(Collections2.transform(systemProperties, new Function<SystemProperty, Value>() {
-                    @Override
-                    public Value apply(SystemProperty systemProperty) {
-                        return systemProperty.getValue();
-                    }
-                }));
+    private boolean hasSensitiveValue(Collection<Value> data) {
+        for (Value value : data) {
+            if (value != null && value.isSensitive()) {
+                return true;
+            }
+        }
+        return false;
     }
 
-    private boolean containsSensitiveContexts() {
-        boolean hasSensitive = false;
-        ContextStack tempStack = new ContextStack();
-        Context context;
-        while (!hasSensitive && (context = contextStack.popContext()) != null) {
-            hasSensitive = containsSensitiveData(context.getImmutableViewOfLanguageVariables().values());
-            hasSensitive = hasSensitive || containsSensitiveData(context.getImmutableViewOfVariables().values());
-            tempStack.pushContext(context);
+    private void initSensitiveDataTracking() {
+        sensitiveCallArgumentNames = new HashSet<>();
+        for (Map.Entry<String, Value> entry : callArguments.entrySet()) {
+            if (entry.getValue() != null && entry.getValue().isSensitive()) {
+                sensitiveCallArgumentNames.add(entry.getKey());
+            }
         }
-        while ((context = tempStack.popContext()) != null) {
-            contextStack.pushContext(context);
+        sensitiveReturnValues = returnValues != null && hasSensitiveValue(returnValues.getOutputs().values());
+        sensitiveSystemPropertyValues = new ArrayList<>();
+        for (SystemProperty systemProperty : systemProperties) {
+            Value value = systemProperty.getValue();
+            if (value != null && value.isSensitive()) {
+                sensitiveSystemPropertyValues.add(value);
+            }
         }
+    }
 
-        return hasSensitive;
+    private Object writeReplace() throws ObjectStreamException {
+        return RunEnvironmentCodec.isEnabled() ? RunEnvironmentCodec.toSerializedForm(this) : this;
     }
 
-    private List<Value> prepareValuesForEncryptDecrypt() {
-        List<Value> valuesToCheck = new LinkedList<>();
-        if (callArguments != null) {
-            valuesToCheck.addAll(callArguments.values());
-        }
-        if ((returnValues != null) && (returnValues.getOutputs() != null)) {
-            valuesToCheck.addAll(returnValues.getOutputs().values());
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (eventVerbosity == null) {
+            // written before the verbosity was added, when all the events were fired
+            eventVerbosity = EventVerbosity.FULL;
         }
-        if (systemProperties != null) {
-            valuesToCheck.addAll(Collections2.transform(systemProperties, new Function<SystemProperty, Value>() {
-                @Override
-                public Value apply(SystemProperty systemProperty) {
-                    return systemProperty.getValue();
-                }
-            }));
-        }
-        ContextStack tempStack = new ContextStack();
-        Context context;
-        while ((context = contextStack.popContext()) != null) {
-            valuesToCheck.addAll(context.getImmutableViewOfLanguageVariables().values());
-            valuesToCheck.addAll(context.getImmutableViewOfVariables().values());
-            tempStack.pushContext(context);
-        }
-        while ((context = tempStack.popContext()) != null) {
-            contextStack.pushContext(context);
-        }
-
-        return valuesToCheck;
+        initSensitiveDataTracking();
     }
-
 }
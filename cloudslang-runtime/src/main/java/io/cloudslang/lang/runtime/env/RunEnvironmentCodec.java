@@ -0,0 +1,311 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import com.hp.oo.sdk.content.plugin.SerializableSessionObject;
+import io.cloudslang.lang.entities.EventVerbosity;
+import io.cloudslang.lang.entities.SlangSystemPropertyConstant;
+import io.cloudslang.lang.entities.SystemProperty;
+import io.cloudslang.lang.entities.bindings.values.SensitiveStringValue;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueCodec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Versioned binary form of a {@link RunEnvironment}, an alternative to Java serialization.
+ * <p>
+ * Enabled by setting the system property {@code cslang.runenv.binary.serialization} to true. When enabled,
+ * a run environment that is Java serialized (e.g. by the engine, between steps) writes itself in this form.
+ * Values are written with {@link ValueCodec}, so values shared within the run environment stay shared.
+ */
+public final class RunEnvironmentCodec {
+
+    private static final int MAGIC = 0x43534C52;
+    private static final byte VERSION = 1;
+
+    private RunEnvironmentCodec() {
+    }
+
+    public static boolean isEnabled() {
+        return Boolean.parseBoolean(
+                System.getProperty(SlangSystemPropertyConstant.CSLANG_RUNENV_BINARY_SERIALIZATION.getValue()));
+    }
+
+    public static byte[] encode(RunEnvironment runEnvironment) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            new Encoder(out).write(runEnvironment);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize run environment", e);
+        }
+    }
+
+    public static RunEnvironment decode(byte[] data) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+            if (data.length < 5 || in.readInt() != MAGIC) {
+                throw new IOException("Not a serialized run environment");
+            }
+            byte version = in.readByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported run environment serialization version: " + version);
+            }
+            return new Decoder(in).read();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to deserialize run environment", e);
+        }
+    }
+
+    static Serializable toSerializedForm(RunEnvironment runEnvironment) {
+        return new SerializedRunEnvironment(encode(runEnvironment));
+    }
+
+    private static class Encoder {
+
+        private final DataOutputStream out;
+        private final ValueCodec.Writer values;
+
+        Encoder(DataOutputStream out) {
+            this.out = out;
+            this.values = new ValueCodec.Writer(out);
+        }
+
+        void write(RunEnvironment runEnvironment) throws IOException {
+            writeSystemProperties(runEnvironment.getSystemProperties());
+            writeValues(runEnvironment.getCallArguments());
+            writeReturnValues(runEnvironment.getReturnValues());
+            writeLong(runEnvironment.getNextStepPosition());
+            writeContextStack(runEnvironment.getStack());
+            writeParentFlowStack(runEnvironment.getParentFlowStack());
+            writeExecutionPath(runEnvironment.getExecutionPath());
+            writeSerializableDataMap(runEnvironment.getSerializableDataMap());
+            writeStrings(runEnvironment.getEnabledEventTypes());
+            values.writeString(runEnvironment.getEventVerbosity().name());
+        }
+
+        private void writeSystemProperties(Set<SystemProperty> systemProperties) throws IOException {
+            out.writeInt(systemProperties.size());
+            for (SystemProperty systemProperty : systemProperties) {
+                values.writeString(systemProperty.getNamespace());
+                values.writeString(systemProperty.getFullyQualifiedName());
+                values.writeValue(systemProperty.getValue());
+            }
+        }
+
+        private void writeValues(Map<String, Value> map) throws IOException {
+            out.writeInt(map.size());
+            for (Map.Entry<String, Value> entry : map.entrySet()) {
+                values.writeString(entry.getKey());
+                values.writeValue(entry.getValue());
+            }
+        }
+
+        private void writeReturnValues(ReturnValues returnValues) throws IOException {
+            out.writeBoolean(returnValues != null);
+            if (returnValues != null) {
+                writeValues(returnValues.getOutputs());
+                values.writeString(returnValues.getResult());
+            }
+        }
+
+        private void writeContextStack(ContextStack contextStack) throws IOException {
+            out.writeInt(contextStack.getContexts().size());
+            for (Context context : contextStack.getContexts()) {
+                writeValues(context.getImmutableViewOfVariables());
+                writeValues(context.getImmutableViewOfLanguageVariables());
+            }
+        }
+
+        private void writeParentFlowStack(ParentFlowStack parentFlowStack) throws IOException {
+            out.writeInt(parentFlowStack.getParentFlowData().size());
+            for (ParentFlowData parentFlowData : parentFlowStack.getParentFlowData()) {
+                writeLong(parentFlowData.getRunningExecutionPlanId());
+                writeLong(parentFlowData.getPosition());
+            }
+        }
+
+        private void writeExecutionPath(ExecutionPath executionPath) throws IOException {
+            int[] positions = executionPath.getPositions();
+            out.writeInt(positions.length);
+            for (int position : positions) {
+                out.writeInt(position);
+            }
+        }
+
+        private void writeSerializableDataMap(Map<String, SerializableSessionObject> dataMap) throws IOException {
+            out.writeInt(dataMap.size());
+            for (Map.Entry<String, SerializableSessionObject> entry : dataMap.entrySet()) {
+                values.writeString(entry.getKey());
+                values.writeContent(entry.getValue());
+            }
+        }
+
+        private void writeStrings(Set<String> strings) throws IOException {
+            out.writeInt(strings == null ? -1 : strings.size());
+            if (strings != null) {
+                for (String string : strings) {
+                    values.writeString(string);
+                }
+            }
+        }
+
+        private void writeLong(Long value) throws IOException {
+            out.writeBoolean(value != null);
+            if (value != null) {
+                out.writeLong(value);
+            }
+        }
+    }
+
+    private static class Decoder {
+
+        private final DataInputStream in;
+        private final ValueCodec.Reader values;
+
+        Decoder(DataInputStream in) {
+            this.in = in;
+            this.values = new ValueCodec.Reader(in);
+        }
+
+        RunEnvironment read() throws IOException {
+            RunEnvironment runEnvironment = new RunEnvironment(readSystemProperties());
+            runEnvironment.putCallArguments(readValues());
+            runEnvironment.putReturnValues(readReturnValues());
+            runEnvironment.putNextStepPosition(readLong());
+            readContextStack(runEnvironment.getStack());
+            readParentFlowStack(runEnvironment.getParentFlowStack());
+            runEnvironment.setExecutionPath(readExecutionPath());
+            runEnvironment.getSerializableDataMap().putAll(readSerializableDataMap());
+            runEnvironment.setEnabledEventTypes(readStrings());
+            runEnvironment.setEventVerbosity(EventVerbosity.valueOf(values.readString()));
+            return runEnvironment;
+        }
+
+        private Set<SystemProperty> readSystemProperties() throws IOException {
+            int size = in.readInt();
+            Set<SystemProperty> systemProperties = new HashSet<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                String namespace = values.readString();
+                String fullyQualifiedName = values.readString();
+                Value value = values.readValue();
+                String key = StringUtils.isEmpty(namespace) ?
+                        fullyQualifiedName : fullyQualifiedName.substring(namespace.length() + 1);
+                if (value instanceof SensitiveStringValue) {
+                    systemProperties.add(new SystemProperty(namespace, key, (SensitiveStringValue) value));
+                } else {
+                    systemProperties.add(new SystemProperty(namespace, key,
+                            value == null ? null : (String) value.get()));
+                }
+            }
+            return systemProperties;
+        }
+
+        private Map<String, Value> readValues() throws IOException {
+            int size = in.readInt();
+            Map<String, Value> map = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                String key = values.readString();
+                map.put(key, values.readValue());
+            }
+            return map;
+        }
+
+        private ReturnValues readReturnValues() throws IOException {
+            if (!in.readBoolean()) {
+                return null;
+            }
+            Map<String, Value> outputs = readValues();
+            return new ReturnValues(outputs, values.readString());
+        }
+
+        private void readContextStack(ContextStack contextStack) throws IOException {
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                Context context = new Context(readValues());
+                for (Map.Entry<String, Value> entry : readValues().entrySet()) {
+                    context.putLanguageVariable(entry.getKey(), entry.getValue());
+                }
+                contextStack.pushContext(context);
+            }
+        }
+
+        private void readParentFlowStack(ParentFlowStack parentFlowStack) throws IOException {
+            int size = in.readInt();
+            for (int i = 0; i < size; i++) {
+                Long runningExecutionPlanId = readLong();
+                parentFlowStack.pushParentFlowData(new ParentFlowData(runningExecutionPlanId, readLong()));
+            }
+        }
+
+        private ExecutionPath readExecutionPath() throws IOException {
+            int[] positions = new int[in.readInt()];
+            for (int i = 0; i < positions.length; i++) {
+                positions[i] = in.readInt();
+            }
+            return new ExecutionPath(positions);
+        }
+
+        private Map<String, SerializableSessionObject> readSerializableDataMap() throws IOException {
+            int size = in.readInt();
+            Map<String, SerializableSessionObject> dataMap = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                String key = values.readString();
+                dataMap.put(key, (SerializableSessionObject) values.readContent());
+            }
+            return dataMap;
+        }
+
+        private Set<String> readStrings() throws IOException {
+            int size = in.readInt();
+            if (size < 0) {
+                return null;
+            }
+            Set<String> strings = new HashSet<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                strings.add(values.readString());
+            }
+            return strings;
+        }
+
+        private Long readLong() throws IOException {
+            return in.readBoolean() ? in.readLong() : null;
+        }
+    }
+
+    private static class SerializedRunEnvironment implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        private final byte[] data;
+
+        SerializedRunEnvironment(byte[] data) {
+            this.data = data;
+        }
+
+        private Object readResolve() {
+            return decode(data);
+        }
+    }
+}
@@ -37,6 +37,9 @@ public abstract class AbstractExecutionData {
                                             String desc,
                                             LanguageEventData.StepType stepType,
                                             String stepName) {
+        if (!runEnv.isEventEnabled(ScoreLangConstants.EVENT_INPUT_START)) {
+            return;
+        }
         ArrayList<String> inputNames = new ArrayList<>();
         for (Input input : inputs) {
             inputNames.add(input.getName());
@@ -52,6 +55,9 @@ public abstract class AbstractExecutionData {
                                           String desc,
                                           LanguageEventData.StepType stepType,
                                           String stepName) {
+        if (!runEnv.isEventEnabled(ScoreLangConstants.EVENT_INPUT_END)) {
+            return;
+        }
         Map<String, Value> inputsForEvent = new LinkedHashMap<>();
         for (Input input : inputs) {
             String inputName = input.getName();
@@ -68,6 +74,9 @@ public abstract class AbstractExecutionData {
             ExecutionRuntimeServices executionRuntimeServices,
             String description,
             String stepName) {
+        if (!runEnv.isEventEnabled(ScoreLangConstants.EVENT_ARGUMENT_START)) {
+            return;
+        }
         ArrayList<String> argumentNames = new ArrayList<>();
         for (Argument argument : arguments) {
             argumentNames.add(argument.getName());
@@ -90,6 +99,9 @@ public abstract class AbstractExecutionData {
             ExecutionRuntimeServices executionRuntimeServices,
             String description,
             String stepName) {
+        if (!runEnv.isEventEnabled(ScoreLangConstants.EVENT_ARGUMENT_END)) {
+            return;
+        }
         Map<String, Value> argumentsForEvent = new LinkedHashMap<>();
         for (Argument argument : arguments) {
             String argumentName = argument.getName();
@@ -114,8 +126,10 @@ public abstract class AbstractExecutionData {
                                  LanguageEventData.StepType stepType,
                                  String stepName,
                                  Map.Entry<String, ? extends Serializable>... fields) {
-        fireEvent(runtimeServices, type, description,
-                runEnvironment.getExecutionPath().getCurrentPath(), stepType, stepName, fields);
+        if (runEnvironment.isEventEnabled(type)) {
+            fireEvent(runtimeServices, type, description,
+                    runEnvironment.getExecutionPath().getCurrentPath(), stepType, stepName, fields);
+        }
     }
 
     @SafeVarargs
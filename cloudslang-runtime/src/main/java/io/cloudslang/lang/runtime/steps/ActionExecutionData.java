@@ -70,17 +70,15 @@ public class ActionExecutionData extends AbstractExecutionData {
 
         Map<String, Value> returnValue = new HashMap<>();
         Map<String, Value> callArguments = runEnv.removeCallArguments();
-        Map<String, Value> callArgumentsDeepCopy = new HashMap<>();
-
-        for (Map.Entry<String, Value> entry : callArguments.entrySet()) {
-            callArgumentsDeepCopy.put(entry.getKey(), ValueFactory.create(entry.getValue()));
-        }
 
         Map<String, SerializableSessionObject> serializableSessionData = runEnv.getSerializableDataMap();
-        fireEvent(executionRuntimeServices, ScoreLangConstants.EVENT_ACTION_START, "Preparing to run action " +
-                        actionType,
-                runEnv.getExecutionPath().getParentPath(), LanguageEventData.StepType.ACTION, null,
-                Pair.of(LanguageEventData.CALL_ARGUMENTS, (Serializable) callArgumentsDeepCopy));
+        if (runEnv.isEventEnabled(ScoreLangConstants.EVENT_ACTION_START)) {
+            // the event gets a masked copy of the call arguments, taken before the action runs
+            fireEvent(executionRuntimeServices, ScoreLangConstants.EVENT_ACTION_START, "Preparing to run action " +
+                            actionType,
+                    runEnv.getExecutionPath().getParentPath(), LanguageEventData.StepType.ACTION, null,
+                    Pair.of(LanguageEventData.CALL_ARGUMENTS, (Serializable) callArguments));
+        }
         try {
             switch (actionType) {
                 case JAVA:
@@ -94,17 +92,21 @@ public class ActionExecutionData extends AbstractExecutionData {
                     break;
             }
         } catch (RuntimeException ex) {
-            fireEvent(executionRuntimeServices, ScoreLangConstants.EVENT_ACTION_ERROR, ex.getMessage(),
-                    runEnv.getExecutionPath().getParentPath(), LanguageEventData.StepType.ACTION, null,
-                    Pair.of(LanguageEventData.EXCEPTION, ex.getMessage()));
+            if (runEnv.isEventEnabled(ScoreLangConstants.EVENT_ACTION_ERROR)) {
+                fireEvent(executionRuntimeServices, ScoreLangConstants.EVENT_ACTION_ERROR, ex.getMessage(),
+                        runEnv.getExecutionPath().getParentPath(), LanguageEventData.StepType.ACTION, null,
+                        Pair.of(LanguageEventData.EXCEPTION, ex.getMessage()));
+            }
             logger.error(ex);
             throw (ex);
         }
 
         ReturnValues returnValues = new ReturnValues(returnValue, null);
         runEnv.putReturnValues(returnValues);
-        fireEvent(executionRuntimeServices, ScoreLangConstants.EVENT_ACTION_END, "Action performed",
-                runEnv.getExecutionPath().getParentPath(), LanguageEventData.StepType.ACTION, null);
+        if (runEnv.isEventEnabled(ScoreLangConstants.EVENT_ACTION_END)) {
+            fireEvent(executionRuntimeServices, ScoreLangConstants.EVENT_ACTION_END, "Action performed",
+                    runEnv.getExecutionPath().getParentPath(), LanguageEventData.StepType.ACTION, null);
+        }
 
         runEnv.putNextStepPosition(nextStepId);
     }
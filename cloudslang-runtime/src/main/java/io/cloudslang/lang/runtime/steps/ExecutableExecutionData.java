@@ -15,6 +15,7 @@ import io.cloudslang.lang.entities.ScoreLangConstants;
 import io.cloudslang.lang.entities.bindings.Input;
 import io.cloudslang.lang.entities.bindings.Output;
 import io.cloudslang.lang.entities.bindings.Result;
+import io.cloudslang.lang.entities.bindings.values.SensitiveValueCache;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.runtime.bindings.InputsBinding;
 import io.cloudslang.lang.runtime.bindings.OutputsBinding;
@@ -65,6 +66,7 @@ public class ExecutableExecutionData extends AbstractExecutionData {
                                 @Param(ScoreLangConstants.NODE_NAME_KEY) String nodeName,
                                 @Param(ScoreLangConstants.NEXT_STEP_ID_KEY) Long nextStepId,
                                 @Param(ScoreLangConstants.EXECUTABLE_TYPE) ExecutableType executableType) {
+        SensitiveValueCache.open();
         try {
             Map<String, Value> callArguments = runEnv.removeCallArguments();
 
@@ -99,6 +101,8 @@ public class ExecutableExecutionData extends AbstractExecutionData {
             logger.error("There was an error running the start executable execution step of: \'" + nodeName +
                     "\'.\n\tError is: " + e.getMessage());
             throw new RuntimeException("Error running: \'" + nodeName + "\'.\n\t " + e.getMessage(), e);
+        } finally {
+            SensitiveValueCache.close();
         }
     }
 
@@ -116,6 +120,7 @@ public class ExecutableExecutionData extends AbstractExecutionData {
                                  @Param(EXECUTION_RUNTIME_SERVICES) ExecutionRuntimeServices executionRuntimeServices,
                                  @Param(ScoreLangConstants.NODE_NAME_KEY) String nodeName,
                                  @Param(ScoreLangConstants.EXECUTABLE_TYPE) ExecutableType executableType) {
+        SensitiveValueCache.open();
         try {
             runEnv.getExecutionPath().up();
             Context operationContext = runEnv.getStack().popContext();
@@ -175,6 +180,8 @@ public class ExecutableExecutionData extends AbstractExecutionData {
             logger.error("There was an error running the finish executable execution step of: \'" + nodeName +
                     "\'.\n\tError is: " + e.getMessage());
             throw new RuntimeException("Error running: \'" + nodeName + "\'.\n\t" + e.getMessage(), e);
+        } finally {
+            SensitiveValueCache.close();
         }
     }
 
@@ -18,10 +18,12 @@ import io.cloudslang.lang.entities.ScoreLangConstants;
 import io.cloudslang.lang.entities.bindings.Output;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import io.cloudslang.lang.entities.utils.ExpressionUtils;
 import io.cloudslang.lang.runtime.RuntimeConstants;
 import io.cloudslang.lang.runtime.bindings.OutputsBinding;
 import io.cloudslang.lang.runtime.bindings.ParallelLoopBinding;
 import io.cloudslang.lang.runtime.env.Context;
+import io.cloudslang.lang.runtime.env.ParallelLoopCondition;
 import io.cloudslang.lang.runtime.env.ReturnValues;
 import io.cloudslang.lang.runtime.env.RunEnvironment;
 import io.cloudslang.lang.runtime.events.LanguageEventData;
@@ -30,7 +32,6 @@ import io.cloudslang.score.api.execution.ExecutionParametersConsts;
 import io.cloudslang.score.lang.ExecutionRuntimeServices;
 import io.cloudslang.score.lang.SystemContext;
 import org.apache.commons.collections4.MapUtils;
-import org.apache.commons.lang.SerializationUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
@@ -42,8 +43,10 @@ import org.springframework.stereotype.Component;
 import java.io.Serializable;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static io.cloudslang.score.api.execution.ExecutionParametersConsts.EXECUTION_RUNTIME_SERVICES;
 
@@ -76,36 +79,53 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
 
                             @Param(ScoreLangConstants.NEXT_STEP_ID_KEY) Long nextStepId,
                             @Param(ScoreLangConstants.BRANCH_BEGIN_STEP_ID_KEY) Long branchBeginStep,
-                            @Param(ScoreLangConstants.REF_ID) String refId) {
+                            @Param(ScoreLangConstants.REF_ID) String refId,
+                            @Param(ScoreLangConstants.MAX_PARALLELISM_KEY) Integer maxParallelism,
+                            @Param(ScoreLangConstants.ADD_BRANCHES_STEP_ID_KEY) Long addBranchesStepId,
+                            @Param(ScoreLangConstants.FAIL_FAST_KEY) Boolean failFast) {
 
         try {
             Context flowContext = runEnv.getStack().popContext();
 
-            List<Value> splitData = parallelLoopBinding
-                    .bindParallelLoopList(parallelLoopStatement, flowContext, runEnv.getSystemProperties(), nodeName);
+            // a throttled parallel loop comes back here from the join step for every wave after the first one
+            ParallelLoopCondition parallelLoopCondition = removeParallelLoopCondition(flowContext);
+            List<Value> branchesData;
+            if (parallelLoopCondition == null) {
+                List<Value> splitData = parallelLoopBinding.bindParallelLoopList(parallelLoopStatement,
+                        flowContext, runEnv.getSystemProperties(), nodeName);
 
-            fireEvent(executionRuntimeServices, ScoreLangConstants.EVENT_SPLIT_BRANCHES,
-                    "parallel loop expression bound", runEnv.getExecutionPath().getCurrentPath(),
-                    LanguageEventData.StepType.STEP, nodeName,
-                    Pair.of(LanguageEventData.BOUND_PARALLEL_LOOP_EXPRESSION, (Serializable) splitData));
+                fireEvent(executionRuntimeServices, runEnv, ScoreLangConstants.EVENT_SPLIT_BRANCHES,
+                        "parallel loop expression bound", LanguageEventData.StepType.STEP, nodeName,
+                        Pair.of(LanguageEventData.BOUND_PARALLEL_LOOP_EXPRESSION, (Serializable) splitData));
+
+                runEnv.getExecutionPath().down();
+
+                if (maxParallelism != null && splitData.size() > maxParallelism) {
+                    parallelLoopCondition = new ParallelLoopCondition(splitData, maxParallelism, addBranchesStepId,
+                            Boolean.TRUE.equals(failFast));
+                    branchesData = parallelLoopCondition.nextBranches();
+                } else {
+                    branchesData = splitData;
+                }
+            } else {
+                branchesData = parallelLoopCondition.nextBranches();
+            }
 
             runEnv.putNextStepPosition(nextStepId);
-            runEnv.getExecutionPath().down();
 
-            for (Value splitItem : splitData) {
+            for (Value splitItem : branchesData) {
 
                 // first fire event
-                fireEvent(executionRuntimeServices, ScoreLangConstants.EVENT_BRANCH_START,
-                        "parallel loop branch created", runEnv.getExecutionPath().getCurrentPath(),
-                        LanguageEventData.StepType.STEP, nodeName, Pair.of(ScoreLangConstants.REF_ID, refId),
+                fireEvent(executionRuntimeServices, runEnv, ScoreLangConstants.EVENT_BRANCH_START,
+                        "parallel loop branch created", LanguageEventData.StepType.STEP, nodeName,
+                        Pair.of(ScoreLangConstants.REF_ID, refId),
                         Pair.of(RuntimeConstants.SPLIT_ITEM_KEY, splitItem));
                 // take path down one level
                 runEnv.getExecutionPath().down();
 
-                RunEnvironment branchRuntimeEnvironment = (RunEnvironment) SerializationUtils.clone(runEnv);
-                branchRuntimeEnvironment.resetStacks();
+                RunEnvironment branchRuntimeEnvironment = runEnv.createBranchEnvironment();
 
-                Context branchContext = (Context) SerializationUtils.clone(flowContext);
+                Context branchContext = flowContext.createBranchContext();
                 if (parallelLoopStatement instanceof ListLoopStatement) {
                     branchContext.putVariable(((ListLoopStatement) parallelLoopStatement).getVarName(), splitItem);
                 } else if (parallelLoopStatement instanceof MapLoopStatement) {
@@ -130,6 +150,10 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
                 runEnv.getExecutionPath().forward();
             }
 
+            if (parallelLoopCondition != null) {
+                flowContext.putLanguageVariable(ParallelLoopCondition.PARALLEL_LOOP_CONDITION_KEY,
+                        ValueFactory.create(parallelLoopCondition));
+            }
             updateCallArgumentsAndPushContextToStack(runEnv, flowContext, new HashMap<String, Value>());
         } catch (RuntimeException e) {
             logger.error("There was an error running the add branches execution step of: \'" + nodeName +
@@ -146,11 +170,30 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
                                      Map<String, ResultNavigation> stepNavigationValues,
                              @Param(ScoreLangConstants.NODE_NAME_KEY) String nodeName) {
         try {
-            runEnv.getExecutionPath().up();
-            List<Map<String, Serializable>> branchesContext = Lists.newArrayList();
             Context flowContext = runEnv.getStack().popContext();
-
-            collectBranchesData(executionRuntimeServices, nodeName, branchesContext);
+            ParallelLoopCondition parallelLoopCondition = removeParallelLoopCondition(flowContext);
+            List<Map<String, Serializable>> branchesContext = parallelLoopCondition == null ?
+                    Lists.<Map<String, Serializable>>newArrayList() : parallelLoopCondition.getBranchesContext();
+
+            collectBranchesData(executionRuntimeServices, nodeName, branchesContext,
+                    getPublishedBranchKeys(stepPublishValues));
+
+            if (parallelLoopCondition != null && parallelLoopCondition.hasMore() &&
+                    parallelLoopCondition.isFailFast() &&
+                    ScoreLangConstants.FAILURE_RESULT.equals(getParallelLoopResult(branchesContext))) {
+                int skipped = parallelLoopCondition.skipRemaining();
+                logger.debug("A branch of: '" + nodeName + "' failed, skipping the remaining " + skipped +
+                        " branches");
+            }
+            if (parallelLoopCondition != null && parallelLoopCondition.hasMore()) {
+                // go back to the add branches step to start the next wave
+                flowContext.putLanguageVariable(ParallelLoopCondition.PARALLEL_LOOP_CONDITION_KEY,
+                        ValueFactory.create(parallelLoopCondition));
+                runEnv.getStack().pushContext(flowContext);
+                runEnv.putNextStepPosition(parallelLoopCondition.getAddBranchesStepId());
+                return;
+            }
+            runEnv.getExecutionPath().up();
 
             Map<String, Value> publishValues =
                     bindPublishValues(
@@ -178,6 +221,12 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
         }
     }
 
+    private ParallelLoopCondition removeParallelLoopCondition(Context flowContext) {
+        Value parallelLoopConditionValue =
+                flowContext.removeLanguageVariable(ParallelLoopCondition.PARALLEL_LOOP_CONDITION_KEY);
+        return parallelLoopConditionValue == null ? null : (ParallelLoopCondition) parallelLoopConditionValue.get();
+    }
+
     private void handleNavigationAndReturnValues(
             RunEnvironment runEnv,
             ExecutionRuntimeServices executionRuntimeServices,
@@ -250,10 +299,34 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
         );
     }
 
+    /**
+     * @return the branch variables read by the publish values, or null if all of them may be read
+     */
+    private Set<String> getPublishedBranchKeys(List<Output> stepPublishValues) {
+        Set<String> keys = new HashSet<>();
+        if (stepPublishValues == null) {
+            return keys;
+        }
+        for (Output output : stepPublishValues) {
+            Serializable value = output.getValue() == null ? null : output.getValue().get();
+            String expression = ExpressionUtils.extractExpression(value);
+            if (expression != null) {
+                Set<String> expressionKeys =
+                        ExpressionUtils.extractListOfMapsKeys(expression, RuntimeConstants.BRANCHES_CONTEXT_KEY);
+                if (expressionKeys == null) {
+                    return null;
+                }
+                keys.addAll(expressionKeys);
+            }
+        }
+        return keys;
+    }
+
     private void collectBranchesData(
             ExecutionRuntimeServices executionRuntimeServices,
             String nodeName,
-            List<Map<String, Serializable>> branchesContext) {
+            List<Map<String, Serializable>> branchesContext,
+            Set<String> publishedBranchKeys) {
 
         List<EndBranchDataContainer> branches = executionRuntimeServices.getFinishedChildBranchesData();
         for (EndBranchDataContainer branch : branches) {
@@ -261,8 +334,10 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
 
             Map<String, Serializable> branchContext = branch.getContexts();
             RunEnvironment branchRuntimeEnvironment = (RunEnvironment) branchContext.get(ScoreLangConstants.RUN_ENV);
-            Map<String, Serializable> branchContextMap =
-                    convert(branchRuntimeEnvironment.getStack().popContext().getImmutableViewOfVariables());
+            // keep only what the publish values read, instead of the whole branch context
+            Map<String, Serializable> branchContextMap = convert(
+                    branchRuntimeEnvironment.getStack().popContext().getImmutableViewOfVariables(),
+                    publishedBranchKeys);
             ReturnValues executableReturnValues = branchRuntimeEnvironment.removeReturnValues();
             String branchResult = executableReturnValues.getResult();
             branchContextMap.put(ScoreLangConstants.BRANCH_RESULT_KEY, branchResult);
@@ -302,10 +377,20 @@ public class ParallelLoopExecutionData extends AbstractExecutionData {
         executionRuntimeServices.addBranch(branchBeginStep, refId, branchContext);
     }
 
-    private Map<String, Serializable> convert(Map<String, Value> map) {
-        Map<String, Serializable> result = new HashMap<>(map.size());
-        for (Map.Entry<String, Value> entry : map.entrySet()) {
-            result.put(entry.getKey(), entry.getValue() == null ? null : entry.getValue().get());
+    private Map<String, Serializable> convert(Map<String, Value> map, Set<String> keys) {
+        if (keys == null) {
+            Map<String, Serializable> result = new HashMap<>(map.size());
+            for (Map.Entry<String, Value> entry : map.entrySet()) {
+                result.put(entry.getKey(), entry.getValue() == null ? null : entry.getValue().get());
+            }
+            return result;
+        }
+        Map<String, Serializable> result = new HashMap<>(keys.size() + 1);
+        for (String key : keys) {
+            if (map.containsKey(key)) {
+                Value value = map.get(key);
+                result.put(key, value == null ? null : value.get());
+            }
         }
         return result;
     }
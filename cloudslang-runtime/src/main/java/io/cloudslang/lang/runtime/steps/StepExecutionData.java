@@ -17,6 +17,7 @@ import io.cloudslang.lang.entities.ResultNavigation;
 import io.cloudslang.lang.entities.ScoreLangConstants;
 import io.cloudslang.lang.entities.bindings.Argument;
 import io.cloudslang.lang.entities.bindings.Output;
+import io.cloudslang.lang.entities.bindings.values.SensitiveValueCache;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
 import io.cloudslang.lang.runtime.bindings.ArgumentsBinding;
@@ -73,6 +74,7 @@ public class StepExecutionData extends AbstractExecutionData {
 
                           @Param(ScoreLangConstants.NEXT_STEP_ID_KEY) Long nextStepId,
                           @Param(ScoreLangConstants.REF_ID) String refId) {
+        SensitiveValueCache.open();
         try {
 
             fireEvent(executionRuntimeServices, runEnv, ScoreLangConstants.EVENT_STEP_START,
@@ -148,6 +150,8 @@ public class StepExecutionData extends AbstractExecutionData {
             logger.error("There was an error running the beginStep execution step of: \'" + nodeName +
                     "\'. Error is: " + e.getMessage());
             throw new RuntimeException("Error running: " + nodeName + ": " + e.getMessage(), e);
+        } finally {
+            SensitiveValueCache.close();
         }
     }
 
@@ -166,6 +170,7 @@ public class StepExecutionData extends AbstractExecutionData {
                         @Param(ScoreLangConstants.NODE_NAME_KEY) String nodeName,
                         @Param(ScoreLangConstants.PARALLEL_LOOP_KEY) boolean parallelLoop) {
 
+        SensitiveValueCache.open();
         try {
             Context flowContext = runEnv.getStack().popContext();
 
@@ -236,10 +241,7 @@ public class StepExecutionData extends AbstractExecutionData {
 
             runEnv.putNextStepPosition(nextPosition);
 
-            Map<String, Value> flowVariables = flowContext.getImmutableViewOfVariables();
-            HashMap<String, Value> outputs = new HashMap<>(flowVariables);
-
-            ReturnValues returnValues = new ReturnValues(outputs,
+            ReturnValues returnValues = new ReturnValues(flowContext.snapshotVariables(),
                     presetResult != null ? presetResult : executableResult);
             runEnv.putReturnValues(returnValues);
             throwEventOutputEnd(runEnv, executionRuntimeServices, nodeName, publishValues, nextPosition, returnValues);
@@ -250,6 +252,8 @@ public class StepExecutionData extends AbstractExecutionData {
             logger.error("There was an error running the endStep execution step of: \'" + nodeName +
                     "\'. Error is: " + e.getMessage());
             throw new RuntimeException("Error running: \'" + nodeName + "\': " + e.getMessage(), e);
+        } finally {
+            SensitiveValueCache.close();
         }
     }
 
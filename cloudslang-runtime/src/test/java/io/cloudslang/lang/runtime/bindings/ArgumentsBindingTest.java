@@ -18,6 +18,8 @@ import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Argument;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import io.cloudslang.lang.runtime.bindings.scripts.CompiledExpressionCache;
+import io.cloudslang.lang.runtime.bindings.scripts.PythonInterpreterPool;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import io.cloudslang.runtime.api.python.PythonRuntimeService;
 import io.cloudslang.runtime.impl.python.PythonExecutionCachedEngine;
@@ -354,6 +356,16 @@ public class ArgumentsBindingTest {
             return new ScriptEvaluator();
         }
 
+        @Bean
+        public CompiledExpressionCache compiledExpressionCache() {
+            return new CompiledExpressionCache();
+        }
+
+        @Bean
+        public PythonInterpreterPool pythonInterpreterPool() {
+            return new PythonInterpreterPool();
+        }
+
         @Bean
         public DependencyService mavenRepositoryService() {
             return new DependencyServiceImpl();
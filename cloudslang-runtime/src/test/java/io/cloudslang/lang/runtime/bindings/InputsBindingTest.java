@@ -17,6 +17,8 @@ import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Input;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import io.cloudslang.lang.runtime.bindings.scripts.CompiledExpressionCache;
+import io.cloudslang.lang.runtime.bindings.scripts.PythonInterpreterPool;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import io.cloudslang.runtime.api.python.PythonRuntimeService;
 import io.cloudslang.runtime.impl.python.PythonExecutionCachedEngine;
@@ -26,6 +28,7 @@ import io.cloudslang.runtime.impl.python.PythonRuntimeServiceImpl;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -448,6 +451,38 @@ public class InputsBindingTest {
         Assert.assertEquals("orig context should not change", 1, context.size());
     }
 
+    @Test
+    public void testExpressionWithVariableDependencies() {
+        Map<String, Value> context = new HashMap<>();
+        context.put("varX", ValueFactory.create("5"));
+        context.put("varY", ValueFactory.create("6"));
+
+        Input input1 = new Input.InputBuilder("input1", "5").build();
+        Input input2 = new Input.InputBuilder("input2", "${ input1 + varX }")
+                .withVariableDependencies(new HashSet<>(Arrays.asList("input1", "varX")))
+                .build();
+        List<Input> inputs = Arrays.asList(input1, input2);
+
+        Map<String, Value> result = bindInputs(inputs, context);
+        Assert.assertEquals("55", result.get("input2").get());
+        Assert.assertEquals("orig context should not change", 2, context.size());
+    }
+
+    @Test
+    public void testExpressionSeesOnlyVariableDependencies() {
+        Map<String, Value> context = new HashMap<>();
+        context.put("varX", ValueFactory.create("5"));
+
+        Input input1 = new Input.InputBuilder("input1", "${ varX }")
+                .withVariableDependencies(Collections.<String>emptySet())
+                .build();
+        List<Input> inputs = Collections.singletonList(input1);
+
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("varX");
+        bindInputs(inputs, context);
+    }
+
     private Map<String, Value> bindInputs(List<Input> inputs, Map<String, Value> context,
                                           Set<SystemProperty> systemProperties) {
         return inputsBinding.bindInputs(inputs, context, systemProperties);
@@ -474,6 +509,16 @@ public class InputsBindingTest {
             return new ScriptEvaluator();
         }
 
+        @Bean
+        public CompiledExpressionCache compiledExpressionCache() {
+            return new CompiledExpressionCache();
+        }
+
+        @Bean
+        public PythonInterpreterPool pythonInterpreterPool() {
+            return new PythonInterpreterPool();
+        }
+
         @Bean
         public DependencyService mavenRepositoryService() {
             return new DependencyServiceImpl();
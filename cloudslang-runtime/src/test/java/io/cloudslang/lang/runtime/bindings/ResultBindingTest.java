@@ -19,6 +19,8 @@ import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Result;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import io.cloudslang.lang.runtime.bindings.scripts.CompiledExpressionCache;
+import io.cloudslang.lang.runtime.bindings.scripts.PythonInterpreterPool;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import io.cloudslang.runtime.api.python.PythonRuntimeService;
 import io.cloudslang.runtime.impl.python.PythonExecutionCachedEngine;
@@ -208,6 +210,16 @@ public class ResultBindingTest {
             return new ScriptEvaluator();
         }
 
+        @Bean
+        public CompiledExpressionCache compiledExpressionCache() {
+            return new CompiledExpressionCache();
+        }
+
+        @Bean
+        public PythonInterpreterPool pythonInterpreterPool() {
+            return new PythonInterpreterPool();
+        }
+
         @Bean
         public DependencyService mavenRepositoryService() {
             return new DependencyServiceImpl();
@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.bindings.values.PyObjectValue;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import junit.framework.Assert;
+import org.junit.Test;
+import org.python.core.Py;
+import org.python.core.PyObject;
+
+public class LazyPythonNamespaceTest {
+
+    @Test
+    public void testOnlyReadValuesAreWrapped() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create("value1"));
+        context.put("input2", ValueFactory.create("value2"));
+        LazyPythonNamespace namespace = new LazyPythonNamespace();
+        namespace.setContext(context);
+
+        PyObject value = namespace.__finditem__("input1");
+
+        Assert.assertTrue(value instanceof PyObjectValue);
+        Assert.assertEquals("value1", ((PyObjectValue) value).get());
+        Assert.assertSame(value, namespace.__finditem__("input1"));
+        Assert.assertNull(namespace.__finditem__("missing"));
+        Assert.assertEquals(1, namespace.getMaterializedValues().size());
+    }
+
+    @Test
+    public void testNamespaceEntryHidesContextValue() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("true", ValueFactory.create("value1"));
+        LazyPythonNamespace namespace = new LazyPythonNamespace();
+        namespace.__setitem__("true", Py.True);
+        namespace.setContext(context);
+
+        Assert.assertEquals(Py.True, namespace.__finditem__("true"));
+        Assert.assertTrue(namespace.getMaterializedValues().isEmpty());
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create("value1"));
+        LazyPythonNamespace namespace = new LazyPythonNamespace();
+        namespace.setContext(context);
+        namespace.__finditem__("input1");
+
+        namespace.clear();
+
+        Assert.assertNull(namespace.__finditem__("input1"));
+        Assert.assertTrue(namespace.getMaterializedValues().isEmpty());
+    }
+}
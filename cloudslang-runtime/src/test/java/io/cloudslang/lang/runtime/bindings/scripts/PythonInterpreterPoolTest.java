@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.SlangSystemPropertyConstant;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class PythonInterpreterPoolTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    private PythonInterpreterPool pool;
+
+    @Before
+    public void setUp() {
+        System.setProperty(SlangSystemPropertyConstant.CSLANG_PYTHON_INTERPRETER_POOL_SIZE.getValue(), "2");
+        System.setProperty(SlangSystemPropertyConstant.CSLANG_PYTHON_INTERPRETER_POOL_TIMEOUT.getValue(), "10");
+        pool = new PythonInterpreterPool();
+        pool.init();
+    }
+
+    @After
+    public void tearDown() {
+        pool.destroy();
+        System.clearProperty(SlangSystemPropertyConstant.CSLANG_PYTHON_INTERPRETER_POOL_SIZE.getValue());
+        System.clearProperty(SlangSystemPropertyConstant.CSLANG_PYTHON_INTERPRETER_POOL_TIMEOUT.getValue());
+    }
+
+    @Test
+    public void testInterpretersAreCreatedUpToThePoolSize() {
+        PooledPythonInterpreter first = pool.borrowInterpreter();
+        PooledPythonInterpreter second = pool.borrowInterpreter();
+
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNotSame(first, second);
+    }
+
+    @Test
+    public void testReturnedInterpreterIsReused() {
+        PooledPythonInterpreter first = pool.borrowInterpreter();
+        PooledPythonInterpreter second = pool.borrowInterpreter();
+        pool.returnInterpreter(second);
+
+        assertSame(second, pool.borrowInterpreter());
+        pool.returnInterpreter(first);
+    }
+
+    @Test
+    public void testBorrowFailsWhenAllInterpretersAreInUse() {
+        pool.borrowInterpreter();
+        pool.borrowInterpreter();
+
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("all 2 interpreters are evaluating expressions");
+        exception.expectMessage(SlangSystemPropertyConstant.CSLANG_PYTHON_INTERPRETER_POOL_SIZE.getValue());
+        pool.borrowInterpreter();
+    }
+}
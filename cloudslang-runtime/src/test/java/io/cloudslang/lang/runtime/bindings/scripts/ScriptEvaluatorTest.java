@@ -9,70 +9,40 @@
  *******************************************************************************/
 package io.cloudslang.lang.runtime.bindings.scripts;
 
-import io.cloudslang.dependency.api.services.DependencyService;
-import io.cloudslang.dependency.api.services.MavenConfig;
-import io.cloudslang.dependency.impl.services.DependencyServiceImpl;
-import io.cloudslang.dependency.impl.services.MavenConfigImpl;
+import configuration.SlangEntitiesSpringConfig;
 import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.ScriptFunction;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
-import io.cloudslang.runtime.api.python.PythonEvaluationResult;
-import io.cloudslang.runtime.api.python.PythonRuntimeService;
-import io.cloudslang.runtime.impl.python.PythonExecutionCachedEngine;
-import io.cloudslang.runtime.impl.python.PythonExecutionEngine;
-import io.cloudslang.runtime.impl.python.PythonExecutor;
-
-import java.io.Serializable;
-import java.util.Collections;
+import io.cloudslang.lang.entities.encryption.EncryptionProvider;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import junit.framework.Assert;
+import org.junit.AfterClass;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 import org.junit.runner.RunWith;
-import org.mockito.ArgumentCaptor;
-import org.python.core.PyDictionary;
-import org.python.google.common.collect.Sets;
-import org.python.util.PythonInterpreter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
-import static org.mockito.Matchers.anyMap;
-import static org.mockito.Matchers.isA;
-import static org.mockito.Mockito.anyString;
-import static org.mockito.Mockito.eq;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.reset;
-import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.when;
 import static org.python.google.common.collect.Sets.newHashSet;
 
 @RunWith(SpringJUnit4ClassRunner.class)
-@ContextConfiguration(classes = ScriptEvaluatorTest.Config.class)
+@ContextConfiguration(classes = {ScriptEvaluatorTest.Config.class, SlangEntitiesSpringConfig.class})
 public class ScriptEvaluatorTest {
 
-    private static String LINE_SEPARATOR = System.lineSeparator();
-    private static final String SYSTEM_PROPERTIES_MAP = "sys_prop";
-    private static final String GET_FUNCTION_DEFINITION =
-            "def get(key, default_value=None):" + LINE_SEPARATOR +
-                    "  value = globals().get(key)" + LINE_SEPARATOR +
-                    "  return default_value if value is None else value";
-    private static final String GET_SP_FUNCTION_DEFINITION =
-            "def get_sp(key, default_value=None):" + LINE_SEPARATOR +
-                    "  property_value = " + SYSTEM_PROPERTIES_MAP + ".get(key)" + LINE_SEPARATOR +
-                    "  return default_value if property_value is None else property_value";
-    private static final String CHECK_EMPTY_FUNCTION_DEFINITION =
-            "def check_empty(value_to_check, default_value=None):" + LINE_SEPARATOR +
-                    "  return default_value if value_to_check is None else value_to_check";
-
     @Rule
     public ExpectedException exception = ExpectedException.none();
 
@@ -80,113 +50,278 @@ public class ScriptEvaluatorTest {
     private ScriptEvaluator scriptEvaluator;
 
     @Autowired
-    private PythonInterpreter pythonInterpreter;
+    private CompiledExpressionCache compiledExpressionCache;
 
-    @Autowired
-    private PythonRuntimeService pythonRuntimeService;
+    @AfterClass
+    public static void resetEncryptor() throws Exception {
+        // sensitive values cache the encryptor of this context, later tests bring their own
+        Field field = EncryptionProvider.class.getDeclaredField("encryptor");
+        field.setAccessible(true);
+        field.set(null, new AtomicReference<>());
+    }
 
     @Test
     public void testEvalExpr() throws Exception {
-        reset(pythonRuntimeService);
-        when(pythonRuntimeService.eval(anyString(), anyString(), isA(Map.class)))
-                .thenReturn(new PythonEvaluationResult("result", new HashMap<String, Serializable>()));
-        scriptEvaluator.evalExpr("", new HashMap<String, Value>(),
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create("value1"));
+        Value result = scriptEvaluator.evalExpr("input1 + '_suffix'", context,
+                new HashSet<SystemProperty>(), new HashSet<ScriptFunction>());
+        Assert.assertEquals("value1_suffix", result.get());
+        Assert.assertFalse(result.isSensitive());
+    }
+
+    @Test
+    public void testEvalExprBooleanNames() throws Exception {
+        Value result = scriptEvaluator.evalExpr("true and not false", new HashMap<String, Value>(),
                 new HashSet<SystemProperty>(), new HashSet<ScriptFunction>());
-        verify(pythonRuntimeService).eval(eq(""), anyString(), anyMap());
+        Assert.assertEquals(Boolean.TRUE, result.get());
     }
 
     @Test
     public void testEvalExprError() throws Exception {
-        reset(pythonRuntimeService);
-        when(pythonRuntimeService.eval(anyString(), anyString(), anyMap()))
-                .thenThrow(new RuntimeException("error from interpreter"));
         exception.expect(RuntimeException.class);
         exception.expectMessage("input_expression");
-        exception.expectMessage("error from interpreter");
+        exception.expectMessage("name 'input_expression' is not defined");
         scriptEvaluator.evalExpr("input_expression", new HashMap<String, Value>(), new HashSet<SystemProperty>(),
                 new HashSet<ScriptFunction>());
     }
 
     @Test
     public void testEvalFunctions() throws Exception {
-        reset(pythonRuntimeService);
         Set<SystemProperty> props = new HashSet<>();
-        SystemProperty systemProperty = new SystemProperty("a.b", "c.key", "value");
-        props.add(systemProperty);
+        props.add(new SystemProperty("a.b", "c.key", "value"));
         Set<ScriptFunction> functionDependencies = newHashSet(ScriptFunction.GET,
                 ScriptFunction.GET_SYSTEM_PROPERTY, ScriptFunction.CHECK_EMPTY);
-        final ArgumentCaptor<String> scriptCaptor = ArgumentCaptor.forClass(String.class);
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create(null));
 
-        Map<String, Serializable> scriptReturnContext = new HashMap<>();
-        scriptReturnContext.put(SYSTEM_PROPERTIES_MAP, new PyDictionary());
+        Value result = scriptEvaluator.evalExpr(
+                "get('missing', 'x') + get_sp('a.b.c.key') + check_empty(input1, 'y')",
+                context, props, functionDependencies);
 
-        when(pythonRuntimeService.eval(anyString(), anyString(), isA(Map.class)))
-                .thenReturn(new PythonEvaluationResult("result", scriptReturnContext));
+        Assert.assertEquals("xvaluey", result.get());
+    }
 
-        String expr = "";
-        scriptEvaluator.evalExpr(expr, new HashMap<String, Value>(), props, functionDependencies);
+    @Test
+    public void testEvalExprGetReadsContext() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create("value1"));
+        Value result = scriptEvaluator.evalExpr("get('input1') + '_' + get('missing', 'default')", context,
+                new HashSet<SystemProperty>(), newHashSet(ScriptFunction.GET));
+        Assert.assertEquals("value1_default", result.get());
+    }
 
-        Map<String, Serializable> expectedContext = new HashMap<>();
-        Map<String, Value> properties = new HashMap<>();
-        properties.put("a.b.c.key", ValueFactory.createPyObjectValue("value", false));
+    @Test
+    public void testEvalExprFunctionNotDeclared() throws Exception {
+        exception.expect(RuntimeException.class);
+        exception.expectMessage("name 'check_empty' is not defined");
+        scriptEvaluator.evalExpr("check_empty(None, 'y')", new HashMap<String, Value>(),
+                new HashSet<SystemProperty>(), new HashSet<ScriptFunction>());
+    }
 
-        verify(pythonRuntimeService).eval(scriptCaptor.capture(), eq(expr), eq(expectedContext));
+    @Test
+    public void testEvalExprDoesNotKeepPreviousContext() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("previous_input", ValueFactory.create("value"));
+        scriptEvaluator.evalExpr("previous_input + ''", context, new HashSet<SystemProperty>(),
+                new HashSet<ScriptFunction>());
 
-        final String actualScript = scriptCaptor.getValue();
-        String[] actualFunctionsArray = actualScript.split(LINE_SEPARATOR + LINE_SEPARATOR);
-        Set<String> actualFunctions = new HashSet<>();
-        Collections.addAll(actualFunctions, actualFunctionsArray);
-        Set<String> expectedFunctions = newHashSet(
-                GET_FUNCTION_DEFINITION,
-                GET_SP_FUNCTION_DEFINITION,
-                CHECK_EMPTY_FUNCTION_DEFINITION
-        );
-        Assert.assertEquals(expectedFunctions, actualFunctions);
+        Value result = scriptEvaluator.evalExpr("get('previous_input', 'default') + ''", new HashMap<String, Value>(),
+                new HashSet<SystemProperty>(), newHashSet(ScriptFunction.GET));
+
+        Assert.assertEquals("default", result.get());
     }
 
-    @Configuration
-    static class Config {
-        @Bean
-        public ScriptExecutor scriptExecutor() {
-            return new ScriptExecutor();
+    @Test
+    public void testEvalExprUsesCompiledExpressionCache() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create(1));
+        final long misses = compiledExpressionCache.getMissCount();
+        final long hits = compiledExpressionCache.getHitCount();
+
+        scriptEvaluator.evalExpr("input1 + 41", context, new HashSet<SystemProperty>(),
+                new HashSet<ScriptFunction>());
+        Value result = scriptEvaluator.evalExpr("input1 + 41", context, new HashSet<SystemProperty>(),
+                new HashSet<ScriptFunction>());
+
+        Assert.assertEquals(42, result.get());
+        Assert.assertEquals(misses + 1, compiledExpressionCache.getMissCount());
+        Assert.assertEquals(hits + 1, compiledExpressionCache.getHitCount());
+    }
+
+    @Test
+    public void testEvalExprSimpleExpressionIsNotCompiled() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create("value1"));
+        final long misses = compiledExpressionCache.getMissCount();
+        final long hits = compiledExpressionCache.getHitCount();
+
+        Value result = scriptEvaluator.evalExpr("input1 == 'value1'", context, new HashSet<SystemProperty>(),
+                new HashSet<ScriptFunction>());
+
+        Assert.assertEquals(Boolean.TRUE, result.get());
+        Assert.assertEquals(misses, compiledExpressionCache.getMissCount());
+        Assert.assertEquals(hits, compiledExpressionCache.getHitCount());
+    }
+
+    @Test
+    public void testEvalSectionBindsInOrder() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("input1", ValueFactory.create(1));
+        TestSection section = new TestSection(context,
+                "a", "input1 + 1",
+                "b", null,
+                "c", "a * 10 + b",
+                "d", "c",
+                "e", "str(d) + get('missing', '!')");
+
+        scriptEvaluator.evalSection(section, new HashSet<SystemProperty>());
+
+        Assert.assertEquals(2, section.bound.get("a").get());
+        Assert.assertEquals(7, section.bound.get("b").get());
+        Assert.assertEquals(27, section.bound.get("c").get());
+        Assert.assertEquals(27, section.bound.get("d").get());
+        Assert.assertEquals("27!", section.bound.get("e").get());
+    }
+
+    @Test
+    public void testEvalSectionKeepsSensitivityPerResult() throws Exception {
+        Map<String, Value> context = new HashMap<>();
+        context.put("password", ValueFactory.create("secret", true));
+        context.put("user", ValueFactory.create("admin"));
+        Set<SystemProperty> props = new HashSet<>();
+        props.add(new SystemProperty("a", "key", ValueFactory.createEncryptedString("value", true)));
+        TestSection section = new TestSection(context,
+                "a", "password + '1'",
+                "b", "user + '1'",
+                "c", "a + b",
+                "d", "get_sp('a.key', 'x') + ''",
+                "e", "user + '2'");
+
+        scriptEvaluator.evalSection(section, props);
+
+        Assert.assertTrue(section.bound.get("a").isSensitive());
+        Assert.assertFalse(section.bound.get("b").isSensitive());
+        Assert.assertTrue(section.bound.get("c").isSensitive());
+        Assert.assertTrue(section.bound.get("d").isSensitive());
+        Assert.assertFalse(section.bound.get("e").isSensitive());
+    }
+
+    @Test
+    public void testEvalSectionReportsErrorOfBinding() throws Exception {
+        TestSection section = new TestSection(new HashMap<String, Value>(),
+                "a", "1 + 1",
+                "b", "a + undefined_name",
+                "c", "a + 2");
+
+        try {
+            scriptEvaluator.evalSection(section, new HashSet<SystemProperty>());
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertEquals("b", e.getMessage());
+            Assert.assertTrue(e.getCause().getMessage().contains("name 'undefined_name' is not defined"));
         }
+        Assert.assertEquals(2, section.bound.get("a").get());
+        Assert.assertFalse(section.bound.containsKey("c"));
+    }
+
+    @Test
+    public void testEvalSectionReportsSyntaxErrorAfterPreviousBindings() throws Exception {
+        TestSection section = new TestSection(new HashMap<String, Value>(),
+                "a", "1 + 1",
+                "b", "a) + (1",
+                "c", "a + 2");
+
+        try {
+            scriptEvaluator.evalSection(section, new HashSet<SystemProperty>());
+            Assert.fail();
+        } catch (RuntimeException e) {
+            Assert.assertEquals("b", e.getMessage());
+        }
+        Assert.assertEquals(2, section.bound.get("a").get());
+    }
+
+    @Test
+    public void testEvalSectionRethrowsBindError() throws Exception {
+        TestSection section = new TestSection(new HashMap<String, Value>(),
+                "a", "1 + 1",
+                "fail", "a + 1",
+                "c", "a + 2");
 
+        exception.expect(IllegalStateException.class);
+        exception.expectMessage("cannot bind fail");
+        scriptEvaluator.evalSection(section, new HashSet<SystemProperty>());
+    }
+
+    @Configuration
+    static class Config {
         @Bean
         public ScriptEvaluator scriptEvaluator() {
             return new ScriptEvaluator();
         }
 
         @Bean
-        public DependencyService mavenRepositoryService() {
-            return new DependencyServiceImpl();
+        public CompiledExpressionCache compiledExpressionCache() {
+            return new CompiledExpressionCache();
         }
 
         @Bean
-        public MavenConfig mavenConfig() {
-            return new MavenConfigImpl();
+        public PythonInterpreterPool pythonInterpreterPool() {
+            return new PythonInterpreterPool();
         }
+    }
 
-        @Bean
-        public PythonRuntimeService pythonRuntimeService() {
-            return mock(PythonRuntimeService.class);
+    private static class TestSection implements BindingSection {
+
+        private final Map<String, Value> context;
+        private final List<String> names = new ArrayList<>();
+        private final List<String> expressions = new ArrayList<>();
+        private final Map<String, Value> bound = new HashMap<>();
+
+        /**
+         * @param bindings pairs of name and expression, a binding without an expression is bound to 7
+         */
+        TestSection(Map<String, Value> context, String... bindings) {
+            this.context = context;
+            for (int i = 0; i < bindings.length; i += 2) {
+                names.add(bindings[i]);
+                expressions.add(bindings[i + 1]);
+            }
         }
 
-        @Bean
-        public PythonInterpreter pythonInterpreter() {
-            return mock(PythonInterpreter.class);
+        @Override
+        public int size() {
+            return names.size();
         }
 
-        @Bean
-        public PythonExecutionEngine pythonExecutionEngine() {
-            return new PythonExecutionCachedEngine() {
-                protected PythonExecutor createNewExecutor(Set<String> filePaths) {
-                    return new PythonExecutor(filePaths) {
-                        protected PythonInterpreter initInterpreter(Set<String> dependencies) {
-                            return pythonInterpreter();
-                        }
-                    };
-                }
-            };
+        @Override
+        public String getExpression(int index) {
+            return expressions.get(index);
+        }
+
+        @Override
+        public Set<ScriptFunction> getFunctionDependencies(int index) {
+            return newHashSet(ScriptFunction.GET, ScriptFunction.GET_SYSTEM_PROPERTY);
+        }
+
+        @Override
+        public Map<String, Value> getScriptContext(int index) {
+            Map<String, Value> scriptContext = new HashMap<>(context);
+            scriptContext.putAll(bound);
+            return scriptContext;
+        }
+
+        @Override
+        public void bind(int index, Value value) {
+            if ("fail".equals(names.get(index))) {
+                throw new IllegalStateException("cannot bind fail");
+            }
+            bound.put(names.get(index), value == null ? ValueFactory.create(7) : value);
+        }
+
+        @Override
+        public RuntimeException getBindingError(int index, Throwable error) {
+            return new RuntimeException(names.get(index), error);
         }
     }
 }
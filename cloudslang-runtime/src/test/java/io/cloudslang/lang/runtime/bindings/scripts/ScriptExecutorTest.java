@@ -112,6 +112,16 @@ public class ScriptExecutorTest {
             return new ScriptEvaluator();
         }
 
+        @Bean
+        public CompiledExpressionCache compiledExpressionCache() {
+            return new CompiledExpressionCache();
+        }
+
+        @Bean
+        public PythonInterpreterPool pythonInterpreterPool() {
+            return new PythonInterpreterPool();
+        }
+
         @Bean
         public DependencyService mavenRepositoryService() {
             return new DependencyServiceImpl();
@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.bindings.scripts;
+
+import io.cloudslang.lang.entities.bindings.ScriptFunction;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import junit.framework.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import static io.cloudslang.lang.runtime.bindings.scripts.SimpleExpressionEvaluator.evalExpr;
+
+public class SimpleExpressionEvaluatorTest {
+
+    private static final Set<ScriptFunction> NO_FUNCTIONS = EnumSet.noneOf(ScriptFunction.class);
+    private static final Set<ScriptFunction> GET_FUNCTION = EnumSet.of(ScriptFunction.GET);
+
+    private Map<String, Value> context;
+
+    @Before
+    public void setUp() {
+        context = new HashMap<>();
+        context.put("str", ValueFactory.create("abc"));
+        context.put("num", ValueFactory.create(5));
+        context.put("flag", ValueFactory.create(true));
+        context.put("empty", ValueFactory.create(null));
+        context.put("big", ValueFactory.create(5L));
+    }
+
+    @Test
+    public void testVariable() throws Exception {
+        Assert.assertEquals("abc", evalExpr("str", context, NO_FUNCTIONS).get());
+        Assert.assertEquals(5, evalExpr("num", context, NO_FUNCTIONS).get());
+        Assert.assertEquals(Boolean.TRUE, evalExpr("flag", context, NO_FUNCTIONS).get());
+        Assert.assertNull(evalExpr("empty", context, NO_FUNCTIONS).get());
+        Assert.assertFalse(evalExpr("str", context, NO_FUNCTIONS).isSensitive());
+    }
+
+    @Test
+    public void testVariableLeftForPython() throws Exception {
+        Assert.assertNull(evalExpr("missing", context, NO_FUNCTIONS));
+        Assert.assertNull(evalExpr("big", context, NO_FUNCTIONS));
+        Assert.assertNull(evalExpr("not", context, NO_FUNCTIONS));
+    }
+
+    @Test
+    public void testLiterals() throws Exception {
+        Assert.assertEquals("a b", evalExpr("'a b'", context, NO_FUNCTIONS).get());
+        Assert.assertEquals("a'b", evalExpr("\"a'b\"", context, NO_FUNCTIONS).get());
+        Assert.assertEquals(-12, evalExpr("-12", context, NO_FUNCTIONS).get());
+        Assert.assertEquals(Boolean.TRUE, evalExpr("true", context, NO_FUNCTIONS).get());
+        Assert.assertEquals(Boolean.FALSE, evalExpr("False", context, NO_FUNCTIONS).get());
+        Assert.assertNull(evalExpr("None", context, NO_FUNCTIONS).get());
+    }
+
+    @Test
+    public void testLiteralsLeftForPython() throws Exception {
+        Assert.assertNull(evalExpr("007", context, NO_FUNCTIONS));
+        Assert.assertNull(evalExpr("12345678901", context, NO_FUNCTIONS));
+        Assert.assertNull(evalExpr("'a\\nb'", context, NO_FUNCTIONS));
+        Assert.assertNull(evalExpr("'é'", context, NO_FUNCTIONS));
+    }
+
+    @Test
+    public void testComparison() throws Exception {
+        Assert.assertEquals(Boolean.TRUE, evalExpr("str == 'abc'", context, NO_FUNCTIONS).get());
+        Assert.assertEquals(Boolean.FALSE, evalExpr("str != 'abc'", context, NO_FUNCTIONS).get());
+        Assert.assertEquals(Boolean.TRUE, evalExpr("5==num", context, NO_FUNCTIONS).get());
+        Assert.assertEquals(Boolean.FALSE, evalExpr("num == '5'", context, NO_FUNCTIONS).get());
+        Assert.assertEquals(Boolean.TRUE, evalExpr("empty == None", context, NO_FUNCTIONS).get());
+        Assert.assertEquals(Boolean.TRUE, evalExpr("empty != str", context, NO_FUNCTIONS).get());
+    }
+
+    @Test
+    public void testComparisonLeftForPython() throws Exception {
+        Assert.assertNull(evalExpr("flag == 1", context, NO_FUNCTIONS));
+        Assert.assertNull(evalExpr("big == 5", context, NO_FUNCTIONS));
+        Assert.assertNull(evalExpr("str == 'abc' or num == 5", context, NO_FUNCTIONS));
+        Assert.assertNull(evalExpr("str is 'abc'", context, NO_FUNCTIONS));
+    }
+
+    @Test
+    public void testGet() throws Exception {
+        Assert.assertEquals("abc", evalExpr("get('str', 'default')", context, GET_FUNCTION).get());
+        Assert.assertEquals("default", evalExpr("get('missing', 'default')", context, GET_FUNCTION).get());
+        Assert.assertEquals("default", evalExpr("get(\"empty\", 'default')", context, GET_FUNCTION).get());
+        Assert.assertEquals(5, evalExpr("get('missing', num)", context, GET_FUNCTION).get());
+        Assert.assertNull(evalExpr("get('missing')", context, GET_FUNCTION).get());
+    }
+
+    @Test
+    public void testGetLeftForPython() throws Exception {
+        Assert.assertNull(evalExpr("get('str', 'default')", context, NO_FUNCTIONS));
+        Assert.assertNull(evalExpr("get('get', 'default')", context, GET_FUNCTION));
+        Assert.assertNull(evalExpr("get('str', missing)", context, GET_FUNCTION));
+        Assert.assertNull(evalExpr("get('big')", context, GET_FUNCTION));
+    }
+
+    @Test
+    public void testFunctionShadowsVariable() throws Exception {
+        context.put("check_empty", ValueFactory.create("abc"));
+        Assert.assertEquals("abc", evalExpr("check_empty", context, NO_FUNCTIONS).get());
+        Assert.assertNull(evalExpr("check_empty", context, EnumSet.of(ScriptFunction.CHECK_EMPTY)));
+    }
+}
@@ -0,0 +1,184 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ContextTest {
+
+    @Test
+    public void testBranchContextSharesValues() {
+        Context context = createContext();
+        Context branchContext = context.createBranchContext();
+
+        assertEquals(context, branchContext);
+        assertSame(context.getVariable("a"), branchContext.getVariable("a"));
+    }
+
+    @Test
+    public void testBranchContextChangesAreIsolated() {
+        Context context = createContext();
+        Context firstBranch = context.createBranchContext();
+        Context secondBranch = context.createBranchContext();
+
+        firstBranch.putVariable("a", ValueFactory.create("first"));
+        firstBranch.putVariable("c", ValueFactory.create("c"));
+        secondBranch.putVariable("a", ValueFactory.create("second"));
+        context.putVariable("d", ValueFactory.create("d"));
+
+        assertEquals("first", firstBranch.getVariable("a").get());
+        assertEquals("second", secondBranch.getVariable("a").get());
+        assertEquals("a", context.getVariable("a").get());
+        assertEquals(3, firstBranch.getImmutableViewOfVariables().size());
+        assertEquals(2, secondBranch.getImmutableViewOfVariables().size());
+        assertEquals(3, context.getImmutableViewOfVariables().size());
+        assertNull(secondBranch.getVariable("c"));
+        assertNull(firstBranch.getVariable("d"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testBranchContextCopiesMutableValues() {
+        Context context = createContext();
+        context.putVariable("list", ValueFactory.create(new ArrayList<>(Arrays.asList("x"))));
+        Context branchContext = context.createBranchContext();
+        ((List<Serializable>) branchContext.getVariable("list").get()).add("y");
+
+        assertNotSame(context.getVariable("list"), branchContext.getVariable("list"));
+        assertEquals(Arrays.asList("x"), context.getVariable("list").get());
+        assertEquals(Arrays.asList("x", "y"), branchContext.getVariable("list").get());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSharedEntriesCannotBeChanged() {
+        Map<String, Value> variables = new HashMap<>();
+        variables.put("a", ValueFactory.create("a"));
+        new OverlayMap<>(variables).entrySet().iterator().next().setValue(ValueFactory.create("changed"));
+    }
+
+    @Test
+    public void testBranchContextLanguageVariablesAreCopied() {
+        Context context = createContext();
+        context.putLanguageVariable("lang", ValueFactory.create("lang"));
+        Context branchContext = context.createBranchContext();
+        branchContext.removeLanguageVariable("lang");
+
+        assertEquals("lang", context.getLanguageVariable("lang").get());
+        assertNull(branchContext.getLanguageVariable("lang"));
+    }
+
+    @Test
+    public void testBranchContextSerialization() {
+        Context context = createContext();
+        Context branchContext = context.createBranchContext();
+        branchContext.putVariable("a", ValueFactory.create("branch"));
+
+        Context copy = SerializationUtils.clone(branchContext);
+        assertEquals(branchContext, copy);
+        copy.putVariable("b", ValueFactory.create("copy"));
+        assertEquals("b", branchContext.getVariable("b").get());
+    }
+
+    @Test
+    public void testSnapshotIsNotAffectedByLaterChanges() {
+        Context context = createContext();
+        final Map<String, Value> snapshot = context.snapshotVariables();
+
+        context.putVariable("a", ValueFactory.create("changed"));
+        context.putVariable("c", ValueFactory.create("c"));
+        final Map<String, Value> secondSnapshot = context.snapshotVariables();
+        context.putVariable("b", ValueFactory.create("changed"));
+
+        assertEquals(2, snapshot.size());
+        assertEquals("a", snapshot.get("a").get());
+        assertNull(snapshot.get("c"));
+        assertEquals(3, secondSnapshot.size());
+        assertEquals("changed", secondSnapshot.get("a").get());
+        assertEquals("b", secondSnapshot.get("b").get());
+        assertEquals("changed", context.getVariable("b").get());
+        assertEquals(3, context.getImmutableViewOfVariables().size());
+    }
+
+    @Test
+    public void testSnapshotsKeepSharingTheBase() {
+        Map<String, Value> variables = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            variables.put("var" + i, ValueFactory.create(i));
+        }
+        Context context = new Context(variables);
+        for (int i = 0; i < 200; i++) {
+            context.putVariable("var" + (i % 100), ValueFactory.create(-i));
+            Map<String, Value> snapshot = context.snapshotVariables();
+            assertEquals(100, snapshot.size());
+            assertEquals(-i, snapshot.get("var" + (i % 100)).get());
+        }
+        assertEquals(new HashMap<>(context.getImmutableViewOfVariables()),
+                SerializationUtils.clone(new HashMap<>(context.snapshotVariables())));
+    }
+
+    @Test
+    public void testSnapshotDepthIsBounded() {
+        Map<String, Value> variables = new HashMap<>();
+        for (int i = 0; i < 1000; i++) {
+            variables.put("var" + i, ValueFactory.create(i));
+        }
+        Context context = new Context(variables);
+        List<Map<String, Value>> snapshots = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            context.putVariable("var" + i, ValueFactory.create(-i));
+            Map<String, Value> snapshot = i % 2 == 0 ? context.snapshotVariables() :
+                    context.createBranchContext().snapshotVariables();
+            assertTrue(((OverlayMap<String, Value>) snapshot).getDepth() <= 12);
+            snapshots.add(snapshot);
+        }
+        for (int i = 0; i < 1000; i += 111) {
+            Map<String, Value> expected = new HashMap<>();
+            for (int j = 0; j < 1000; j++) {
+                expected.put("var" + j, ValueFactory.create(j <= i ? -j : j));
+            }
+            assertEquals(expected, new HashMap<>(snapshots.get(i)));
+            assertEquals(1000, snapshots.get(i).size());
+            assertEquals(-i, snapshots.get(i).get("var" + i).get());
+        }
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testSnapshotIsReadOnly() {
+        createContext().snapshotVariables().put("a", ValueFactory.create("changed"));
+    }
+
+    @Test
+    public void testReturnValuesKeepSnapshot() {
+        Map<String, Value> snapshot = createContext().snapshotVariables();
+        assertSame(snapshot, new ReturnValues(snapshot, "SUCCESS").getOutputs());
+    }
+
+    private Context createContext() {
+        Map<String, Value> variables = new HashMap<>();
+        variables.put("a", ValueFactory.create("a"));
+        variables.put("b", ValueFactory.create("b"));
+        return new Context(variables);
+    }
+}
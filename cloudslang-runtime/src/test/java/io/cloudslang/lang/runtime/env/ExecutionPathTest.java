@@ -11,6 +11,7 @@ package io.cloudslang.lang.runtime.env;
 
 import java.util.NoSuchElementException;
 
+import org.apache.commons.lang3.SerializationUtils;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
@@ -77,6 +78,44 @@ public class ExecutionPathTest {
         doAssert(expectedPath, executionPath);
     }
 
+    @Test
+    public void testParentPath() {
+        ExecutionPath executionPath = new ExecutionPath();
+        assertEquals("", executionPath.getParentPath());
+
+        executionPath.forward(); // 1
+        executionPath.down(); // 1/0
+        executionPath.forward(); // 1/1
+        executionPath.down(); // 1/1/0
+        assertEquals("1.1", executionPath.getParentPath());
+
+        executionPath.up(); // 1/1
+        assertEquals("1", executionPath.getParentPath());
+        executionPath.up(); // 1
+        assertEquals("", executionPath.getParentPath());
+        assertEquals("1", executionPath.getCurrentPath());
+    }
+
+    @Test
+    public void testCopiedAndDeserializedPathsAreIndependent() {
+        ExecutionPath executionPath = new ExecutionPath();
+        executionPath.down(); // 0/0
+        executionPath.forward(); // 0/1
+        assertEquals("0.1", executionPath.getCurrentPath());
+
+        ExecutionPath copy = new ExecutionPath(executionPath);
+        copy.down(); // 0/1/0
+        assertEquals("0.1.0", copy.getCurrentPath());
+        assertEquals("0.1", executionPath.getCurrentPath());
+
+        ExecutionPath deserialized = SerializationUtils.clone(copy);
+        assertEquals("0.1", deserialized.getParentPath());
+        deserialized.up(); // 0/1
+        deserialized.forward(); // 0/2
+        assertEquals("0.2", deserialized.getCurrentPath());
+        assertEquals("0", deserialized.getParentPath());
+    }
+
     private static void doAssert(StringBuilder expectedPath, ExecutionPath executionPath) {
         assertEquals(expectedPath.toString(), executionPath.getCurrentPath());
     }
@@ -0,0 +1,150 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ForLoopConditionTest {
+
+    @Test
+    public void testIteratesAllItems() {
+        ForLoopCondition forLoopCondition = new ForLoopCondition(Arrays.asList("a", "b", "c"));
+        StringBuilder items = new StringBuilder();
+        while (forLoopCondition.hasMore()) {
+            items.append(forLoopCondition.next().get());
+        }
+        assertEquals("abc", items.toString());
+    }
+
+    @Test
+    public void testValuesAreNotWrappedAgain() {
+        Value value = ValueFactory.create("a");
+        ForLoopCondition forLoopCondition = new ForLoopCondition(Arrays.asList(value));
+        assertTrue(value == forLoopCondition.next());
+        assertFalse(forLoopCondition.hasMore());
+    }
+
+    @Test
+    public void testNonListIterable() {
+        ForLoopCondition forLoopCondition = new ForLoopCondition(new LinkedHashSet<>(Arrays.asList("a", "b")));
+        assertEquals("a", forLoopCondition.next().get());
+        assertEquals("b", forLoopCondition.next().get());
+        assertFalse(forLoopCondition.hasMore());
+    }
+
+    @Test
+    public void testKeepsPositionWhenSerialized() {
+        ForLoopCondition forLoopCondition = new ForLoopCondition(Arrays.<Serializable>asList("a", "b", "c"));
+        forLoopCondition.next();
+
+        ForLoopCondition copy = SerializationUtils.clone(forLoopCondition);
+        assertEquals(forLoopCondition, copy);
+        assertEquals("b", copy.next().get());
+        assertEquals("c", copy.next().get());
+        assertFalse(copy.hasMore());
+    }
+
+    @Test
+    public void testCommaSeparatedStringIsIteratedLikeSplit() {
+        for (String items : Arrays.asList("a,b,c", "abc", "", "a,,b", ",a", "a,b,,", ",,,", " a , b ")) {
+            ForLoopCondition forLoopCondition = new ForLoopCondition(items, false);
+            List<Serializable> result = new ArrayList<>();
+            while (forLoopCondition.hasMore()) {
+                result.add(forLoopCondition.next().get());
+            }
+            assertEquals(items, Arrays.<Serializable>asList(items.split(",")), result);
+        }
+    }
+
+    @Test
+    public void testStringKeepsPositionWhenSerialized() {
+        ForLoopCondition forLoopCondition = new ForLoopCondition("a,b,c", false);
+        forLoopCondition.next();
+
+        ForLoopCondition copy = SerializationUtils.clone(forLoopCondition);
+        assertEquals(forLoopCondition, copy);
+        assertEquals("b", copy.next().get());
+        assertEquals("c", copy.next().get());
+        assertFalse(copy.hasMore());
+    }
+
+    @Test
+    public void testReadsConditionSerializedByIterableAndIndex() throws Exception {
+        LegacyForLoopCondition legacyCondition = new LegacyForLoopCondition();
+        legacyCondition.iterable = new LinkedHashSet<>(Arrays.asList(ValueFactory.create("a"),
+                ValueFactory.create("b"), ValueFactory.create("c")));
+        legacyCondition.index = 1;
+
+        ForLoopCondition forLoopCondition = (ForLoopCondition) readAs(legacyCondition, ForLoopCondition.class);
+
+        assertTrue(forLoopCondition.hasMore());
+        assertEquals("b", forLoopCondition.next().get());
+        assertEquals("c", forLoopCondition.next().get());
+        assertFalse(forLoopCondition.hasMore());
+    }
+
+    /**
+     * Serializes the object and reads it back as the given class, by renaming its class in the stream.
+     */
+    private Object readAs(Serializable object, Class<?> targetClass) throws Exception {
+        byte[] serialized = SerializationUtils.serialize(object);
+        byte[] sourceName = utf(object.getClass().getName());
+        byte[] targetName = utf(targetClass.getName());
+        int index = indexOf(serialized, sourceName);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(serialized, 0, index);
+        bytes.write(targetName);
+        bytes.write(serialized, index + sourceName.length, serialized.length - index - sourceName.length);
+        return new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+    }
+
+    private byte[] utf(String value) throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new DataOutputStream(bytes).writeUTF(value);
+        return bytes.toByteArray();
+    }
+
+    private int indexOf(byte[] array, byte[] part) {
+        for (int i = 0; i <= array.length - part.length; i++) {
+            if (Arrays.equals(part, Arrays.copyOfRange(array, i, i + part.length))) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException(new String(part, StandardCharsets.UTF_8) + " not found");
+    }
+
+    /**
+     * The fields of ForLoopCondition before the items were kept by index.
+     */
+    private static class LegacyForLoopCondition implements Serializable {
+
+        private static final long serialVersionUID = -2974335212434204529L;
+
+        private Iterable<? extends Serializable> iterable;
+        private int index;
+    }
+}
@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.SystemProperty;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.lang3.SerializationUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Compares Java serialization of a run environment with {@link RunEnvironmentCodec}.
+ * The main method prints the serialized sizes before running the benchmarks.
+ * <p>
+ * Run the main method from the test classpath, e.g. from the IDE after mvn test-compile.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RunEnvironmentCodecBenchmark {
+
+    private static final int[] SIZES = {10, 100, 1000};
+
+    @Param({"10", "100", "1000"})
+    private int variables;
+
+    private RunEnvironment runEnvironment;
+    private byte[] javaSerialized;
+    private byte[] binaryEncoded;
+
+    @Setup
+    public void setUp() {
+        runEnvironment = createRunEnvironment(variables);
+        javaSerialized = SerializationUtils.serialize(runEnvironment);
+        binaryEncoded = RunEnvironmentCodec.encode(runEnvironment);
+    }
+
+    @Benchmark
+    public byte[] javaSerialize() {
+        return SerializationUtils.serialize(runEnvironment);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return RunEnvironmentCodec.encode(runEnvironment);
+    }
+
+    @Benchmark
+    public RunEnvironment javaDeserialize() {
+        return (RunEnvironment) SerializationUtils.deserialize(javaSerialized);
+    }
+
+    @Benchmark
+    public RunEnvironment binaryDecode() {
+        return RunEnvironmentCodec.decode(binaryEncoded);
+    }
+
+    public static void main(String[] args) throws Exception {
+        for (int size : SIZES) {
+            RunEnvironment runEnvironment = createRunEnvironment(size);
+            System.out.println(size + " variables: Java serialization " +
+                    SerializationUtils.serialize(runEnvironment).length + " bytes, binary codec " +
+                    RunEnvironmentCodec.encode(runEnvironment).length + " bytes");
+        }
+        new Runner(new OptionsBuilder()
+                .include(RunEnvironmentCodecBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * A flow context and a step context with the given number of variables each,
+     * call arguments and return values of the same size, and a few system properties.
+     */
+    private static RunEnvironment createRunEnvironment(int size) {
+        Set<SystemProperty> systemProperties = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            systemProperties.add(new SystemProperty("a.b", "property" + i, "value" + i));
+        }
+        RunEnvironment runEnvironment = new RunEnvironment(systemProperties);
+
+        Map<String, Value> variables = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            variables.put("var" + i, createValue(i));
+        }
+        runEnvironment.getStack().pushContext(new Context(variables));
+        runEnvironment.getStack().pushContext(new Context(variables));
+        runEnvironment.putCallArguments(variables);
+        runEnvironment.putReturnValues(new ReturnValues(variables, "SUCCESS"));
+        runEnvironment.getParentFlowStack().pushParentFlowData(new ParentFlowData(1L, 2L));
+        runEnvironment.getExecutionPath().down();
+        runEnvironment.putNextStepPosition(3L);
+        return runEnvironment;
+    }
+
+    private static Value createValue(int index) {
+        switch (index % 3) {
+            case 0:
+                return ValueFactory.create("value of variable " + index);
+            case 1:
+                return ValueFactory.create(index);
+            default:
+                return ValueFactory.create(new ArrayList<>(Arrays.asList("host" + index, "port" + index)));
+        }
+    }
+}
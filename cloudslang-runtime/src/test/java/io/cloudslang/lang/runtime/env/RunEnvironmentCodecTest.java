@@ -0,0 +1,170 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.EventVerbosity;
+import io.cloudslang.lang.entities.SlangSystemPropertyConstant;
+import io.cloudslang.lang.entities.SystemProperty;
+import io.cloudslang.lang.entities.bindings.values.SensitiveValue;
+import io.cloudslang.lang.entities.bindings.values.Value;
+import io.cloudslang.lang.entities.bindings.values.ValueFactory;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Set;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.After;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class RunEnvironmentCodecTest {
+
+    private static final String BINARY_SERIALIZATION =
+            SlangSystemPropertyConstant.CSLANG_RUNENV_BINARY_SERIALIZATION.getValue();
+
+    @After
+    public void tearDown() {
+        System.clearProperty(BINARY_SERIALIZATION);
+    }
+
+    @Test
+    public void testRoundTrip() {
+        RunEnvironment runEnvironment = createRunEnvironment();
+
+        RunEnvironment decoded = RunEnvironmentCodec.decode(RunEnvironmentCodec.encode(runEnvironment));
+
+        assertRunEnvironment(runEnvironment, decoded);
+    }
+
+    @Test
+    public void testEmptyRunEnvironment() {
+        RunEnvironment decoded = RunEnvironmentCodec.decode(RunEnvironmentCodec.encode(new RunEnvironment()));
+
+        assertTrue(decoded.getSystemProperties().isEmpty());
+        assertTrue(decoded.removeCallArguments().isEmpty());
+        assertNull(decoded.removeReturnValues());
+        assertNull(decoded.removeNextStepPosition());
+        assertNull(decoded.getStack().popContext());
+        assertTrue(decoded.getParentFlowStack().isEmpty());
+        assertEquals("0", decoded.getExecutionPath().getCurrentPath());
+        assertNull(decoded.getEnabledEventTypes());
+        assertEquals(EventVerbosity.FULL, decoded.getEventVerbosity());
+    }
+
+    @Test
+    public void testJavaSerializationUsesCodecWhenEnabled() {
+        RunEnvironment runEnvironment = createRunEnvironment();
+        byte[] javaSerialized = SerializationUtils.serialize(runEnvironment);
+
+        System.setProperty(BINARY_SERIALIZATION, "true");
+        byte[] binarySerialized = SerializationUtils.serialize(runEnvironment);
+        RunEnvironment decoded = (RunEnvironment) SerializationUtils.deserialize(binarySerialized);
+
+        assertTrue(binarySerialized.length < javaSerialized.length);
+        assertRunEnvironment(runEnvironment, decoded);
+    }
+
+    @Test
+    public void testSharedValuesStayShared() {
+        Value shared = ValueFactory.create("shared");
+        RunEnvironment runEnvironment = new RunEnvironment();
+        runEnvironment.getStack().pushContext(new Context(Collections.singletonMap("var", shared)));
+        runEnvironment.putCallArguments(Collections.singletonMap("arg", shared));
+
+        RunEnvironment decoded = RunEnvironmentCodec.decode(RunEnvironmentCodec.encode(runEnvironment));
+
+        assertSame(decoded.getCallArguments().get("arg"), decoded.getStack().popContext().getVariable("var"));
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testDecodeRejectsUnknownData() {
+        RunEnvironmentCodec.decode(new byte[]{1, 2, 3, 4, 5});
+    }
+
+    private RunEnvironment createRunEnvironment() {
+        Set<SystemProperty> systemProperties = new HashSet<>();
+        systemProperties.add(new SystemProperty("a.b", "key", "value"));
+        systemProperties.add(new SystemProperty("", "top", (String) null));
+        systemProperties.add(new SystemProperty("a.b", "secret", ValueFactory.createEncryptedString("{enc}", true)));
+        final RunEnvironment runEnvironment = new RunEnvironment(systemProperties);
+
+        Map<String, Value> flowVariables = new HashMap<>();
+        flowVariables.put("string", ValueFactory.create("value"));
+        flowVariables.put("integer", ValueFactory.create(5));
+        flowVariables.put("null", ValueFactory.create(null));
+        flowVariables.put("list", ValueFactory.create(new ArrayList<>(Arrays.asList("a", null))));
+        flowVariables.put("linkedList", ValueFactory.create(new LinkedList<>(Arrays.asList(1, 2))));
+        flowVariables.put("nullValue", null);
+        Context flowContext = new Context(flowVariables);
+        flowContext.putLanguageVariable(LoopCondition.LOOP_CONDITION_KEY,
+                ValueFactory.create(new ForLoopCondition(Arrays.asList(ValueFactory.create("x")))));
+        runEnvironment.getStack().pushContext(flowContext);
+        runEnvironment.getStack().pushContext(new Context(Collections.<String, Value>emptyMap()));
+
+        Map<String, Value> callArguments = new HashMap<>();
+        callArguments.put("arg", ValueFactory.create(1.5));
+        callArguments.put("password", ValueFactory.createEncryptedString("{enc}password", true));
+        runEnvironment.putCallArguments(callArguments);
+        runEnvironment.putReturnValues(new ReturnValues(Collections.singletonMap("output", ValueFactory.create(true)),
+                "SUCCESS"));
+        runEnvironment.putNextStepPosition(7L);
+        runEnvironment.getParentFlowStack().pushParentFlowData(new ParentFlowData(1L, 2L));
+        runEnvironment.getParentFlowStack().pushParentFlowData(new ParentFlowData(null, 3L));
+        runEnvironment.getExecutionPath().forward();
+        runEnvironment.getExecutionPath().down();
+        runEnvironment.getExecutionPath().forward();
+        runEnvironment.setEnabledEventTypes(Collections.singleton("STEP_START"));
+        runEnvironment.setEventVerbosity(EventVerbosity.STEP_BOUNDARIES);
+        return runEnvironment;
+    }
+
+    private void assertRunEnvironment(RunEnvironment expected, RunEnvironment actual) {
+        assertEquals(expected.getSystemProperties(), actual.getSystemProperties());
+        assertEquals(expected.getExecutionPath().getCurrentPath(), actual.getExecutionPath().getCurrentPath());
+        assertEquals(expected.getEnabledEventTypes(), actual.getEnabledEventTypes());
+        assertEquals(expected.getEventVerbosity(), actual.getEventVerbosity());
+        assertTrue(actual.containsSensitiveData());
+
+        Map<String, Value> callArguments = actual.getCallArguments();
+        assertEquals(expected.getCallArguments(), callArguments);
+        assertEquals("{enc}password", ((SensitiveValue) callArguments.get("password")).getContent());
+
+        ReturnValues returnValues = actual.getReturnValues();
+        assertEquals(expected.getReturnValues().getOutputs(), returnValues.getOutputs());
+        assertEquals("SUCCESS", returnValues.getResult());
+        assertEquals(Long.valueOf(7), actual.getNextStepPosition());
+
+        assertEquals(2, actual.getStack().getContexts().size());
+        Context stepContext = actual.getStack().popContext();
+        assertTrue(stepContext.getImmutableViewOfVariables().isEmpty());
+        Context flowContext = actual.getStack().popContext();
+        Context expectedFlowContext = expected.getStack().getContexts().get(0);
+        assertEquals(expectedFlowContext.getImmutableViewOfVariables(), flowContext.getImmutableViewOfVariables());
+        assertEquals(LinkedList.class, flowContext.getVariable("linkedList").get().getClass());
+        Serializable loopCondition = flowContext.getLanguageVariable(LoopCondition.LOOP_CONDITION_KEY).get();
+        assertTrue(((ForLoopCondition) loopCondition).hasMore());
+
+        ParentFlowData parentFlowData = actual.getParentFlowStack().popParentFlowData();
+        assertNull(parentFlowData.getRunningExecutionPlanId());
+        assertEquals(Long.valueOf(3), parentFlowData.getPosition());
+        parentFlowData = actual.getParentFlowStack().popParentFlowData();
+        assertEquals(Long.valueOf(1), parentFlowData.getRunningExecutionPlanId());
+        assertNull(actual.getParentFlowStack().popParentFlowData());
+    }
+}
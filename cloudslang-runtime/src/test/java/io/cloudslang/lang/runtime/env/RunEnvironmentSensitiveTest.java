@@ -184,6 +184,77 @@ public class RunEnvironmentSensitiveTest {
         testEncrypted(systemProperty1, systemProperty2, callValue1, callValue2, output1, output2, true);
     }
 
+    @Test
+    public void testRunEnvironmentContextSensitiveTracking() {
+        RunEnvironment runEnvironment = new RunEnvironment(Sets.<SystemProperty>newHashSet());
+        Context context = new Context(Maps.<String, Value>newHashMap());
+        runEnvironment.getStack().pushContext(context);
+        assertFalse(runEnvironment.containsSensitiveData());
+
+        context.putVariable("var", ValueFactory.create("value", true));
+        assertTrue(runEnvironment.containsSensitiveData());
+
+        context.putVariable("var", ValueFactory.create("value", false));
+        assertFalse(runEnvironment.containsSensitiveData());
+
+        context.putLanguageVariable("langVar", ValueFactory.create("value", true));
+        assertTrue(runEnvironment.containsSensitiveData());
+
+        context.removeLanguageVariable("langVar");
+        assertFalse(runEnvironment.containsSensitiveData());
+    }
+
+    @Test
+    public void testRunEnvironmentEncryptsContextValues() {
+        RunEnvironment runEnvironment = new RunEnvironment(Sets.<SystemProperty>newHashSet());
+        Value contextValue = ValueFactory.create("callValue1", true);
+        Map<String, Value> variables = Maps.newHashMap();
+        variables.put("var", contextValue);
+        runEnvironment.getStack().pushContext(new Context(variables));
+        runEnvironment.getStack().pushContext(new Context(Maps.<String, Value>newHashMap()));
+        assertTrue(runEnvironment.containsSensitiveData());
+
+        runEnvironment.encryptSensitiveData();
+        assertEquals("{Encrypted}rO0ABXQACmNhbGxWYWx1ZTE=", ((SensitiveValue) contextValue).getContent());
+
+        runEnvironment.decryptSensitiveData();
+        assertEquals("callValue1", ((SensitiveValue) contextValue).getContent());
+        assertEquals(2, runEnvironment.getStack().getContexts().size());
+    }
+
+    @Test
+    public void testBranchDoesNotShareSensitiveValues() {
+        Set<SystemProperty> sp = Sets.newHashSet();
+        sp.add(new SystemProperty("a.b", "key", ValueFactory.createEncryptedString("value")));
+        RunEnvironment runEnvironment = new RunEnvironment(sp);
+        Map<String, Value> callArguments = Maps.newHashMap();
+        callArguments.put("callValue", ValueFactory.create("callValue", true));
+        runEnvironment.putCallArguments(callArguments);
+        Map<String, Value> variables = Maps.newHashMap();
+        variables.put("var", ValueFactory.create("value", true));
+        Context context = new Context(variables);
+        runEnvironment.getStack().pushContext(context);
+
+        RunEnvironment branchEnvironment = runEnvironment.createBranchEnvironment();
+        Context branchContext = context.createBranchContext();
+        branchEnvironment.getStack().pushContext(branchContext);
+        branchEnvironment.decryptSensitiveData();
+
+        SensitiveValue branchSystemPropertyValue =
+                (SensitiveValue) branchEnvironment.getSystemProperties().iterator().next().getValue();
+        SensitiveValue systemPropertyValue =
+                (SensitiveValue) runEnvironment.getSystemProperties().iterator().next().getValue();
+        assertEquals("value", branchSystemPropertyValue.getContent());
+        assertEquals(ENCYPTED + "value", systemPropertyValue.getContent());
+        assertEquals("callValue",
+                ((SensitiveValue) branchEnvironment.getCallArguments().get("callValue")).getContent());
+        assertTrue(((SensitiveValue) runEnvironment.getCallArguments().get("callValue")).getContent()
+                .startsWith(ENCYPTED));
+        assertEquals("value", ((SensitiveValue) branchContext.getVariable("var")).getContent());
+        assertTrue(((SensitiveValue) context.getVariable("var")).getContent().startsWith(ENCYPTED));
+        assertTrue(branchEnvironment.containsSensitiveData());
+    }
+
     private void testEncrypted(SystemProperty systemProperty1, SystemProperty systemProperty2,
                                Value callValue1, Value callValue2,
                                Value output1, Value output2, boolean encrypted) {
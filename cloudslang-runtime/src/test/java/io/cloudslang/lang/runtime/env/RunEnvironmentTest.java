@@ -0,0 +1,38 @@
+/*******************************************************************************
+ * (c) Copyright 2016 Hewlett-Packard Development Company, L.P.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Apache License v2.0 which accompany this distribution.
+ *
+ * The Apache License is available at
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *******************************************************************************/
+package io.cloudslang.lang.runtime.env;
+
+import io.cloudslang.lang.entities.EventVerbosity;
+import io.cloudslang.lang.entities.ScoreLangConstants;
+import io.cloudslang.lang.entities.SystemProperty;
+import java.lang.reflect.Field;
+import java.util.HashSet;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RunEnvironmentTest {
+
+    @Test
+    public void testEventVerbosityMissingFromSerializedFormIsFull() throws Exception {
+        RunEnvironment runEnvironment = new RunEnvironment(new HashSet<SystemProperty>());
+        // a run environment written before the verbosity was added has no value for it
+        Field eventVerbosity = RunEnvironment.class.getDeclaredField("eventVerbosity");
+        eventVerbosity.setAccessible(true);
+        eventVerbosity.set(runEnvironment, null);
+
+        RunEnvironment deserialized = SerializationUtils.clone(runEnvironment);
+
+        assertEquals(EventVerbosity.FULL, deserialized.getEventVerbosity());
+        assertTrue(deserialized.isEventEnabled(ScoreLangConstants.EVENT_ACTION_START));
+    }
+}
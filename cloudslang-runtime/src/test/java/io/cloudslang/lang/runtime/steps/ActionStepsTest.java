@@ -15,6 +15,7 @@ import io.cloudslang.dependency.api.services.DependencyService;
 import io.cloudslang.dependency.api.services.MavenConfig;
 import io.cloudslang.dependency.impl.services.DependencyServiceImpl;
 import io.cloudslang.dependency.impl.services.MavenConfigImpl;
+import io.cloudslang.lang.entities.EventVerbosity;
 import io.cloudslang.lang.entities.ScoreLangConstants;
 import io.cloudslang.lang.entities.bindings.values.Value;
 import io.cloudslang.lang.entities.bindings.values.ValueFactory;
@@ -196,6 +197,55 @@ public class ActionStepsTest {
         Assert.assertNotNull(actionEndEvent);
     }
 
+    @Test
+    public void doActionFiresOnlyEnabledEvents() {
+        //prepare doAction arguments
+        RunEnvironment runEnv = new RunEnvironment();
+        runEnv.setEnabledEventTypes(Collections.singleton(ScoreLangConstants.EVENT_ACTION_END));
+        ExecutionRuntimeServices runtimeServices = new ExecutionRuntimeServices();
+
+        //invoke doAction
+        actionSteps.doAction(
+                runtimeServices,
+                runEnv,
+                nonSerializableExecutionData,
+                2L,
+                PYTHON,
+                "",
+                "",
+                GAV_DEFAULT,
+                "var= \"hello\"",
+                DEPENDENCIES_DEFAULT
+        );
+
+        Collection<ScoreEvent> events = runtimeServices.getEvents();
+        assertEquals(1, events.size());
+        assertEquals(ScoreLangConstants.EVENT_ACTION_END, events.iterator().next().getEventType());
+    }
+
+    @Test
+    public void doActionStepBoundariesVerbosityFiresNoActionEvents() {
+        RunEnvironment runEnv = new RunEnvironment();
+        runEnv.setEventVerbosity(EventVerbosity.STEP_BOUNDARIES);
+        ExecutionRuntimeServices runtimeServices = new ExecutionRuntimeServices();
+
+        actionSteps.doAction(
+                runtimeServices,
+                runEnv,
+                nonSerializableExecutionData,
+                2L,
+                PYTHON,
+                "",
+                "",
+                GAV_DEFAULT,
+                "var= \"hello\"",
+                DEPENDENCIES_DEFAULT
+        );
+
+        Collection<ScoreEvent> events = runtimeServices.getEvents();
+        Assert.assertTrue(events == null || events.isEmpty());
+    }
+
     @Test
     public void doActionPythonActionCheckCallArgumentsOnEvent() {
         //prepare doAction arguments
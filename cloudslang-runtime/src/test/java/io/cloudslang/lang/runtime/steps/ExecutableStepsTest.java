@@ -25,6 +25,8 @@ import io.cloudslang.lang.entities.encryption.DummyEncryptor;
 import io.cloudslang.lang.runtime.bindings.InputsBinding;
 import io.cloudslang.lang.runtime.bindings.OutputsBinding;
 import io.cloudslang.lang.runtime.bindings.ResultsBinding;
+import io.cloudslang.lang.runtime.bindings.scripts.CompiledExpressionCache;
+import io.cloudslang.lang.runtime.bindings.scripts.PythonInterpreterPool;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import io.cloudslang.lang.runtime.env.ParentFlowData;
 import io.cloudslang.lang.runtime.env.ReturnValues;
@@ -352,6 +354,16 @@ public class ExecutableStepsTest {
             return mock(ScriptEvaluator.class);
         }
 
+        @Bean
+        public CompiledExpressionCache compiledExpressionCache() {
+            return mock(CompiledExpressionCache.class);
+        }
+
+        @Bean
+        public PythonInterpreterPool pythonInterpreterPool() {
+            return mock(PythonInterpreterPool.class);
+        }
+
         @Bean
         public DependencyService mavenRepositoryService() {
             return new DependencyServiceImpl();
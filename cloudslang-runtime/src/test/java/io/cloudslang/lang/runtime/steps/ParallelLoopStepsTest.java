@@ -16,6 +16,7 @@ import io.cloudslang.dependency.impl.services.MavenConfigImpl;
 import io.cloudslang.lang.entities.ListLoopStatement;
 import io.cloudslang.lang.entities.ResultNavigation;
 import io.cloudslang.lang.entities.ScoreLangConstants;
+import io.cloudslang.lang.entities.SystemProperty;
 import io.cloudslang.lang.entities.bindings.Output;
 import io.cloudslang.lang.entities.bindings.ScriptFunction;
 import io.cloudslang.lang.entities.bindings.values.Value;
@@ -25,8 +26,11 @@ import io.cloudslang.lang.runtime.RuntimeConstants;
 import io.cloudslang.lang.runtime.bindings.LoopsBinding;
 import io.cloudslang.lang.runtime.bindings.OutputsBinding;
 import io.cloudslang.lang.runtime.bindings.ParallelLoopBinding;
+import io.cloudslang.lang.runtime.bindings.scripts.CompiledExpressionCache;
+import io.cloudslang.lang.runtime.bindings.scripts.PythonInterpreterPool;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import io.cloudslang.lang.runtime.env.Context;
+import io.cloudslang.lang.runtime.env.ParallelLoopCondition;
 import io.cloudslang.lang.runtime.env.ReturnValues;
 import io.cloudslang.lang.runtime.env.RunEnvironment;
 import io.cloudslang.lang.runtime.events.LanguageEventData;
@@ -58,10 +62,16 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Matchers.anyMapOf;
+import static org.mockito.Matchers.anySetOf;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -134,7 +144,10 @@ public class ParallelLoopStepsTest {
                 1234L,
                 5L,
                 branchBeginStepId,
-                refId
+                refId,
+                null,
+                null,
+                null
         );
 
         // verify expected behaviour
@@ -190,7 +203,10 @@ public class ParallelLoopStepsTest {
                 1234L,
                 5L,
                 branchBeginStepId,
-                refId
+                refId,
+                null,
+                null,
+                null
         );
 
         // verify expected behaviour
@@ -210,6 +226,127 @@ public class ParallelLoopStepsTest {
         Assert.assertEquals(5, (long) runEnvironment.removeNextStepPosition());
     }
 
+    @Test
+    public void testBranchesAreCreatedInWaves() throws Exception {
+        // prepare arguments
+        ListLoopStatement parallelLoopStatement = new ListLoopStatement("varName", "expression",
+                new HashSet<ScriptFunction>(), new HashSet<String>(), true);
+
+        RunEnvironment runEnvironment = new RunEnvironment();
+        Map<String, Value> variables = new HashMap<>();
+        Context context = new Context(variables);
+        runEnvironment.getStack().pushContext(context);
+
+        String nodeName = "nodeName";
+        String refId = "branch_id";
+
+        // prepare mocks
+        ExecutionRuntimeServices executionRuntimeServices = mock(ExecutionRuntimeServices.class);
+        List<Value> expectedSplitData = newArrayList(ValueFactory.create(1),
+                ValueFactory.create(2), ValueFactory.create(3));
+        when(parallelLoopBinding.bindParallelLoopList(eq(parallelLoopStatement),
+                eq(context), eq(runEnvironment.getSystemProperties()), eq(nodeName)))
+                .thenReturn(expectedSplitData);
+        Long branchBeginStepId = 3L;
+
+        // call method
+        parallelLoopSteps.addBranches(parallelLoopStatement, runEnvironment, executionRuntimeServices, nodeName,
+                1234L, 5L, branchBeginStepId, refId, 2, 2L, null);
+
+        // verify expected behaviour
+        verify(executionRuntimeServices, times(2))
+                .addBranch(eq(branchBeginStepId), eq(refId), anyMapOf(String.class, Serializable.class));
+        Value parallelLoopCondition =
+                context.getLanguageVariable(ParallelLoopCondition.PARALLEL_LOOP_CONDITION_KEY);
+        assertNotNull("parallel loop condition not found in context", parallelLoopCondition);
+        assertTrue(((ParallelLoopCondition) parallelLoopCondition.get()).hasMore());
+        Assert.assertEquals(5, (long) runEnvironment.removeNextStepPosition());
+
+        // second wave
+        parallelLoopSteps.addBranches(parallelLoopStatement, runEnvironment, executionRuntimeServices, nodeName,
+                1234L, 5L, branchBeginStepId, refId, 2, 2L, null);
+
+        verify(executionRuntimeServices, times(3))
+                .addBranch(eq(branchBeginStepId), eq(refId), anyMapOf(String.class, Serializable.class));
+        verify(parallelLoopBinding, times(1)).bindParallelLoopList(eq(parallelLoopStatement),
+                eq(context), eq(runEnvironment.getSystemProperties()), eq(nodeName));
+        parallelLoopCondition = context.getLanguageVariable(ParallelLoopCondition.PARALLEL_LOOP_CONDITION_KEY);
+        assertFalse(((ParallelLoopCondition) parallelLoopCondition.get()).hasMore());
+    }
+
+    @Test
+    public void testJoinBranchesStartsNextWave() throws Exception {
+        // prepare arguments
+        RunEnvironment runEnvironment = new RunEnvironment();
+        runEnvironment.getExecutionPath().down();
+        Context context = new Context(new HashMap<String, Value>());
+        ParallelLoopCondition parallelLoopCondition = new ParallelLoopCondition(newArrayList(ValueFactory.create(1),
+                ValueFactory.create(2), ValueFactory.create(3), ValueFactory.create(4)), 3, 2L);
+        parallelLoopCondition.nextBranches();
+        context.putLanguageVariable(ParallelLoopCondition.PARALLEL_LOOP_CONDITION_KEY,
+                ValueFactory.create(parallelLoopCondition));
+        runEnvironment.getStack().pushContext(context);
+
+        ExecutionRuntimeServices executionRuntimeServices = createAndConfigureExecutionRuntimeServicesMock(
+                new HashMap<String, Serializable>(),
+                new HashMap<String, Serializable>(),
+                new HashMap<String, Serializable>()
+        );
+
+        // call method
+        parallelLoopSteps.joinBranches(runEnvironment, executionRuntimeServices, new ArrayList<Output>(),
+                new HashMap<String, ResultNavigation>(), "nodeName");
+
+        // verify expected behaviour
+        Assert.assertEquals(2, (long) runEnvironment.removeNextStepPosition());
+        Assert.assertNull(runEnvironment.removeReturnValues());
+        verify(outputsBinding, never()).bindOutputs(anyMapOf(String.class, Value.class),
+                anyMapOf(String.class, Value.class), anySetOf(SystemProperty.class), anyListOf(Output.class));
+        Context flowContext = runEnvironment.getStack().popContext();
+        ParallelLoopCondition actualParallelLoopCondition = (ParallelLoopCondition) flowContext
+                .getLanguageVariable(ParallelLoopCondition.PARALLEL_LOOP_CONDITION_KEY).get();
+        Assert.assertEquals(3, actualParallelLoopCondition.getBranchesContext().size());
+        Assert.assertEquals("0.0", runEnvironment.getExecutionPath().getCurrentPath());
+    }
+
+    @Test
+    public void testJoinBranchesFailFastSkipsRemainingWaves() throws Exception {
+        // prepare arguments
+        RunEnvironment runEnvironment = new RunEnvironment();
+        runEnvironment.getExecutionPath().down();
+        Context context = new Context(new HashMap<String, Value>());
+        ParallelLoopCondition parallelLoopCondition = new ParallelLoopCondition(newArrayList(ValueFactory.create(1),
+                ValueFactory.create(2), ValueFactory.create(3), ValueFactory.create(4)), 3, 2L, true);
+        parallelLoopCondition.nextBranches();
+        context.putLanguageVariable(ParallelLoopCondition.PARALLEL_LOOP_CONDITION_KEY,
+                ValueFactory.create(parallelLoopCondition));
+        runEnvironment.getStack().pushContext(context);
+
+        Map<String, ResultNavigation> stepNavigationValues = new HashMap<>();
+        stepNavigationValues.put(ScoreLangConstants.SUCCESS_RESULT, new ResultNavigation(0L, null));
+        stepNavigationValues.put(ScoreLangConstants.FAILURE_RESULT, new ResultNavigation(7L, null));
+
+        ExecutionRuntimeServices executionRuntimeServices = createAndConfigureExecutionRuntimeServicesMock(
+                new HashMap<String, Serializable>(),
+                new HashMap<String, Serializable>(),
+                new HashMap<String, Serializable>(),
+                new ReturnValues(new HashMap<String, Value>(), ScoreLangConstants.SUCCESS_RESULT),
+                new ReturnValues(new HashMap<String, Value>(), ScoreLangConstants.FAILURE_RESULT),
+                new ReturnValues(new HashMap<String, Value>(), ScoreLangConstants.SUCCESS_RESULT)
+        );
+
+        // call method
+        parallelLoopSteps.joinBranches(runEnvironment, executionRuntimeServices, new ArrayList<Output>(),
+                stepNavigationValues, "nodeName");
+
+        // verify expected behaviour
+        Assert.assertEquals(7, (long) runEnvironment.removeNextStepPosition());
+        Assert.assertEquals(ScoreLangConstants.FAILURE_RESULT, runEnvironment.removeReturnValues().getResult());
+        Context flowContext = runEnvironment.getStack().popContext();
+        Assert.assertNull(flowContext.getLanguageVariable(ParallelLoopCondition.PARALLEL_LOOP_CONDITION_KEY));
+        Assert.assertFalse(parallelLoopCondition.hasMore());
+    }
+
     @Test
     public void testJoinBranchesPublish() throws Exception {
         // prepare arguments
@@ -241,7 +378,7 @@ public class ParallelLoopStepsTest {
         runtimeContext3.put(ScoreLangConstants.BRANCH_RESULT_KEY, SUCCESS_RESULT);
 
         List<Output> stepPublishValues =
-                newArrayList(new Output("outputName", ValueFactory.create("outputExpression")));
+                newArrayList(new Output("outputName", ValueFactory.create("${ str(branches_context) }")));
         String nodeName = "nodeName";
         ExecutionRuntimeServices executionRuntimeServices =
                 createAndConfigureExecutionRuntimeServicesMock(runtimeContext1, runtimeContext2, runtimeContext3);
@@ -269,6 +406,68 @@ public class ParallelLoopStepsTest {
         Assert.assertEquals(expectedBranchContexts, actualBranchesContexts);
     }
 
+    @Test
+    public void testJoinBranchesPublishKeepsOnlyReadBranchVariables() throws Exception {
+        // prepare arguments
+        RunEnvironment runEnvironment = new RunEnvironment();
+        runEnvironment.getExecutionPath().down();
+        Map<String, Value> variables = new HashMap<>();
+        Context context = new Context(variables);
+        runEnvironment.getStack().pushContext(context);
+
+
+        Map<String, ResultNavigation> stepNavigationValues = new HashMap<>();
+        ResultNavigation successNavigation = new ResultNavigation(0L, ScoreLangConstants.SUCCESS_RESULT);
+        ResultNavigation failureNavigation = new ResultNavigation(0L, ScoreLangConstants.FAILURE_RESULT);
+        stepNavigationValues.put(ScoreLangConstants.SUCCESS_RESULT, successNavigation);
+        stepNavigationValues.put(ScoreLangConstants.FAILURE_RESULT, failureNavigation);
+
+
+        // prepare mocks
+        Map<String, Serializable> runtimeContext1 = new HashMap<>();
+        runtimeContext1.put("branch1Output", 1);
+        runtimeContext1.put(ScoreLangConstants.BRANCH_RESULT_KEY, SUCCESS_RESULT);
+
+        Map<String, Serializable> runtimeContext2 = new HashMap<>();
+        runtimeContext2.put("branch2Output", 2);
+        runtimeContext2.put(ScoreLangConstants.BRANCH_RESULT_KEY, SUCCESS_RESULT);
+
+        Map<String, Serializable> runtimeContext3 = new HashMap<>();
+        runtimeContext3.put("branch3Output", 3);
+        runtimeContext3.put(ScoreLangConstants.BRANCH_RESULT_KEY, SUCCESS_RESULT);
+
+        List<Output> stepPublishValues =
+                newArrayList(new Output("outputName", ValueFactory.create(
+                        "${ map(lambda x: x['branch1Output'], branches_context) }")));
+        String nodeName = "nodeName";
+        ExecutionRuntimeServices executionRuntimeServices =
+                createAndConfigureExecutionRuntimeServicesMock(runtimeContext1, runtimeContext2, runtimeContext3);
+
+        // call method
+        parallelLoopSteps.joinBranches(runEnvironment, executionRuntimeServices,
+                stepPublishValues, stepNavigationValues, nodeName);
+
+        // verify expected behaviour
+        ArgumentCaptor<Map> aggregateContextArgumentCaptor = ArgumentCaptor.forClass(Map.class);
+        //noinspection unchecked
+        verify(outputsBinding)
+                .bindOutputs(eq(context.getImmutableViewOfVariables()), aggregateContextArgumentCaptor.capture(),
+                eq(runEnvironment.getSystemProperties()), eq(stepPublishValues));
+
+        runtimeContext2.remove("branch2Output");
+        runtimeContext3.remove("branch3Output");
+        @SuppressWarnings("unchecked")
+        List<Map<String, Serializable>> expectedBranchContexts =
+                newArrayList(runtimeContext1, runtimeContext2, runtimeContext3);
+        @SuppressWarnings("unchecked")
+        Map<String, Value> aggregateContext = aggregateContextArgumentCaptor.getValue();
+        assertTrue(aggregateContext.containsKey(RuntimeConstants.BRANCHES_CONTEXT_KEY));
+        @SuppressWarnings("unchecked")
+        List<Map<String, Value>> actualBranchesContexts =
+                (List<Map<String, Value>>) aggregateContext.get(RuntimeConstants.BRANCHES_CONTEXT_KEY).get();
+        Assert.assertEquals(expectedBranchContexts, actualBranchesContexts);
+    }
+
     @Test
     public void testJoinBranchesNavigationAllBranchesSucced() throws Exception {
         // prepare arguments
@@ -562,6 +761,16 @@ public class ParallelLoopStepsTest {
             return mock(ScriptEvaluator.class);
         }
 
+        @Bean
+        public CompiledExpressionCache compiledExpressionCache() {
+            return mock(CompiledExpressionCache.class);
+        }
+
+        @Bean
+        public PythonInterpreterPool pythonInterpreterPool() {
+            return mock(PythonInterpreterPool.class);
+        }
+
         @Bean
         public DependencyService mavenRepositoryService() {
             return new DependencyServiceImpl();
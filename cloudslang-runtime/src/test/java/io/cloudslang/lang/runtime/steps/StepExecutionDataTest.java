@@ -26,6 +26,8 @@ import io.cloudslang.lang.entities.encryption.DummyEncryptor;
 import io.cloudslang.lang.runtime.bindings.ArgumentsBinding;
 import io.cloudslang.lang.runtime.bindings.LoopsBinding;
 import io.cloudslang.lang.runtime.bindings.OutputsBinding;
+import io.cloudslang.lang.runtime.bindings.scripts.CompiledExpressionCache;
+import io.cloudslang.lang.runtime.bindings.scripts.PythonInterpreterPool;
 import io.cloudslang.lang.runtime.bindings.scripts.ScriptEvaluator;
 import io.cloudslang.lang.runtime.env.Context;
 import io.cloudslang.lang.runtime.env.ForLoopCondition;
@@ -529,6 +531,16 @@ public class StepExecutionDataTest {
             return mock(ScriptEvaluator.class);
         }
 
+        @Bean
+        public CompiledExpressionCache compiledExpressionCache() {
+            return mock(CompiledExpressionCache.class);
+        }
+
+        @Bean
+        public PythonInterpreterPool pythonInterpreterPool() {
+            return mock(PythonInterpreterPool.class);
+        }
+
         @Bean
         public DependencyService mavenRepositoryService() {
             return new DependencyServiceImpl();
@@ -42,6 +42,7 @@ public class ParallelLoopFlowsTest extends SystemsTestsParent {
     private static final String BRANCH_RESULTS_LIST_PUBLISH_VALUE = "branch_results_list";
     private static final String CUSTOM_RESULT = "CUSTOM";
     private static final String SUCCESS_RESULT = "SUCCESS";
+    private static final String FAILURE_RESULT = "FAILURE";
     private static final String BRANCH_RESULT_OUTPUT_VALUE = "should_be_overridden";
 
     @Test
@@ -110,6 +111,50 @@ public class ParallelLoopFlowsTest extends SystemsTestsParent {
         verifyPublishValues(runtimeInformation, expectedNameOutputs);
     }
 
+    @Test
+    public void testFlowWithParallelLoopMaxParallelism() throws Exception {
+        URI resource = getClass().getResource("/yaml/loops/parallel_loop/parallel_loop_max_parallelism.sl").toURI();
+        URI operation1 = getClass().getResource("/yaml/loops/parallel_loop/print_branch.sl").toURI();
+        Set<SlangSource> path = newHashSet(fromFile(operation1));
+
+        RuntimeInformation runtimeInformation = triggerWithData(
+                fromFile(resource),
+                path,
+                getSystemProperties()
+        );
+
+        List<StepData> branchesData = extractParallelLoopData(runtimeInformation);
+        Assert.assertEquals("incorrect number of branches", 3, branchesData.size());
+
+        List<String> expectedNameOutputs = verifyBranchPublishValues(branchesData);
+
+        verifyPublishValues(runtimeInformation, expectedNameOutputs);
+    }
+
+    @Test
+    public void testFlowWithParallelLoopFailFast() throws Exception {
+        URI resource = getClass().getResource("/yaml/loops/parallel_loop/parallel_loop_fail_fast.sl").toURI();
+        URI operation1 = getClass().getResource("/yaml/loops/parallel_loop/fail_on_first_value.sl").toURI();
+        Set<SlangSource> path = newHashSet(fromFile(operation1));
+
+        RuntimeInformation runtimeInformation = triggerWithData(
+                fromFile(resource),
+                path,
+                getSystemProperties()
+        );
+
+        // the first wave has a failed branch, so the other waves are not started
+        List<StepData> branchesData = extractParallelLoopData(runtimeInformation);
+        Assert.assertEquals("incorrect number of branches", 2, branchesData.size());
+
+        StepData parallelLoopStep = runtimeInformation.getParallelSteps().get(FIRST_STEP_PATH);
+        Assert.assertEquals(FAILURE_RESULT, parallelLoopStep.getResult());
+        List<String> branchResults = getArrayListFromString(
+                (String) parallelLoopStep.getOutputs().get(BRANCH_RESULTS_LIST_PUBLISH_VALUE));
+        Assert.assertTrue(containsSameElementsWithoutOrdering(branchResults,
+                Lists.newArrayList(SUCCESS_RESULT, FAILURE_RESULT)));
+    }
+
     @Test
     public void testFlowBranchResults() throws Exception {
         URI resource = getClass().getResource("/yaml/loops/parallel_loop/parallel_loop_branch_result.sl").toURI();